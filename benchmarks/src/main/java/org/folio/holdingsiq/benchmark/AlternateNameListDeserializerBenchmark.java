@@ -0,0 +1,46 @@
+package org.folio.holdingsiq.benchmark;
+
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.Json;
+import java.util.concurrent.TimeUnit;
+import org.folio.holdingsiq.deserializer.AlternateNameListDeserializer;
+import org.folio.holdingsiq.model.PackageData;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Decoding of packages whose alternate names go through {@link AlternateNameListDeserializer}, in both the object
+ * and the plain string representation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AlternateNameListDeserializerBenchmark {
+
+  @Param({"false", "true"})
+  public boolean stringAltNames;
+
+  private Buffer packageData;
+
+  @Setup
+  public void setUp() {
+    packageData = Fixtures.packageData(stringAltNames);
+  }
+
+  @Benchmark
+  public PackageData packageData() {
+    return Json.decodeValue(packageData, PackageData.class);
+  }
+}
@@ -0,0 +1,57 @@
+package org.folio.holdingsiq.benchmark;
+
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.Json;
+import java.util.concurrent.TimeUnit;
+import org.folio.holdingsiq.model.Holdings;
+import org.folio.holdingsiq.model.Packages;
+import org.folio.holdingsiq.model.Titles;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Decoding of response bodies into the model classes with {@link Json#decodeValue(Buffer, Class)}, as done by the
+ * client for every buffered RM API response.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DecodeResponseBodyBenchmark {
+
+  private Buffer holdingsPage;
+  private Buffer titlesPage;
+  private Buffer packagesPage;
+
+  @Setup
+  public void setUp() {
+    holdingsPage = Fixtures.holdingsPage();
+    titlesPage = Fixtures.titlesPage();
+    packagesPage = Fixtures.packagesPage(false);
+  }
+
+  @Benchmark
+  public Holdings holdingsPage() {
+    return Json.decodeValue(holdingsPage, Holdings.class);
+  }
+
+  @Benchmark
+  public Titles titlesPage() {
+    return Json.decodeValue(titlesPage, Titles.class);
+  }
+
+  @Benchmark
+  public Packages packagesPage() {
+    return Json.decodeValue(packagesPage, Packages.class);
+  }
+}
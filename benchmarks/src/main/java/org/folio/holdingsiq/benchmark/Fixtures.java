@@ -0,0 +1,221 @@
+package org.folio.holdingsiq.benchmark;
+
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * RM API response bodies shaped like real responses, generated once per benchmark trial.
+ */
+public final class Fixtures {
+
+  public static final int HOLDINGS_PAGE_SIZE = 4000;
+  public static final int TITLES_PAGE_SIZE = 100;
+  public static final int PACKAGES_PAGE_SIZE = 100;
+
+  private static final int RESOURCES_PER_TITLE = 3;
+  private static final int SUBJECT_FACETS = 200;
+  private static final int ALT_NAMES_PER_PACKAGE = 5;
+
+  private Fixtures() {
+  }
+
+  /**
+   * @return KBART holdings page as returned by {@code /holdings?format=kbart2}
+   */
+  public static Buffer holdingsPage() {
+    return holdingsPage(HOLDINGS_PAGE_SIZE);
+  }
+
+  /**
+   * @param rows number of holdings in the page
+   * @return KBART holdings page as returned by {@code /holdings?format=kbart2}
+   */
+  public static Buffer holdingsPage(int rows) {
+    var holdings = new JsonArray();
+    for (int i = 0; i < rows; i++) {
+      holdings.add(holding(i));
+    }
+    return new JsonObject()
+      .put("offset", 1)
+      .put("format", "kbart2")
+      .put("holdings", holdings)
+      .toBuffer();
+  }
+
+  /**
+   * @param rows number of changed holdings in the page
+   * @return delta report page as returned by {@code /reports/holdings/deltas/{id}}
+   */
+  public static Buffer deltaReportPage(int rows) {
+    var holdings = new JsonArray();
+    for (int i = 0; i < rows; i++) {
+      holdings.add(holding(i)
+        .put("change_type", i % 2 == 0 ? "HOLDING_UPDATED" : "HOLDING_ADDED")
+        .put("package_content_type", "AggregatedFullText")
+        .put("first_author", ""));
+    }
+    return new JsonObject()
+      .put("offset", 1)
+      .put("count", rows)
+      .put("totalCount", rows * 10)
+      .put("format", "kbart2")
+      .put("holdings", holdings)
+      .toBuffer();
+  }
+
+  /**
+   * @return titles search page with customer resources of every title
+   */
+  public static Buffer titlesPage() {
+    var titles = new JsonArray();
+    for (int i = 0; i < TITLES_PAGE_SIZE; i++) {
+      var resources = new JsonArray();
+      for (int r = 0; r < RESOURCES_PER_TITLE; r++) {
+        resources.add(customerResource(i, r));
+      }
+      titles.add(new JsonObject()
+        .put("titleId", 100_000 + i)
+        .put("titleName", "Journal of Applied Research vol. " + i)
+        .put("publisherName", "Academic Publisher " + i % 50)
+        .put("pubType", "Journal")
+        .put("isTitleCustom", false)
+        .put("isPeerReviewed", true)
+        .put("edition", "1")
+        .put("description", "Peer reviewed journal covering applied research topics")
+        .put("identifiersList", new JsonArray()
+          .add(new JsonObject().put("id", "1234-" + String.format("%04d", i)).put("subtype", 1).put("type", 0))
+          .add(new JsonObject().put("id", "5678-" + String.format("%04d", i)).put("subtype", 2).put("type", 0)))
+        .put("subjectsList", new JsonArray()
+          .add(new JsonObject().put("type", "BISAC").put("subject", "SCIENCE / Research & Methodology")))
+        .put("contributorsList", new JsonArray()
+          .add(new JsonObject().put("type", "Author").put("contributor", "Smith, John")))
+        .put("alternateTitleList", new JsonArray()
+          .add(new JsonObject().put("alternateTitle", "J. Appl. Res. " + i).put("titleType", "Abbreviation")))
+        .put("customerResourcesList", resources));
+    }
+    return new JsonObject()
+      .put("totalResults", 25_000)
+      .put("titles", titles)
+      .toBuffer();
+  }
+
+  /**
+   * @param stringAltNames true to send alternate names as plain strings, false to send them as objects
+   * @return packages search page with subject facets
+   */
+  public static Buffer packagesPage(boolean stringAltNames) {
+    var packages = new JsonArray();
+    for (int i = 0; i < PACKAGES_PAGE_SIZE; i++) {
+      packages.add(packageData(i, stringAltNames));
+    }
+    var subjects = new JsonArray();
+    for (int i = 0; i < SUBJECT_FACETS; i++) {
+      subjects.add(new JsonObject()
+        .put("id", i)
+        .put("parentId", i < 20 ? null : i % 20)
+        .put("schema", "BISAC")
+        .put("name", "SUBJECT / Category " + i)
+        .put("count", 1000 - i));
+    }
+    return new JsonObject()
+      .put("totalResults", 5_000)
+      .put("packagesList", packages)
+      .put("facets", new JsonObject().put("subjects", subjects))
+      .toBuffer();
+  }
+
+  /**
+   * @param stringAltNames true to send alternate names as plain strings, false to send them as objects
+   * @return single package, as returned by {@code /v2/lists/{id}}
+   */
+  public static Buffer packageData(boolean stringAltNames) {
+    return packageData(0, stringAltNames).toBuffer();
+  }
+
+  private static JsonObject packageData(int index, boolean stringAltNames) {
+    var managedAltNames = new JsonArray();
+    var customAltNames = new JsonArray();
+    for (int n = 0; n < ALT_NAMES_PER_PACKAGE; n++) {
+      managedAltNames.add(altName(n, "Managed name " + index + "-" + n, stringAltNames));
+      customAltNames.add(altName(n, "Custom name " + index + "-" + n, stringAltNames));
+    }
+    return new JsonObject()
+      .put("listId", 2000 + index)
+      .put("packageName", "Academic Search Complete " + index)
+      .put("managedAltNames", managedAltNames)
+      .put("customAltNames", customAltNames)
+      .put("isCustom", false)
+      .put("vendorId", 19)
+      .put("vendorName", "EBSCO")
+      .put("titleCount", 12_000)
+      .put("isSelected", index % 2 == 0)
+      .put("selectedCount", 12_000)
+      .put("contentType", "AggregatedFullText")
+      .put("packageType", "Complete")
+      .put("subjectAssociations", new JsonArray()
+        .add(new JsonObject().put("id", index % SUBJECT_FACETS).put("schemaId", 1).put("name", "SUBJECT")
+          .put("isCustom", false).put("explicitAssignment", true).put("subjectHierarchy", "SUBJECT / Category")));
+  }
+
+  private static JsonObject holding(int i) {
+    return new JsonObject()
+      .put("publication_title", "Journal of Applied Research vol. " + i)
+      .put("print_identifier", "1234-" + String.format("%04d", i))
+      .put("online_identifier", "5678-" + String.format("%04d", i))
+      .put("date_first_issue_online", "1997-01-01")
+      .put("num_first_vol_online", "1")
+      .put("num_first_issue_online", "1")
+      .put("date_last_issue_online", "")
+      .put("num_last_vol_online", "")
+      .put("num_last_issue_online", "")
+      .put("title_url", "https://search.ebscohost.com/direct.asp?db=a9h&jid=" + i)
+      .put("title_id", String.valueOf(100_000 + i))
+      .put("embargo_info", "R1Y")
+      .put("coverage_depth", "fulltext")
+      .put("notes", "")
+      .put("publisher_name", "Academic Publisher " + i % 50)
+      .put("publication_type", i % 3 == 0 ? "monograph" : "serial")
+      .put("date_monograph_published_print", "")
+      .put("date_monograph_published_online", "")
+      .put("monograph_volume", "")
+      .put("monograph_edition", "")
+      .put("first_editor", "")
+      .put("parent_publication_title_id", "")
+      .put("preceding_publication_title_id", "")
+      .put("access_type", "P")
+      .put("package_name", "Academic Search Complete")
+      .put("package_id", String.valueOf(2000 + i % 20))
+      .put("vendor_name", "EBSCO")
+      .put("vendor_id", 19)
+      .put("resource_type", "Journal");
+  }
+
+  private static Object altName(int id, String name, boolean asString) {
+    return asString ? name : new JsonObject().put("id", id).put("altName", name);
+  }
+
+  private static JsonObject customerResource(int titleIndex, int resourceIndex) {
+    return new JsonObject()
+      .put("titleId", 100_000 + titleIndex)
+      .put("packageId", 2000 + resourceIndex)
+      .put("packageName", "Academic Search Complete " + resourceIndex)
+      .put("isPackageCustom", false)
+      .put("vendorId", 19)
+      .put("vendorName", "EBSCO")
+      .put("locationId", 900_000 + titleIndex * RESOURCES_PER_TITLE + resourceIndex)
+      .put("isTokenNeeded", false)
+      .put("packageType", "Complete")
+      .put("isSelected", true)
+      .put("visibilityData", new JsonObject().put("isHidden", false).put("reason", ""))
+      .put("managedCoverageList", new JsonArray()
+        .add(new JsonObject().put("beginCoverage", "1997-01-01").put("endCoverage", "")))
+      .put("customCoverageList", new JsonArray())
+      .put("managedEmbargoPeriod", new JsonObject().put("embargoUnit", "Years").put("embargoValue", 1))
+      .put("customEmbargoPeriod", new JsonObject().put("embargoUnit", "").put("embargoValue", 0))
+      .put("coverageStatement", "")
+      .put("proxy", new JsonObject().put("id", "<n>").put("proxiedUrl", "https://proxy.example.org/login"))
+      .put("url", "https://search.ebscohost.com/direct.asp?db=a9h&jid=" + titleIndex)
+      .put("userDefinedField1", "field " + titleIndex);
+  }
+}
@@ -0,0 +1,75 @@
+package org.folio.holdingsiq.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.folio.holdingsiq.model.FilterQuery;
+import org.folio.holdingsiq.model.PackageFilter;
+import org.folio.holdingsiq.model.PackageFilterSelected;
+import org.folio.holdingsiq.model.PackageFilterType;
+import org.folio.holdingsiq.model.Pageable;
+import org.folio.holdingsiq.model.Sort;
+import org.folio.holdingsiq.service.impl.urlbuilder.PackagesFilterableUrlBuilder;
+import org.folio.holdingsiq.service.impl.urlbuilder.QueryableUrlBuilder;
+import org.folio.holdingsiq.service.impl.urlbuilder.TitlesFilterableUrlBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Query string building for searches, including the construction of the builders as done for every request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UrlBuilderBenchmark {
+
+  private final FilterQuery titlesFilter = FilterQuery.builder()
+    .name("journal of applied research & methodology")
+    .selected("selected")
+    .type("journal")
+    .packageIds(List.of(2000, 2001, 2002, 2003, 2004))
+    .build();
+  private final PackageFilter packageFilter = PackageFilter.builder()
+    .query("academic search complete")
+    .filterSelected(PackageFilterSelected.SELECTED)
+    .filterType(PackageFilterType.ALL)
+    .highlightTag("b")
+    .includeSubjectFacet(true)
+    .build();
+  private final Pageable pageable = new Pageable(3, 100, Sort.RELEVANCE);
+
+  @Benchmark
+  public String queryable() {
+    return new QueryableUrlBuilder()
+      .q("journal of applied research & methodology")
+      .page(3)
+      .count(100)
+      .sort(Sort.RELEVANCE)
+      .nameParameter("titlename")
+      .build();
+  }
+
+  @Benchmark
+  public String packagesFilterable() {
+    return new PackagesFilterableUrlBuilder(packageFilter, pageable).build();
+  }
+
+  @Benchmark
+  public String titlesFilterable() {
+    return new TitlesFilterableUrlBuilder()
+      .filter(titlesFilter)
+      .page(3)
+      .count(100)
+      .sort(Sort.RELEVANCE)
+      .build();
+  }
+}
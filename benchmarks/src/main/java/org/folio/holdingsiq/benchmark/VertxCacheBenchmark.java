@@ -0,0 +1,89 @@
+package org.folio.holdingsiq.benchmark;
+
+import io.vertx.core.Vertx;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import org.folio.cache.CacheSettings;
+import org.folio.cache.VertxCache;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Lookups of cached and missing keys with {@link VertxCache#getValue}, unbounded and bounded by a maximum size.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class VertxCacheBenchmark {
+
+  private static final int KEYS = 10_000;
+
+  @Param({"0", "20000"})
+  public long maximumSize;
+
+  private Vertx vertx;
+  private VertxCache<String, String> cache;
+  private String[] keys;
+  private String[] missingKeys;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    vertx = Vertx.vertx();
+    cache = new VertxCache<>(vertx, "benchmarkCache", CacheSettings.builder()
+      .expirationTime(Duration.ofHours(1))
+      .maximumSize(maximumSize)
+      .build());
+    keys = new String[KEYS];
+    missingKeys = new String[KEYS];
+    for (int i = 0; i < KEYS; i++) {
+      keys[i] = "customer_" + i;
+      missingKeys[i] = "missing_" + i;
+      cache.putValue(keys[i], "value_" + i);
+    }
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    vertx.close().toCompletionStage().toCompletableFuture().join();
+  }
+
+  @Benchmark
+  public String hit(ThreadIndex index) {
+    return cache.getValue(keys[index.next()]);
+  }
+
+  @Benchmark
+  public String miss(ThreadIndex index) {
+    return cache.getValue(missingKeys[index.next()]);
+  }
+
+  /**
+   * Per thread position in the key array, so threads do not contend on a shared counter.
+   */
+  @State(Scope.Thread)
+  public static class ThreadIndex {
+
+    private int position;
+
+    int next() {
+      position = (position + 1) % KEYS;
+      return position;
+    }
+  }
+}
@@ -0,0 +1,255 @@
+package org.folio.holdingsiq.loadtest;
+
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.vertx.core.Vertx;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.folio.holdingsiq.loadtest.LoadTestSettings.Scenario;
+import org.folio.holdingsiq.model.Configuration;
+import org.folio.holdingsiq.model.FilterQuery;
+import org.folio.holdingsiq.model.PackageFilter;
+import org.folio.holdingsiq.model.Pageable;
+import org.folio.holdingsiq.model.Sort;
+import org.folio.holdingsiq.service.HoldingsIQClientOptions;
+import org.folio.holdingsiq.service.impl.LoadServiceImpl;
+import org.folio.holdingsiq.service.impl.PackagesHoldingsIQServiceImpl;
+import org.folio.holdingsiq.service.impl.TitlesHoldingsIQServiceImpl;
+
+/**
+ * Drives the package, title and holdings services against {@link RmApiStub} at a fixed request rate and prints
+ * latency percentiles per scenario, connection pool wait times and heap and GC statistics.
+ *
+ * <p>Requests are started on schedule regardless of how many are still in flight, and latency is measured from the
+ * scheduled start, so a saturated client shows up as growing latency instead of a lower request rate.
+ */
+public final class LoadTest {
+
+  private static final String POOL_WAIT = "holdingsiq.client.pool.wait";
+  private static final long HIGHEST_TRACKABLE_NANOS = TimeUnit.MINUTES.toNanos(10);
+  private static final int SIGNIFICANT_DIGITS = 3;
+  private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+  private static final long DRAIN_TIMEOUT_SECONDS = 60;
+  private static final double NANOS_PER_MILLI = 1_000_000.0;
+  private static final int PROVIDER_ID = 19;
+  private static final int COUNT = 25;
+
+  private final LoadTestSettings settings;
+  private final Map<Scenario, ScenarioResult> results = new EnumMap<>(Scenario.class);
+  private final Map<CompletableFuture<?>, Boolean> inFlight = new ConcurrentHashMap<>();
+  private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+  private LoadTest(LoadTestSettings settings) {
+    this.settings = settings;
+    settings.getScenarios().forEach(scenario -> results.put(scenario, new ScenarioResult()));
+    registry.config().meterFilter(new MeterFilter() {
+      @Override
+      public DistributionStatisticConfig configure(Meter.Id id, DistributionStatisticConfig config) {
+        return id.getName().equals(POOL_WAIT)
+               ? DistributionStatisticConfig.builder().percentiles(0.5, 0.9, 0.99, 0.999).build().merge(config)
+               : config;
+      }
+    });
+  }
+
+  public static void main(String[] args) throws Exception {
+    var settings = LoadTestSettings.parse(args);
+    try (var stub = new RmApiStub(settings)) {
+      stub.start();
+      new LoadTest(settings).run(stub.baseUrl());
+    }
+  }
+
+  private void run(String baseUrl) throws InterruptedException {
+    var vertx = Vertx.vertx();
+    try {
+      var calls = createCalls(vertx, baseUrl);
+      System.out.printf("Running %s for %ds after %ds warmup at %d requests/s, pool size %d, latency %d+%dms,"
+                        + " error rate %.3f%n", settings.getScenarios(), settings.getDuration().toSeconds(),
+        settings.getWarmup().toSeconds(), settings.getRate(), settings.getPoolSize(), settings.getLatency().toMillis(),
+        settings.getJitter().toMillis(), settings.getErrorRate());
+
+      drive(calls, settings.getWarmup().toNanos());
+      awaitInFlight();
+      results.values().forEach(ScenarioResult::reset);
+      registry.getMeters().forEach(registry::remove);
+
+      var gcBefore = gcSnapshot();
+      long start = System.nanoTime();
+      drive(calls, settings.getDuration().toNanos());
+      awaitInFlight();
+      long elapsed = System.nanoTime() - start;
+
+      printLatencies(elapsed);
+      printPoolWait();
+      printMemory(gcBefore);
+    } finally {
+      vertx.close().toCompletionStage().toCompletableFuture().join();
+    }
+  }
+
+  private List<Call> createCalls(Vertx vertx, String baseUrl) {
+    var configuration = Configuration.builder()
+      .customerId(RmApiStub.CUSTOMER_ID)
+      .apiKey(RmApiStub.API_KEY)
+      .url(baseUrl)
+      .build();
+    var options = HoldingsIQClientOptions.builder()
+      .http1MaxPoolSize(settings.getPoolSize())
+      .meterRegistry(registry)
+      .build();
+    var packages = new PackagesHoldingsIQServiceImpl(configuration, vertx, options);
+    var titles = new TitlesHoldingsIQServiceImpl(configuration, vertx, options);
+    var load = new LoadServiceImpl(configuration, vertx, options);
+
+    var packageFilter = PackageFilter.builder().query("academic").includeSubjectFacet(true).build();
+    var pageable = new Pageable(1, COUNT, Sort.RELEVANCE);
+    var titleFilter = FilterQuery.builder().name("journal").build();
+    int pageSize = settings.getPageSize();
+
+    return settings.getScenarios().stream()
+      .map(scenario -> new Call(scenario, switch (scenario) {
+        case PACKAGES -> () -> packages.retrievePackages(packageFilter, pageable);
+        case PROVIDER_PACKAGES -> () -> packages.retrievePackages(PROVIDER_ID, packageFilter, pageable);
+        case TITLES -> () -> titles.retrieveTitles(titleFilter, "advanced", Sort.RELEVANCE, 1, COUNT);
+        case HOLDINGS -> () -> load.loadHoldings(pageSize, 1, holding -> { });
+        case TRANSACTIONS -> () -> load.loadHoldingsTransaction("transaction", pageSize, 1, holding -> { });
+        case DELTAS -> () -> load.loadDeltaReport("delta", pageSize, 1, holding -> { });
+      }))
+      .toList();
+  }
+
+  /**
+   * Starts requests at the configured rate for the given time, cycling through the scenarios.
+   */
+  private void drive(List<Call> calls, long durationNanos) {
+    long interval = TimeUnit.SECONDS.toNanos(1) / settings.getRate();
+    long start = System.nanoTime();
+    for (long i = 0; ; i++) {
+      long scheduled = start + i * interval;
+      if (scheduled - start >= durationNanos) {
+        return;
+      }
+      long wait = scheduled - System.nanoTime();
+      if (wait > 0) {
+        LockSupport.parkNanos(wait);
+      }
+      var call = calls.get((int) (i % calls.size()));
+      start(call, scheduled);
+    }
+  }
+
+  private void start(Call call, long scheduled) {
+    var result = results.get(call.scenario());
+    var future = send(call);
+    inFlight.put(future, Boolean.TRUE);
+    future.whenComplete((value, throwable) -> {
+      result.record(System.nanoTime() - scheduled, throwable != null);
+      inFlight.remove(future);
+    });
+  }
+
+  private static CompletableFuture<?> send(Call call) {
+    try {
+      return call.request().get();
+    } catch (RuntimeException e) {
+      return CompletableFuture.failedFuture(e);
+    }
+  }
+
+  private void awaitInFlight() throws InterruptedException {
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(DRAIN_TIMEOUT_SECONDS);
+    while (!inFlight.isEmpty() && System.nanoTime() - deadline < 0) {
+      TimeUnit.MILLISECONDS.sleep(10);
+    }
+    if (!inFlight.isEmpty()) {
+      System.out.printf("%d requests still in flight after %ds%n", inFlight.size(), DRAIN_TIMEOUT_SECONDS);
+    }
+  }
+
+  private void printLatencies(long elapsedNanos) {
+    double seconds = elapsedNanos / 1e9;
+    System.out.printf("%nLatency in ms, measured from the scheduled start%n");
+    System.out.printf("%-18s %9s %8s %9s %9s %9s %9s %9s %9s%n",
+      "scenario", "requests", "errors", "req/s", "p50", "p90", "p99", "p99.9", "max");
+    results.forEach((scenario, result) -> {
+      var histogram = result.histogram();
+      System.out.printf("%-18s %9d %8d %9.1f", scenario.name().toLowerCase(), histogram.getTotalCount(),
+        result.errors().get(), histogram.getTotalCount() / seconds);
+      for (double percentile : PERCENTILES) {
+        System.out.printf(" %9.2f", histogram.getValueAtPercentile(percentile) / NANOS_PER_MILLI);
+      }
+      System.out.printf(" %9.2f%n", histogram.getMaxValue() / NANOS_PER_MILLI);
+    });
+  }
+
+  private void printPoolWait() {
+    var timer = registry.find(POOL_WAIT).timer();
+    System.out.printf("%nConnection pool wait in ms%n");
+    if (timer == null) {
+      System.out.println("no requests");
+      return;
+    }
+    var snapshot = timer.takeSnapshot();
+    System.out.printf("count %d, mean %.3f, max %.3f", snapshot.count(), snapshot.mean(TimeUnit.MILLISECONDS),
+      snapshot.max(TimeUnit.MILLISECONDS));
+    for (ValueAtPercentile percentile : snapshot.percentileValues()) {
+      System.out.printf(", p%s %.3f", percentile.percentile() * 100, percentile.value(TimeUnit.MILLISECONDS));
+    }
+    System.out.println();
+  }
+
+  private void printMemory(Map<String, long[]> gcBefore) {
+    var heap = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage();
+    System.out.printf("%nHeap used %d MB, committed %d MB, max %d MB%n", heap.getUsed() >> 20,
+      heap.getCommitted() >> 20, heap.getMax() >> 20);
+    gcSnapshot().forEach((name, after) -> {
+      long[] before = gcBefore.getOrDefault(name, new long[2]);
+      System.out.printf("GC %-24s collections %6d, time %6d ms%n", name, after[0] - before[0], after[1] - before[1]);
+    });
+  }
+
+  private static Map<String, long[]> gcSnapshot() {
+    Map<String, long[]> snapshot = new LinkedHashMap<>();
+    for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+      snapshot.put(gc.getName(), new long[] {gc.getCollectionCount(), gc.getCollectionTime()});
+    }
+    return snapshot;
+  }
+
+  private record Call(Scenario scenario, Supplier<CompletableFuture<?>> request) { }
+
+  private record ScenarioResult(Histogram histogram, AtomicInteger errors) {
+
+    ScenarioResult() {
+      this(new ConcurrentHistogram(HIGHEST_TRACKABLE_NANOS, SIGNIFICANT_DIGITS), new AtomicInteger());
+    }
+
+    void record(long nanos, boolean failed) {
+      histogram.recordValue(Math.min(nanos, HIGHEST_TRACKABLE_NANOS));
+      if (failed) {
+        errors.incrementAndGet();
+      }
+    }
+
+    void reset() {
+      histogram.reset();
+      errors.set(0);
+    }
+  }
+}
@@ -0,0 +1,105 @@
+package org.folio.holdingsiq.loadtest;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Set;
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * Settings of a load test run, parsed from {@code --name value} command line arguments.
+ */
+@Value
+@Builder(toBuilder = true)
+public class LoadTestSettings {
+
+  /**
+   * Requests started per second, spread evenly over the scenarios.
+   */
+  @Builder.Default
+  int rate = 100;
+
+  @Builder.Default
+  Duration duration = Duration.ofSeconds(60);
+
+  /**
+   * Time at the start of the run whose results are discarded.
+   */
+  @Builder.Default
+  Duration warmup = Duration.ofSeconds(10);
+
+  /**
+   * Minimum latency of stubbed RM API responses.
+   */
+  @Builder.Default
+  Duration latency = Duration.ofMillis(20);
+
+  /**
+   * Random latency added to {@link #latency}, uniformly distributed between zero and this value.
+   */
+  @Builder.Default
+  Duration jitter = Duration.ofMillis(10);
+
+  /**
+   * Share of responses replaced by {@code 503 Service Unavailable}, between 0 and 1.
+   */
+  @Builder.Default
+  double errorRate = 0;
+
+  @Builder.Default
+  int poolSize = 20;
+
+  /**
+   * Number of holdings in holdings, transaction and delta report pages.
+   */
+  @Builder.Default
+  int pageSize = 500;
+
+  @Builder.Default
+  Set<Scenario> scenarios = EnumSet.allOf(Scenario.class);
+
+  static LoadTestSettings parse(String[] args) {
+    var builder = LoadTestSettings.builder();
+    for (int i = 0; i < args.length; i += 2) {
+      if (i + 1 >= args.length) {
+        throw new IllegalArgumentException("Missing value of " + args[i]);
+      }
+      var value = args[i + 1];
+      switch (args[i]) {
+        case "--rate" -> builder.rate(Integer.parseInt(value));
+        case "--duration" -> builder.duration(Duration.ofSeconds(Long.parseLong(value)));
+        case "--warmup" -> builder.warmup(Duration.ofSeconds(Long.parseLong(value)));
+        case "--latency" -> builder.latency(Duration.ofMillis(Long.parseLong(value)));
+        case "--jitter" -> builder.jitter(Duration.ofMillis(Long.parseLong(value)));
+        case "--error-rate" -> builder.errorRate(Double.parseDouble(value));
+        case "--pool-size" -> builder.poolSize(Integer.parseInt(value));
+        case "--page-size" -> builder.pageSize(Integer.parseInt(value));
+        case "--scenarios" -> builder.scenarios(parseScenarios(value));
+        default -> throw new IllegalArgumentException("Unknown option " + args[i]);
+      }
+    }
+    return builder.build();
+  }
+
+  private static Set<Scenario> parseScenarios(String value) {
+    var scenarios = EnumSet.noneOf(Scenario.class);
+    Arrays.stream(value.split(","))
+      .map(name -> Scenario.valueOf(name.trim().toUpperCase(Locale.ROOT)))
+      .forEach(scenarios::add);
+    return scenarios;
+  }
+
+  /**
+   * Service calls the load test drives, each one hits one RM API endpoint.
+   */
+  enum Scenario {
+    PACKAGES,
+    PROVIDER_PACKAGES,
+    TITLES,
+    HOLDINGS,
+    TRANSACTIONS,
+    DELTAS
+  }
+}
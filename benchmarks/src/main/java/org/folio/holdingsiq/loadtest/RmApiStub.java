@@ -0,0 +1,96 @@
+package org.folio.holdingsiq.loadtest;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathMatching;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.ResponseDefinitionBuilder;
+import com.github.tomakehurst.wiremock.extension.ResponseDefinitionTransformerV2;
+import com.github.tomakehurst.wiremock.http.ResponseDefinition;
+import com.github.tomakehurst.wiremock.matching.UrlPathPattern;
+import com.github.tomakehurst.wiremock.stubbing.ServeEvent;
+import io.vertx.core.buffer.Buffer;
+import java.util.concurrent.ThreadLocalRandom;
+import org.folio.holdingsiq.benchmark.Fixtures;
+
+/**
+ * Embedded WireMock stand-in for the RM API endpoints used by the load test. Every response is delayed by the
+ * configured latency and jitter, and a configured share of responses is replaced by {@code 503} errors.
+ */
+class RmApiStub implements AutoCloseable {
+
+  static final String CUSTOMER_ID = "loadtest";
+  static final String API_KEY = "loadtest-key";
+
+  private static final String ACCOUNT_PATH = "/rm/rmaccounts/" + CUSTOMER_ID + "/";
+  private static final String ACCOUNT_PATH_V2 = "/rm/rmaccounts/v2/" + CUSTOMER_ID + "/";
+  private static final int CONTAINER_THREADS = 200;
+
+  private final WireMockServer server;
+  private final LoadTestSettings settings;
+
+  RmApiStub(LoadTestSettings settings) {
+    this.settings = settings;
+    this.server = new WireMockServer(wireMockConfig()
+      .dynamicPort()
+      .containerThreads(CONTAINER_THREADS)
+      .disableRequestJournal()
+      .extensions(new FaultInjector(settings.getErrorRate())));
+  }
+
+  void start() {
+    server.start();
+    stub(urlPathEqualTo(ACCOUNT_PATH_V2 + "lists"), Fixtures.packagesPage(false));
+    stub(urlPathMatching(ACCOUNT_PATH_V2 + "vendors/\\d+/lists"), Fixtures.packagesPage(false));
+    stub(urlPathEqualTo(ACCOUNT_PATH + "titles"), Fixtures.titlesPage());
+    stub(urlPathEqualTo(ACCOUNT_PATH + "holdings"), Fixtures.holdingsPage(settings.getPageSize()));
+    stub(urlPathMatching(ACCOUNT_PATH + "reports/holdings/transactions/[^/]+"),
+      Fixtures.holdingsPage(settings.getPageSize()));
+    stub(urlPathMatching(ACCOUNT_PATH + "reports/holdings/deltas/[^/]+"),
+      Fixtures.deltaReportPage(settings.getPageSize()));
+  }
+
+  String baseUrl() {
+    return server.baseUrl();
+  }
+
+  @Override
+  public void close() {
+    server.stop();
+  }
+
+  private void stub(UrlPathPattern urlPattern, Buffer body) {
+    var latencyMillis = (int) settings.getLatency().toMillis();
+    server.stubFor(get(urlPattern).willReturn(aResponse()
+      .withStatus(200)
+      .withHeader("Content-Type", "application/json")
+      .withBody(body.getBytes())
+      .withUniformRandomDelay(latencyMillis, latencyMillis + (int) settings.getJitter().toMillis())));
+  }
+
+  /**
+   * Replaces responses by {@code 503 Service Unavailable} at random, keeping their delay.
+   */
+  private record FaultInjector(double errorRate) implements ResponseDefinitionTransformerV2 {
+
+    @Override
+    public ResponseDefinition transform(ServeEvent serveEvent) {
+      var response = serveEvent.getResponseDefinition();
+      if (errorRate <= 0 || ThreadLocalRandom.current().nextDouble() >= errorRate) {
+        return response;
+      }
+      return ResponseDefinitionBuilder.like(response).but()
+        .withStatus(503)
+        .withBody("{\"Errors\":[{\"Code\":1010,\"Message\":\"Service unavailable\"}]}")
+        .build();
+    }
+
+    @Override
+    public String getName() {
+      return "fault-injector";
+    }
+  }
+}
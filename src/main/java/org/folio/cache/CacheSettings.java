@@ -0,0 +1,48 @@
+package org.folio.cache;
+
+import java.time.Duration;
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * Settings of a {@link VertxCache}.
+ */
+@Value
+@Builder(toBuilder = true)
+public class CacheSettings {
+
+  /**
+   * Time after which a cached value expires.
+   */
+  Duration expirationTime;
+
+  /**
+   * Maximum number of cached values, {@code 0} means the cache is unbounded.
+   *
+   * <p>When the limit is reached, a new value is only admitted if its key is used more frequently than the key
+   * that would be evicted for it.
+   */
+  @Builder.Default
+  long maximumSize = 0;
+
+  /**
+   * Interval of the background removal of expired values, {@link Duration#ZERO} disables it and expired values are
+   * only removed when they are read.
+   */
+  @Builder.Default
+  Duration sweepInterval = Duration.ZERO;
+
+  /**
+   * Part of the expiration time after which {@link VertxCache#getValueOrLoad} still returns the cached value but
+   * reloads it in the background, e.g. {@code 0.8}. {@code 0} disables refresh-ahead.
+   */
+  @Builder.Default
+  double refreshAheadFactor = 0;
+
+  /**
+   * Time after expiration during which the expired value is returned by {@link VertxCache#getValueOrLoad} if
+   * loading a new value fails. {@link Duration#ZERO} disables it.
+   */
+  @Builder.Default
+  Duration staleIfError = Duration.ZERO;
+}
@@ -0,0 +1,84 @@
+package org.folio.cache;
+
+import java.util.Arrays;
+
+/**
+ * Count-min sketch that estimates how often keys were used recently.
+ *
+ * <p>Counters saturate at {@value #MAX_COUNT} and all of them are halved once the number of recorded uses reaches
+ * ten times the cache size, so the estimates follow changes of the access pattern. Not thread safe.
+ */
+class FrequencySketch {
+
+  private static final int DEPTH = 4;
+  private static final int MAX_COUNT = 15;
+  private static final int COUNTERS_PER_KEY = 4;
+  private static final int MIN_WIDTH = 16;
+  private static final int MAX_WIDTH = 1 << 24;
+  private static final int[] SEEDS = {0x97cb3127, 0xc2b2ae35, 0x85ebca6b, 0x27d4eb2f};
+
+  private final byte[][] table;
+  private final int mask;
+  private final long sampleSize;
+  private long uses;
+
+  FrequencySketch(long maximumSize) {
+    int width = MIN_WIDTH;
+    while (width < COUNTERS_PER_KEY * maximumSize && width < MAX_WIDTH) {
+      width <<= 1;
+    }
+    this.table = new byte[DEPTH][width];
+    this.mask = width - 1;
+    this.sampleSize = Math.max(10 * maximumSize, MIN_WIDTH);
+  }
+
+  void increment(Object key) {
+    int hash = spread(key.hashCode());
+    boolean incremented = false;
+    for (int row = 0; row < DEPTH; row++) {
+      int index = indexOf(hash, row);
+      if (table[row][index] < MAX_COUNT) {
+        table[row][index]++;
+        incremented = true;
+      }
+    }
+    if (incremented && ++uses >= sampleSize) {
+      reset();
+    }
+  }
+
+  int frequency(Object key) {
+    int hash = spread(key.hashCode());
+    int frequency = MAX_COUNT;
+    for (int row = 0; row < DEPTH; row++) {
+      frequency = Math.min(frequency, table[row][indexOf(hash, row)]);
+    }
+    return frequency;
+  }
+
+  void clear() {
+    for (byte[] row : table) {
+      Arrays.fill(row, (byte) 0);
+    }
+    uses = 0;
+  }
+
+  private void reset() {
+    for (byte[] row : table) {
+      for (int i = 0; i < row.length; i++) {
+        row[i] = (byte) (row[i] >>> 1);
+      }
+    }
+    uses /= 2;
+  }
+
+  private int indexOf(int hash, int row) {
+    int h = (hash ^ SEEDS[row]) * SEEDS[(row + 1) % DEPTH];
+    return (h ^ (h >>> 16)) & mask;
+  }
+
+  private static int spread(int hash) {
+    int h = hash * 0x9e3779b9;
+    return h ^ (h >>> 16);
+  }
+}
@@ -0,0 +1,194 @@
+package org.folio.cache;
+
+import io.vertx.core.shareddata.Shareable;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Eviction policy of a bounded {@link VertxCache}, a simplified W-TinyLFU.
+ *
+ * <p>New keys enter a small LRU window that takes about one percent of the capacity. A key that falls out of the
+ * window is only admitted into the main LRU segment if it was used more often than the least recently used key of
+ * that segment, otherwise it is evicted itself. This keeps frequently used keys cached when many keys are used only
+ * once. Only keys are tracked here, the values stay in the cache map.
+ *
+ * <p>Reads do not take the policy lock. They are recorded in small buffers striped by thread and applied by whoever
+ * gets the lock without waiting for it; when a buffer is full the access is dropped. Losing some accesses under
+ * contention only makes the frequencies slightly less exact.
+ *
+ * @param <K> type of cache key
+ */
+class TinyLfuPolicy<K> implements Shareable {
+
+  private static final int WINDOW_PERCENT = 1;
+  private static final int BUFFER_STRIPES = Integer.highestOneBit(
+    Math.max(1, Runtime.getRuntime().availableProcessors()) * 2 - 1);
+
+  private final ReentrantLock lock = new ReentrantLock();
+  private final AccessBuffer[] buffers = new AccessBuffer[BUFFER_STRIPES];
+  private final LinkedHashMap<K, Boolean> window = new LinkedHashMap<>(16, 0.75f, true);
+  private final LinkedHashMap<K, Boolean> main = new LinkedHashMap<>(16, 0.75f, true);
+  private final FrequencySketch sketch;
+  private final long windowMaximum;
+  private final long mainMaximum;
+
+  TinyLfuPolicy(long maximumSize) {
+    this.windowMaximum = Math.max(1, maximumSize * WINDOW_PERCENT / 100);
+    this.mainMaximum = maximumSize - windowMaximum;
+    this.sketch = new FrequencySketch(maximumSize);
+    for (int i = 0; i < BUFFER_STRIPES; i++) {
+      buffers[i] = new AccessBuffer();
+    }
+  }
+
+  /**
+   * Records a read of the key without blocking, see the class description.
+   */
+  void recordAccess(K key) {
+    var buffer = buffers[(int) Thread.currentThread().threadId() & (BUFFER_STRIPES - 1)];
+    if (buffer.offer(key) && lock.tryLock()) {
+      try {
+        drainBuffers();
+      } finally {
+        lock.unlock();
+      }
+    }
+  }
+
+  /**
+   * Records that a value was stored for the key.
+   *
+   * @return key whose value has to be removed from the cache, it may be the written key itself, or null
+   */
+  K recordWrite(K key) {
+    lock.lock();
+    try {
+      drainBuffers();
+      return write(key);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  void remove(K key) {
+    lock.lock();
+    try {
+      drainBuffers();
+      if (window.remove(key) == null) {
+        main.remove(key);
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  void clear() {
+    lock.lock();
+    try {
+      drainBuffers();
+      window.clear();
+      main.clear();
+      sketch.clear();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private K write(K key) {
+    sketch.increment(key);
+    if (window.get(key) != null || main.get(key) != null) {
+      return null;
+    }
+
+    window.put(key, Boolean.TRUE);
+    if (window.size() <= windowMaximum) {
+      return null;
+    }
+    K candidate = removeEldest(window);
+    if (main.size() < mainMaximum) {
+      main.put(candidate, Boolean.TRUE);
+      return null;
+    }
+
+    K victim = main.isEmpty() ? null : main.keySet().iterator().next();
+    if (victim == null || sketch.frequency(candidate) <= sketch.frequency(victim)) {
+      return candidate;
+    }
+    main.remove(victim);
+    main.put(candidate, Boolean.TRUE);
+    return victim;
+  }
+
+  @SuppressWarnings("unchecked")
+  private void drainBuffers() {
+    for (AccessBuffer buffer : buffers) {
+      buffer.drain(key -> applyAccess((K) key));
+    }
+  }
+
+  private void applyAccess(K key) {
+    sketch.increment(key);
+    if (window.get(key) == null) {
+      main.get(key);
+    }
+  }
+
+  private K removeEldest(LinkedHashMap<K, Boolean> segment) {
+    Iterator<K> keys = segment.keySet().iterator();
+    K eldest = keys.next();
+    keys.remove();
+    return eldest;
+  }
+
+  /**
+   * Lossy ring buffer of read keys, written by any thread and drained by the lock holder.
+   */
+  private static final class AccessBuffer {
+
+    private static final int SIZE = 16;
+    private static final int MASK = SIZE - 1;
+    private static final int DRAIN_THRESHOLD = SIZE / 2;
+
+    private final AtomicReferenceArray<Object> keys = new AtomicReferenceArray<>(SIZE);
+    private final AtomicLong writeCount = new AtomicLong();
+    private volatile long readCount;
+
+    /**
+     * Adds the key unless the buffer is full or another thread is adding at the same time.
+     *
+     * @return true if the buffer should be drained
+     */
+    boolean offer(Object key) {
+      long head = readCount;
+      long tail = writeCount.get();
+      if (tail - head >= SIZE) {
+        return true;
+      }
+      if (writeCount.compareAndSet(tail, tail + 1)) {
+        keys.lazySet((int) (tail & MASK), key);
+      }
+      return tail + 1 - head >= DRAIN_THRESHOLD;
+    }
+
+    void drain(Consumer<Object> consumer) {
+      long head = readCount;
+      long tail = writeCount.get();
+      while (head < tail) {
+        int index = (int) (head & MASK);
+        Object key = keys.get(index);
+        if (key == null) {
+          // the writer has not published the key yet, it is applied by the next drain
+          break;
+        }
+        keys.lazySet(index, null);
+        consumer.accept(key);
+        head++;
+      }
+      readCount = head;
+    }
+  }
+}
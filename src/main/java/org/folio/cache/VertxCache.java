@@ -1,8 +1,9 @@
 package org.folio.cache;
 
-import java.time.LocalDateTime;
-import java.time.temporal.ChronoUnit;
+import java.time.Duration;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Supplier;
 
 import io.vertx.core.Vertx;
@@ -11,14 +12,34 @@ import io.vertx.core.shareddata.Shareable;
 
 /**
  * Cache that stores values in vertx LocalMap
+ *
+ * <p>Concurrent {@link #getValueOrLoad} calls that miss the same key share a single load, the loader is called
+ * once and every caller receives its result. Failed loads are not cached.
+ *
+ * <p>A cache created with {@link CacheSettings#getMaximumSize()} keeps at most that many values, see
+ * {@link TinyLfuPolicy} for the eviction policy. With {@link CacheSettings#getSweepInterval()} expired values
+ * are removed by a periodic timer, which is stopped by {@link #close()}.
+ *
+ * <p>With {@link CacheSettings#getRefreshAheadFactor()} a value that is close to expiration is returned right away
+ * while a single background load replaces it. With {@link CacheSettings#getStaleIfError()} an expired value is
+ * kept for a while and returned if loading its replacement fails.
  * @param <K> Type of cache key
  * @param <V> Type of cached value
  */
 public class VertxCache<K, V> {
-  private Vertx vertx;
-  private long expirationTime;
-  private String mapKey;
+  private static final String IN_FLIGHT_MAP_SUFFIX = ".inFlight";
+  private static final String POLICY_MAP_SUFFIX = ".policy";
+  private static final String POLICY_KEY = "policy";
 
+  private final long expirationNanos;
+  private final long refreshAheadNanos;
+  private final long staleIfErrorNanos;
+  private final LocalMap<K, CacheWrapper<V>> localMap;
+  private final LocalMap<K, InFlightLoad<V>> inFlightMap;
+  private final TinyLfuPolicy<K> policy;
+  private final LongAdder coalescedLoads = new LongAdder();
+  private final Vertx vertx;
+  private final long sweepTimerId;
 
   /**
    * @param vertx Vertx instance that will be used to store cache
@@ -27,59 +48,216 @@ public class VertxCache<K, V> {
    *                    will have access to the same cache
    */
   public VertxCache(Vertx vertx, long expirationTime, String vertxMapKey) {
+    this(vertx, vertxMapKey, CacheSettings.builder().expirationTime(Duration.ofSeconds(expirationTime)).build());
+  }
+
+  /**
+   * @param vertx Vertx instance that will be used to store cache
+   * @param vertxMapKey unique key that will be used to get LocalMap from vertx, VertxCache instances with same vertxMapKey
+   *                    will have access to the same cache, the maximum size of the first instance applies to all of them
+   * @param settings expiration, size limit, expiry sweep and refresh settings of the cache
+   */
+  public VertxCache(Vertx vertx, String vertxMapKey, CacheSettings settings) {
     this.vertx = vertx;
-    this.expirationTime = expirationTime;
-    this.mapKey = vertxMapKey;
+    this.expirationNanos = settings.getExpirationTime().toNanos();
+    double refreshAheadFactor = settings.getRefreshAheadFactor();
+    this.refreshAheadNanos = refreshAheadFactor > 0 && refreshAheadFactor < 1
+                             ? (long) (expirationNanos * refreshAheadFactor)
+                             : expirationNanos;
+    this.staleIfErrorNanos = settings.getStaleIfError().toNanos();
+    this.localMap = vertx.sharedData().getLocalMap(vertxMapKey);
+    this.inFlightMap = vertx.sharedData().getLocalMap(vertxMapKey + IN_FLIGHT_MAP_SUFFIX);
+    this.policy = settings.getMaximumSize() > 0 ? getPolicy(vertx, vertxMapKey, settings.getMaximumSize()) : null;
+
+    long sweepMillis = settings.getSweepInterval().toMillis();
+    this.sweepTimerId = sweepMillis > 0 ? vertx.setPeriodic(sweepMillis, id -> evictExpired()) : -1;
   }
 
   public V getValue(K key) {
-    CacheWrapper<V> configurationWrapper = getLocalMap().computeIfPresent(key, (cacheKey, configuration) -> {
-      if (LocalDateTime.now().isBefore(configuration.getExpireTime())) {
-        return configuration;
-      } else {
-        return null;
+    CacheWrapper<V> cacheWrapper = getValidWrapper(key, System.nanoTime());
+    return cacheWrapper == null ? null : cacheWrapper.getCacheValue();
+  }
+
+  public CompletableFuture<V> getValueOrLoad(K key, Supplier<CompletableFuture<V>> loader){
+    long now = System.nanoTime();
+    CacheWrapper<V> cacheWrapper = getValidWrapper(key, now);
+    if (cacheWrapper != null) {
+      if (now - cacheWrapper.getRefreshTime() >= 0) {
+        load(key, loader, true);
       }
-    });
-    if (configurationWrapper == null) {
+      return CompletableFuture.completedFuture(cacheWrapper.getCacheValue());
+    }
+
+    CacheWrapper<V> staleWrapper = staleIfErrorNanos > 0 ? localMap.get(key) : null;
+    CompletableFuture<V> loadedValue = load(key, loader, false);
+    if (staleWrapper != null && !isRemovable(staleWrapper, now)) {
+      return loadedValue.exceptionally(throwable -> staleWrapper.getCacheValue());
+    }
+    return loadedValue;
+  }
+
+  /**
+   * @return number of {@link #getValueOrLoad} calls that joined a load started by another caller
+   */
+  public long getCoalescedLoadCount() {
+    return coalescedLoads.sum();
+  }
+
+  public void putValue(K key, V cacheValue){
+    long now = System.nanoTime();
+    localMap.put(key, new CacheWrapper<>(now + refreshAheadNanos, now + expirationNanos, cacheValue));
+    if (policy != null) {
+      K evictedKey = policy.recordWrite(key);
+      if (evictedKey != null) {
+        localMap.remove(evictedKey);
+      }
+    }
+  }
+
+  public void invalidate(K key){
+    inFlightMap.remove(key);
+    localMap.remove(key);
+    if (policy != null) {
+      policy.remove(key);
+    }
+  }
+
+  public void invalidateAll(){
+    inFlightMap.clear();
+    localMap.clear();
+    if (policy != null) {
+      policy.clear();
+    }
+  }
+
+  /**
+   * @return number of stored values, including expired values that were not removed yet
+   */
+  public int size() {
+    return localMap.size();
+  }
+
+  /**
+   * Removes all expired values that are not kept for stale-if-error, called periodically when a sweep interval
+   * is set.
+   */
+  public void evictExpired() {
+    long now = System.nanoTime();
+    for (Map.Entry<K, CacheWrapper<V>> entry : localMap.entrySet()) {
+      if (isRemovable(entry.getValue(), now)) {
+        remove(entry.getKey(), entry.getValue());
+      }
+    }
+  }
+
+  /**
+   * Stops the periodic removal of expired values, cached values stay available.
+   */
+  public void close() {
+    if (sweepTimerId >= 0) {
+      vertx.cancelTimer(sweepTimerId);
+    }
+  }
+
+  private CacheWrapper<V> getValidWrapper(K key, long now) {
+    CacheWrapper<V> cacheWrapper = localMap.get(key);
+    if (cacheWrapper == null) {
       return null;
-    } else {
-      return configurationWrapper.getCacheValue();
     }
+    if (isExpired(cacheWrapper, now)) {
+      if (isRemovable(cacheWrapper, now)) {
+        remove(key, cacheWrapper);
+      }
+      return null;
+    }
+    if (policy != null) {
+      policy.recordAccess(key);
+    }
+    return cacheWrapper;
   }
 
-  public CompletableFuture<V> getValueOrLoad(K key, Supplier<CompletableFuture<V>> loader){
-    V value = getValue(key);
+  /**
+   * Starts loading the value unless a load of the key is in flight already.
+   *
+   * @param refresh true if the current value is still valid and only has to be replaced in the background
+   */
+  private CompletableFuture<V> load(K key, Supplier<CompletableFuture<V>> loader, boolean refresh) {
+    InFlightLoad<V> load = new InFlightLoad<>(new CompletableFuture<>());
+    InFlightLoad<V> existingLoad = inFlightMap.putIfAbsent(key, load);
+    if (existingLoad != null) {
+      if (!refresh) {
+        coalescedLoads.increment();
+      }
+      return existingLoad.getFuture().copy();
+    }
+
+    V value = refresh ? null : getValue(key);
     if (value != null) {
-      return CompletableFuture.completedFuture(value);
+      inFlightMap.remove(key, load);
+      load.getFuture().complete(value);
     } else {
-      return loader.get()
-        .thenCompose(newValue -> {
-          putValue(key, newValue);
-          return CompletableFuture.completedFuture(newValue);
-        });
+      startLoad(key, loader, load);
     }
+    return load.getFuture().copy();
   }
 
-  public void putValue(K key, V cacheValue){
-    LocalDateTime expireTime = LocalDateTime.now().plus(expirationTime, ChronoUnit.SECONDS);
-    getLocalMap().put(key, new CacheWrapper<>(expireTime, cacheValue));
+  private void remove(K key, CacheWrapper<V> cacheWrapper) {
+    if (localMap.remove(key, cacheWrapper) && policy != null) {
+      policy.remove(key);
+    }
   }
 
-  public void invalidate(K key){
-    getLocalMap().remove(key);
+  private void startLoad(K key, Supplier<CompletableFuture<V>> loader, InFlightLoad<V> load) {
+    CompletableFuture<V> loadedValue;
+    try {
+      loadedValue = loader.get();
+    } catch (RuntimeException e) {
+      loadedValue = CompletableFuture.failedFuture(e);
+    }
+    loadedValue.whenComplete((newValue, throwable) -> {
+      // the load is dropped on invalidation, its value is outdated then and must not be cached
+      if (throwable == null && inFlightMap.get(key) == load) {
+        putValue(key, newValue);
+      }
+      inFlightMap.remove(key, load);
+      if (throwable != null) {
+        load.getFuture().completeExceptionally(throwable);
+      } else {
+        load.getFuture().complete(newValue);
+      }
+    });
   }
 
-  public void invalidateAll(){
-    getLocalMap().clear();
+  private static boolean isExpired(CacheWrapper<?> cacheWrapper, long now) {
+    return now - cacheWrapper.getExpireTime() >= 0;
   }
 
-  private LocalMap<K, CacheWrapper<V>> getLocalMap() {
-    return vertx.sharedData().getLocalMap(mapKey);
+  private boolean isRemovable(CacheWrapper<?> cacheWrapper, long now) {
+    return now - cacheWrapper.getExpireTime() - staleIfErrorNanos >= 0;
   }
 
+  @SuppressWarnings("unchecked")
+  private static <K> TinyLfuPolicy<K> getPolicy(Vertx vertx, String mapKey, long maximumSize) {
+    LocalMap<String, TinyLfuPolicy<?>> policies = vertx.sharedData().getLocalMap(mapKey + POLICY_MAP_SUFFIX);
+    TinyLfuPolicy<?> policy = policies.get(POLICY_KEY);
+    if (policy == null) {
+      policy = policies.computeIfAbsent(POLICY_KEY, key -> new TinyLfuPolicy<>(maximumSize));
+    }
+    return (TinyLfuPolicy<K>) policy;
+  }
+
+  @lombok.Value
+  private static class InFlightLoad<T> implements Shareable {
+    private final CompletableFuture<T> future;
+  }
+
+  /**
+   * Cached value with its refresh and expiration times in {@link System#nanoTime()} units.
+   */
   @lombok.Value
   private static class CacheWrapper<T> implements Shareable {
-    private final LocalDateTime expireTime;
+    private final long refreshTime;
+    private final long expireTime;
     private final T cacheValue;
   }
 }
@@ -0,0 +1,32 @@
+package org.folio.holdingsiq.service;
+
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * Options of batch calls such as {@link TitlesHoldingsIQService#retrieveTitles(java.util.Collection, BatchOptions)}
+ * and {@link ResourcesHoldingsIQService#applyResourceOperations(java.util.stream.Stream, BatchOptions)}.
+ */
+@Value
+@Builder(toBuilder = true)
+public class BatchOptions {
+
+  public static final int DEFAULT_CONCURRENCY = 8;
+
+  /**
+   * Maximum number of requests of the batch in flight at once, capped by the connection pool size of the client.
+   */
+  @Builder.Default
+  int concurrency = DEFAULT_CONCURRENCY;
+
+  /**
+   * Whether writes that are followed by a GET of the written record, like selecting a resource, read it back. Without
+   * the read-back every write costs a single request.
+   */
+  @Builder.Default
+  boolean readBack = true;
+
+  public static BatchOptions defaults() {
+    return BatchOptions.builder().build();
+  }
+}
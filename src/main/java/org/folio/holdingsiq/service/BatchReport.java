@@ -0,0 +1,43 @@
+package org.folio.holdingsiq.service;
+
+import java.time.Duration;
+import java.util.List;
+import lombok.Value;
+
+/**
+ * Aggregated outcome of a batch of write operations: a batch completes once every operation succeeded or failed,
+ * failures of single operations do not fail the batch.
+ *
+ * @param <T> operation of the batch, e.g. {@link ResourceOperation}
+ */
+@Value
+public class BatchReport<T> {
+
+  /**
+   * Number of operations of the batch.
+   */
+  int total;
+
+  int succeeded;
+
+  /**
+   * Failed operations in the order they failed.
+   */
+  List<Failure<T>> failures;
+
+  /**
+   * Time from the start of the first operation until the last one completed.
+   */
+  Duration elapsed;
+
+  public int getFailed() {
+    return failures.size();
+  }
+
+  @Value
+  public static class Failure<T> {
+
+    T operation;
+    Throwable cause;
+  }
+}
@@ -0,0 +1,29 @@
+package org.folio.holdingsiq.service;
+
+import java.util.Map;
+import lombok.Value;
+
+/**
+ * Outcome of a batch retrieval: a batch completes once every key was retrieved or failed, failures of single keys do
+ * not fail the batch.
+ *
+ * @param <K> key of the retrieved records, e.g. the title id
+ * @param <V> retrieved record
+ */
+@Value
+public class BatchResult<K, V> {
+
+  /**
+   * Retrieved records by key, in the order the keys were requested.
+   */
+  Map<K, V> results;
+
+  /**
+   * Failures by key, e.g. {@link org.folio.holdingsiq.service.exception.ResourceNotFoundException} of unknown ids.
+   */
+  Map<K, Throwable> failures;
+
+  public boolean hasFailures() {
+    return !failures.isEmpty();
+  }
+}
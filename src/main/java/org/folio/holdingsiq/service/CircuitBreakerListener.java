@@ -0,0 +1,12 @@
+package org.folio.holdingsiq.service;
+
+/**
+ * Notified of the state transitions of circuit breakers, see {@link HoldingsIQClientOptions#getCircuitBreaker()}.
+ *
+ * <p>Listeners are called on the thread that caused the transition and must not block.
+ */
+@FunctionalInterface
+public interface CircuitBreakerListener {
+
+  void onStateChange(String baseUrl, String customerId, CircuitBreakerState from, CircuitBreakerState to);
+}
@@ -0,0 +1,49 @@
+package org.folio.holdingsiq.service;
+
+import java.time.Duration;
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * Circuit breaker settings of a client, one circuit breaker is kept for every RM API base URL and customer id.
+ *
+ * <p>The breaker opens when, within the rolling {@link #getWindow() window} and after at least
+ * {@link #getMinimumCalls()} requests, the share of failed requests (connection errors, timeouts and 5xx responses)
+ * reaches {@link #getFailureRateThreshold()} or the share of requests slower than {@link #getSlowCallDuration()}
+ * reaches {@link #getSlowCallRateThreshold()}. After {@link #getOpenDuration()} up to {@link #getHalfOpenProbes()}
+ * requests are let through; the breaker closes when all of them succeed and opens again on the first failure.
+ */
+@Value
+@Builder(toBuilder = true)
+public class CircuitBreakerPolicy {
+
+  @Builder.Default
+  double failureRateThreshold = 0.5;
+
+  @Builder.Default
+  Duration slowCallDuration = Duration.ofSeconds(10);
+
+  @Builder.Default
+  double slowCallRateThreshold = 0.8;
+
+  /**
+   * Number of requests within the window needed before the rates are evaluated.
+   */
+  @Builder.Default
+  int minimumCalls = 20;
+
+  /**
+   * Length of the rolling window, it moves in steps of a tenth of its length.
+   */
+  @Builder.Default
+  Duration window = Duration.ofSeconds(30);
+
+  /**
+   * Time requests fail fast before the breaker lets the first probe through.
+   */
+  @Builder.Default
+  Duration openDuration = Duration.ofSeconds(30);
+
+  @Builder.Default
+  int halfOpenProbes = 3;
+}
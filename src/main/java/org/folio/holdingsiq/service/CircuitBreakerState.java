@@ -0,0 +1,22 @@
+package org.folio.holdingsiq.service;
+
+/**
+ * State of the circuit breaker of an RM API base URL and customer.
+ */
+public enum CircuitBreakerState {
+
+  /**
+   * Requests are sent, their outcome is recorded in the rolling window.
+   */
+  CLOSED,
+
+  /**
+   * Requests fail fast with {@link org.folio.holdingsiq.service.exception.CircuitBreakerOpenException}.
+   */
+  OPEN,
+
+  /**
+   * A limited number of probe requests is sent to find out whether the RM API recovered.
+   */
+  HALF_OPEN
+}
@@ -0,0 +1,69 @@
+package org.folio.holdingsiq.service;
+
+import java.time.Duration;
+import java.util.Set;
+import lombok.Builder;
+import lombok.Singular;
+import lombok.Value;
+
+/**
+ * Hedging of GET requests of latency sensitive endpoints. When no response arrived within the
+ * {@link #getPercentile() percentile} of the recent latencies of the endpoint, an identical second request is sent;
+ * the first successful response wins and the other request is cancelled.
+ *
+ * <p>Hedges are limited by a budget of the client, every hedged request deposits {@link #getBudgetRatio()} of a
+ * hedge and every hedge sent withdraws one.
+ */
+@Value
+@Builder(toBuilder = true)
+public class HedgePolicy {
+
+  public static final String TITLE_ENDPOINT = "titles/{id}";
+  public static final String PACKAGE_ENDPOINT = "v2/lists/{id}";
+
+  /**
+   * Endpoint templates produced by {@code EndpointTemplates} whose GET requests are hedged.
+   */
+  @Singular
+  Set<String> endpoints;
+
+  /**
+   * Percentile of the recent latencies of an endpoint after which a hedge is sent.
+   */
+  @Builder.Default
+  double percentile = 0.95;
+
+  /**
+   * Delay used until {@link #getMinSamples()} latencies of the endpoint were measured.
+   */
+  @Builder.Default
+  Duration initialDelay = Duration.ofMillis(500);
+
+  @Builder.Default
+  int minSamples = 50;
+
+  @Builder.Default
+  Duration minDelay = Duration.ofMillis(10);
+
+  @Builder.Default
+  Duration maxDelay = Duration.ofSeconds(5);
+
+  @Builder.Default
+  double budgetRatio = 0.05;
+
+  /**
+   * Maximum number of hedges the budget saves up, also the number of hedges available before any request was sent.
+   */
+  @Builder.Default
+  int budgetCapacity = 10;
+
+  /**
+   * @return policy hedging the requests of {@code retrieveTitle} and {@code retrievePackage}
+   */
+  public static HedgePolicy forRecordLookups() {
+    return builder()
+      .endpoint(TITLE_ENDPOINT)
+      .endpoint(PACKAGE_ENDPOINT)
+      .build();
+  }
+}
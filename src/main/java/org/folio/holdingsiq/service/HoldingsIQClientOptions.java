@@ -0,0 +1,176 @@
+package org.folio.holdingsiq.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.opentelemetry.api.OpenTelemetry;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import lombok.Builder;
+import lombok.Singular;
+import lombok.Value;
+
+/**
+ * Transport settings of the HTTP client used to call the RM API.
+ *
+ * <p>Services created with the same options instance share one connection pool per Vert.x instance, options are
+ * compared by identity. When {@link #isPoolPerCustomer()} is enabled, every RM API base URL and customer id gets a
+ * separate pool, so a single busy customer cannot exhaust connections of the others. Pools without requests are
+ * closed after {@link #getPoolIdleTimeout()} and created again by the next request.
+ */
+@Value
+@Builder(toBuilder = true)
+public class HoldingsIQClientOptions {
+
+  public static final int DEFAULT_HTTP1_MAX_POOL_SIZE = 20;
+  public static final int DEFAULT_HTTP2_MAX_POOL_SIZE = 3;
+
+  /**
+   * Maximum number of HTTP/1.x connections in a pool.
+   */
+  @Builder.Default
+  int http1MaxPoolSize = DEFAULT_HTTP1_MAX_POOL_SIZE;
+
+  /**
+   * Maximum number of HTTP/2 connections in a pool.
+   */
+  @Builder.Default
+  int http2MaxPoolSize = DEFAULT_HTTP2_MAX_POOL_SIZE;
+
+  /**
+   * Maximum number of requests waiting for a connection, {@code -1} means unbounded.
+   */
+  @Builder.Default
+  int maxWaitQueueSize = -1;
+
+  @Builder.Default
+  boolean keepAlive = true;
+
+  /**
+   * Time after which an unused keep-alive connection is closed.
+   */
+  @Builder.Default
+  Duration keepAliveTimeout = Duration.ofSeconds(60);
+
+  /**
+   * Negotiate HTTP/2 with ALPN, falls back to HTTP/1.1 when the server does not support it.
+   */
+  @Builder.Default
+  boolean http2 = false;
+
+  @Builder.Default
+  boolean pipelining = false;
+
+  @Builder.Default
+  Duration connectTimeout = Duration.ofSeconds(60);
+
+  /**
+   * Time after which a connection without any traffic is closed, {@link Duration#ZERO} disables the timeout.
+   */
+  @Builder.Default
+  Duration idleTimeout = Duration.ZERO;
+
+  /**
+   * Maximum time without receiving any data for a request, {@link Duration#ZERO} disables the timeout.
+   */
+  @Builder.Default
+  Duration readTimeout = Duration.ZERO;
+
+  /**
+   * Ask the RM API for gzip or deflate compressed responses, bodies are decompressed transparently.
+   */
+  @Builder.Default
+  boolean compression = false;
+
+  /**
+   * Registry the client metrics are recorded to.
+   */
+  @Builder.Default
+  MeterRegistry meterRegistry = Metrics.globalRegistry;
+
+  /**
+   * OpenTelemetry instance the client spans are created with, tracing is disabled by default.
+   */
+  @Builder.Default
+  OpenTelemetry openTelemetry = OpenTelemetry.noop();
+
+  /**
+   * Cache of GET responses, null disables caching.
+   */
+  HoldingsResponseCache responseCache;
+
+  /**
+   * Time proxies and root proxy custom labels are cached per customer and API key, {@link Duration#ZERO} disables
+   * caching. The caches are Vert.x local maps shared by all services of the JVM using the same Vert.x instance.
+   */
+  @Builder.Default
+  Duration rootProxyCacheTtl = Duration.ZERO;
+
+  /**
+   * Retries of failed GET and, if enabled, PUT requests, no request is retried by default.
+   */
+  @Builder.Default
+  RetryPolicy retryPolicy = RetryPolicy.NONE;
+
+  /**
+   * Hedging of slow GET requests of selected endpoints, null if no request is hedged.
+   */
+  HedgePolicy hedgePolicy;
+
+  /**
+   * Request rate limits per customer by endpoint family, the first segment of the endpoint path such as
+   * {@code vendors}, {@code lists}, {@code titles} or {@code reports}.
+   */
+  @Singular
+  Map<String, RateLimit> rateLimits;
+
+  /**
+   * Request rate limit per customer of the endpoint families without a rate limit of their own, null if unlimited.
+   */
+  RateLimit defaultRateLimit;
+
+  /**
+   * Circuit breaker kept for every RM API base URL and customer id, null disables circuit breaking.
+   */
+  CircuitBreakerPolicy circuitBreaker;
+
+  /**
+   * Listeners notified of the state changes of the circuit breakers.
+   */
+  @Singular
+  List<CircuitBreakerListener> circuitBreakerListeners;
+
+  /**
+   * Callbacks for the lifecycle of every request sent with these options, called in the order they were added.
+   */
+  @Singular
+  List<HoldingsInterceptor> interceptors;
+
+  /**
+   * Use separate connection pool for every RM API base URL and customer id.
+   */
+  @Builder.Default
+  boolean poolPerCustomer = false;
+
+  /**
+   * Time after which a connection pool that served no request is closed and its gauges are removed.
+   */
+  @Builder.Default
+  Duration poolIdleTimeout = Duration.ofMinutes(10);
+
+  /**
+   * Maximum number of customer pools kept open with {@link #isPoolPerCustomer()}. When a new customer exceeds it, the
+   * pools used least recently are closed, as soon as they have no request in flight.
+   */
+  @Builder.Default
+  int maxCustomerPools = 1000;
+
+  private static final HoldingsIQClientOptions DEFAULTS = HoldingsIQClientOptions.builder().build();
+
+  /**
+   * @return shared default options, services created with them share one connection pool
+   */
+  public static HoldingsIQClientOptions defaults() {
+    return DEFAULTS;
+  }
+}
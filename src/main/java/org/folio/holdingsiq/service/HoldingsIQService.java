@@ -12,4 +12,15 @@ public interface HoldingsIQService {
   CompletableFuture<RootProxyCustomLabels> retrieveRootProxyCustomLabels();
   CompletableFuture<RootProxyCustomLabels> updateRootProxyCustomLabels(RootProxyCustomLabels rootProxyCustomLabels);
 
+  /**
+   * Updates the root proxy and custom labels like {@link #updateRootProxyCustomLabels} without reading them back, in
+   * a single request.
+   */
+  CompletableFuture<Void> putRootProxyCustomLabels(RootProxyCustomLabels rootProxyCustomLabels);
+
+  /**
+   * @return service making the same calls as this one with the given request options, e.g. a deadline shared by all
+   *         calls made through it
+   */
+  HoldingsIQService withRequestOptions(RequestOptions requestOptions);
 }
@@ -0,0 +1,70 @@
+package org.folio.holdingsiq.service;
+
+import io.vertx.core.MultiMap;
+import io.vertx.core.http.HttpResponseHead;
+import io.vertx.ext.web.client.HttpRequest;
+
+/**
+ * State of a single RM API request passed to the {@link HoldingsInterceptor} callbacks.
+ *
+ * <p>All times are {@link System#nanoTime()} values, 0 until the corresponding event happened.
+ */
+public interface HoldingsInteractionContext {
+
+  /**
+   * @return endpoint template of the request, e.g. {@code v2/lists/{id}}
+   */
+  String getEndpoint();
+
+  String getMethod();
+
+  long getStartTime();
+
+  HttpRequest<?> getRequest();
+
+  HttpResponseHead getResponse();
+
+  long getResponseHeadTime();
+
+  long getBodyEndTime();
+
+  long getEndTime();
+
+  /**
+   * @return number of body bytes received over the network
+   */
+  long getWireBytes();
+
+  /**
+   * @return number of body bytes after decompression, known once the whole body is received
+   */
+  long getBodyBytes();
+
+  /**
+   * @return value of the Content-Encoding header if the body was decompressed, null otherwise
+   */
+  String getContentEncoding();
+
+  default String uri() {
+    return getRequest().uri();
+  }
+
+  default MultiMap requestHeaders() {
+    return getRequest().headers();
+  }
+
+  default MultiMap responseHeaders() {
+    return getResponse() == null ? null : getResponse().headers();
+  }
+
+  /**
+   * @return status code of the response, 0 if no response was received
+   */
+  default int statusCode() {
+    return getResponse() == null ? 0 : getResponse().statusCode();
+  }
+
+  default String statusMessage() {
+    return getResponse() == null ? null : getResponse().statusMessage();
+  }
+}
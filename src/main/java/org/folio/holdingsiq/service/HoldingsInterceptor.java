@@ -0,0 +1,51 @@
+package org.folio.holdingsiq.service;
+
+/**
+ * Callbacks for the lifecycle of every RM API request of a client, registered with
+ * {@link HoldingsIQClientOptions.HoldingsIQClientOptionsBuilder#interceptor(HoldingsInterceptor)}.
+ *
+ * <p>Callbacks of one request receive the same {@link HoldingsInteractionContext}, which carries monotonic
+ * {@link System#nanoTime()} timestamps and the number of bytes received so far. They are called on the Vert.x event
+ * loop and must not block. An exception thrown by an interceptor is logged and does not affect the request.
+ *
+ * <p>Responses served from the {@link HoldingsResponseCache} without calling the RM API are not intercepted.
+ */
+public interface HoldingsInterceptor {
+
+  /**
+   * Called before the request is sent, headers of {@link HoldingsInteractionContext#getRequest()} can still be
+   * changed.
+   */
+  default void beforeSend(HoldingsInteractionContext ctx) {
+  }
+
+  /**
+   * Called once the status line and headers of the response are received.
+   */
+  default void onResponseHead(HoldingsInteractionContext ctx) {
+  }
+
+  /**
+   * Called for every chunk of the response body as received over the network, before it is decompressed.
+   *
+   * @param chunkBytes size of the chunk
+   */
+  default void onBodyChunk(HoldingsInteractionContext ctx, int chunkBytes) {
+  }
+
+  /**
+   * Called after a successful response is decoded.
+   *
+   * @param body decoded body, null for responses without a body and the number of handed over elements for
+   *             responses decoded while they are received
+   */
+  default void afterDecode(HoldingsInteractionContext ctx, Object body) {
+  }
+
+  /**
+   * Called when the request fails, either because no response was received, the status code was not expected or the
+   * body could not be decoded.
+   */
+  default void onFailure(HoldingsInteractionContext ctx, Throwable failure) {
+  }
+}
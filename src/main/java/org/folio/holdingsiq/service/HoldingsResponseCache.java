@@ -0,0 +1,196 @@
+package org.folio.holdingsiq.service;
+
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpHeaders;
+import io.vertx.ext.web.client.HttpResponse;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import lombok.Builder;
+import lombok.Singular;
+
+/**
+ * Cache of successful RM API GET responses, enabled with {@link HoldingsIQClientOptions#getResponseCache()}.
+ *
+ * <p>Responses are cached per customer and absolute URL for the time configured for their endpoint template, see
+ * {@code EndpointTemplates}, e.g. {@code ttl("v2/lists/{id}", Duration.ofMinutes(5))}. Endpoints without a
+ * configured time use {@code defaultTtl}, which is zero by default, so only the listed endpoints are cached. When a
+ * cached response expires and the RM API sent an {@code ETag} or {@code Last-Modified} header for it, the next
+ * request is sent with {@code If-None-Match} or {@code If-Modified-Since} and a {@code 304 Not Modified} answer
+ * renews the cached response.
+ *
+ * <p>The least recently used responses are dropped when {@code maximumSize} is reached. Requests that change
+ * resources remove the cached responses of the changed URL and of the URLs below it. Share one instance between
+ * all services of a module, so that changes made by one service are seen by the others.
+ */
+public class HoldingsResponseCache {
+
+  private static final char KEY_SEPARATOR = '|';
+  private static final long DEFAULT_MAXIMUM_SIZE = 1000;
+
+  private final long maximumSize;
+  private final Duration defaultTtl;
+  private final Map<String, Duration> ttls;
+
+  private final LinkedHashMap<String, CachedResponse> responses = new LinkedHashMap<>(16, 0.75f, true);
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder revalidations = new LongAdder();
+  private long generation;
+
+  /**
+   * @param maximumSize maximum number of cached responses, {@value #DEFAULT_MAXIMUM_SIZE} if not set
+   * @param defaultTtl time to cache responses of endpoints without a configured time, zero by default
+   * @param ttls times to cache responses by endpoint template
+   */
+  @Builder
+  private HoldingsResponseCache(long maximumSize, Duration defaultTtl, @Singular Map<String, Duration> ttls) {
+    this.maximumSize = maximumSize > 0 ? maximumSize : DEFAULT_MAXIMUM_SIZE;
+    this.defaultTtl = defaultTtl == null ? Duration.ZERO : defaultTtl;
+    this.ttls = Map.copyOf(ttls);
+  }
+
+  public synchronized int size() {
+    return responses.size();
+  }
+
+  public synchronized void invalidateAll() {
+    generation++;
+    responses.clear();
+  }
+
+  /**
+   * @return number of requests answered from the cache without contacting the RM API
+   */
+  public long getHitCount() {
+    return hits.sum();
+  }
+
+  /**
+   * @return number of requests sent to the RM API, including revalidations
+   */
+  public long getMissCount() {
+    return misses.sum();
+  }
+
+  /**
+   * @return number of expired responses renewed by a {@code 304 Not Modified} answer
+   */
+  public long getRevalidationCount() {
+    return revalidations.sum();
+  }
+
+  /**
+   * @param endpoint endpoint template of the request, as computed by {@code EndpointTemplates.of}
+   */
+  public boolean isCacheable(String endpoint) {
+    return ttlFor(endpoint).isPositive();
+  }
+
+  public static String key(String customerId, String url) {
+    return customerId + KEY_SEPARATOR + url;
+  }
+
+  /**
+   * @return cached response, a fresh one or an expired one that can be revalidated, or null
+   */
+  public synchronized CachedResponse get(String key) {
+    CachedResponse cached = responses.get(key);
+    if (cached == null || !cached.isFresh() && !cached.canBeRevalidated()) {
+      misses.increment();
+      return null;
+    }
+    if (cached.isFresh()) {
+      hits.increment();
+    } else {
+      misses.increment();
+    }
+    return cached;
+  }
+
+  /**
+   * @return counter that changes with every invalidation, responses requested before an invalidation are not stored
+   */
+  public synchronized long generation() {
+    return generation;
+  }
+
+  public synchronized void store(String key, String endpoint, HttpResponse<Buffer> response, long requestGeneration) {
+    if (requestGeneration != generation || response.body() == null) {
+      return;
+    }
+    responses.put(key, new CachedResponse(response.body(), response.getHeader(HttpHeaders.ETAG.toString()),
+      response.getHeader(HttpHeaders.LAST_MODIFIED.toString()), expireTime(endpoint)));
+    evictEldest();
+  }
+
+  public synchronized void revalidated(String key, String endpoint, CachedResponse cached, long requestGeneration) {
+    revalidations.increment();
+    if (requestGeneration == generation) {
+      responses.put(key, new CachedResponse(cached.body(), cached.etag(), cached.lastModified(), expireTime(endpoint)));
+    }
+  }
+
+  /**
+   * Removes cached responses of the URL and of all URLs below it, e.g. invalidating {@code .../vendors/19} removes
+   * {@code .../vendors/19} and {@code .../vendors/19/packages?count=25} but not {@code .../vendors/190}.
+   */
+  public synchronized void invalidate(String customerId, String url) {
+    generation++;
+    String prefix = key(customerId, stripQuery(url));
+    Iterator<String> keys = responses.keySet().iterator();
+    while (keys.hasNext()) {
+      String key = keys.next();
+      if (key.startsWith(prefix) && isPathBoundary(key, prefix)) {
+        keys.remove();
+      }
+    }
+  }
+
+  private Duration ttlFor(String endpoint) {
+    return ttls.getOrDefault(endpoint, defaultTtl);
+  }
+
+  private long expireTime(String endpoint) {
+    return System.nanoTime() + ttlFor(endpoint).toNanos();
+  }
+
+  private void evictEldest() {
+    Iterator<String> keys = responses.keySet().iterator();
+    while (responses.size() > maximumSize && keys.hasNext()) {
+      keys.next();
+      keys.remove();
+    }
+  }
+
+  private static boolean isPathBoundary(String key, String prefix) {
+    if (key.length() == prefix.length() || prefix.endsWith("/")) {
+      return true;
+    }
+    char next = key.charAt(prefix.length());
+    return next == '/' || next == '?';
+  }
+
+  private static String stripQuery(String url) {
+    int queryStart = url.indexOf('?');
+    return queryStart < 0 ? url : url.substring(0, queryStart);
+  }
+
+  /**
+   * Cached response body with its validators.
+   *
+   * @param expireTime time the response expires at in {@link System#nanoTime()} units
+   */
+  public record CachedResponse(Buffer body, String etag, String lastModified, long expireTime) {
+
+    public boolean isFresh() {
+      return System.nanoTime() - expireTime < 0;
+    }
+
+    public boolean canBeRevalidated() {
+      return etag != null || lastModified != null;
+    }
+  }
+}
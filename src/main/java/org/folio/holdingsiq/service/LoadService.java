@@ -1,9 +1,13 @@
 package org.folio.holdingsiq.service;
 
+import io.vertx.core.streams.ReadStream;
 import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 import org.folio.holdingsiq.model.DeltaReport;
 import org.folio.holdingsiq.model.DeltaReportStatus;
+import org.folio.holdingsiq.model.Holding;
+import org.folio.holdingsiq.model.HoldingInReport;
 import org.folio.holdingsiq.model.Holdings;
 import org.folio.holdingsiq.model.HoldingsLoadStatus;
 import org.folio.holdingsiq.model.HoldingsLoadTransactionStatus;
@@ -57,6 +61,17 @@ public interface LoadService {
    */
   CompletableFuture<Holdings> loadHoldings(int count, int offset);
 
+  /**
+   * Download customer holdings resources from the staged area, decoding them while the page is being received.
+   * Each holding is handed over to the consumer as soon as it is decoded, the page is never fully buffered.
+   *
+   * @param count The maximum number of results to return. Count can not exceed 5000.
+   * @param offset Page offset.
+   * @param consumer receives holdings of the page in order.
+   * @return number of holdings handed over to the consumer.
+   */
+  CompletableFuture<Integer> loadHoldings(int count, int offset, Consumer<Holding> consumer);
+
   /**
    * Download customer holdings from transaction.
    * @param transactionId id of transaction
@@ -66,6 +81,42 @@ public interface LoadService {
    */
   CompletableFuture<Holdings> loadHoldingsTransaction(String transactionId, int count, int offset);
 
+  /**
+   * Download customer holdings from transaction, decoding them while the page is being received.
+   * Each holding is handed over to the consumer as soon as it is decoded, the page is never fully buffered.
+   *
+   * @param transactionId id of transaction
+   * @param count The maximum number of results to return. Count can not exceed 4000.
+   * @param offset Page offset.
+   * @param consumer receives holdings of the page in order.
+   * @return number of holdings handed over to the consumer.
+   */
+  CompletableFuture<Integer> loadHoldingsTransaction(String transactionId, int count, int offset,
+                                                     Consumer<Holding> consumer);
+
+  /**
+   * Stream all customer holdings resources from the staged area.
+   * Pages are downloaded one after another starting from the first one, the stream ends after the first page
+   * that contains less than {@code count} holdings.
+   *
+   * @param count The number of holdings requested per page. Count can not exceed 5000.
+   * @param prefetchPages The maximum number of pages downloaded ahead of the page being emitted.
+   * @return stream of holdings.
+   */
+  ReadStream<Holding> streamHoldings(int count, int prefetchPages);
+
+  /**
+   * Stream all customer holdings from transaction.
+   * Pages are downloaded one after another starting from the first one, the stream ends after the first page
+   * that contains less than {@code count} holdings.
+   *
+   * @param transactionId id of transaction
+   * @param count The number of holdings requested per page. Count can not exceed 4000.
+   * @param prefetchPages The maximum number of pages downloaded ahead of the page being emitted.
+   * @return stream of holdings.
+   */
+  ReadStream<Holding> streamHoldingsTransaction(String transactionId, int count, int prefetchPages);
+
   /**
    * Download list of holding changes from delta report.
    * @param deltaReportId id of delta report
@@ -75,6 +126,19 @@ public interface LoadService {
    */
   CompletableFuture<DeltaReport> loadDeltaReport(String deltaReportId, int count, int offset);
 
+  /**
+   * Download list of holding changes from delta report, decoding them while the page is being received.
+   * Each change is handed over to the consumer as soon as it is decoded, the page is never fully buffered.
+   *
+   * @param deltaReportId id of delta report
+   * @param count The maximum number of results to return. Count can not exceed 4000.
+   * @param offset Page offset.
+   * @param consumer receives changes of the page in order.
+   * @return number of changes handed over to the consumer.
+   */
+  CompletableFuture<Integer> loadDeltaReport(String deltaReportId, int count, int offset,
+                                             Consumer<HoldingInReport> consumer);
+
   /**
    * Retrieve the status of a delta report by deltaReportId.
    * The response reveals if delta report creation is in progress, completed or has failed
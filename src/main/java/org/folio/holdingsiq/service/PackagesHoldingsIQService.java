@@ -1,5 +1,6 @@
 package org.folio.holdingsiq.service;
 
+import io.vertx.core.streams.ReadStream;
 import java.util.concurrent.CompletableFuture;
 import org.folio.holdingsiq.model.PackageData;
 import org.folio.holdingsiq.model.PackageFilter;
@@ -7,6 +8,7 @@ import org.folio.holdingsiq.model.PackagePost;
 import org.folio.holdingsiq.model.PackagePut;
 import org.folio.holdingsiq.model.Packages;
 import org.folio.holdingsiq.model.Pageable;
+import org.folio.holdingsiq.model.Sort;
 
 public interface PackagesHoldingsIQService {
 
@@ -16,9 +18,38 @@ public interface PackagesHoldingsIQService {
 
   CompletableFuture<Packages> retrievePackages(int providerId, PackageFilter packageFilter, Pageable pageable);
 
+  /**
+   * Stream all packages matching the filter. The first page is downloaded alone, its total number of results tells
+   * how many pages remain and up to {@code prefetchPages} of them are downloaded at once.
+   *
+   * @param count The number of packages requested per page.
+   * @param prefetchPages The maximum number of pages downloaded ahead of the page being emitted.
+   * @return stream of packages, setting its handler to {@code null} cancels the pages in flight.
+   */
+  ReadStream<PackageData> streamPackages(PackageFilter packageFilter, Sort sort, int count, int prefetchPages);
+
+  /**
+   * Stream all packages of a provider like {@link #streamPackages(PackageFilter, Sort, int, int)}.
+   */
+  ReadStream<PackageData> streamPackages(int providerId, PackageFilter packageFilter, Sort sort, int count,
+                                         int prefetchPages);
+
   CompletableFuture<PackageData> postPackage(PackagePost entity, int providerId);
 
+  /**
+   * Creates a package like {@link #postPackage} without reading it back, in a single request.
+   *
+   * @return id of the created package
+   */
+  CompletableFuture<Integer> createPackage(PackagePost entity, int providerId);
+
   CompletableFuture<Void> updatePackage(int packageId, PackagePut packagePut);
 
   CompletableFuture<Void> deletePackage(int packageId);
+
+  /**
+   * @return service making the same calls as this one with the given request options, e.g. a deadline shared by all
+   *         calls made through it
+   */
+  PackagesHoldingsIQService withRequestOptions(RequestOptions requestOptions);
 }
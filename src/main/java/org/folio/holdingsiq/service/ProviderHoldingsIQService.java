@@ -1,8 +1,10 @@
 package org.folio.holdingsiq.service;
 
+import io.vertx.core.streams.ReadStream;
 import java.util.concurrent.CompletableFuture;
 
 import org.folio.holdingsiq.model.Sort;
+import org.folio.holdingsiq.model.Vendor;
 import org.folio.holdingsiq.model.VendorById;
 import org.folio.holdingsiq.model.VendorPut;
 import org.folio.holdingsiq.model.Vendors;
@@ -12,6 +14,27 @@ public interface ProviderHoldingsIQService {
   CompletableFuture<Integer> getVendorId();
   CompletableFuture<VendorById> retrieveProvider(int id);
   CompletableFuture<Vendors> retrieveProviders(String q, int page, int count, Sort sort);
+
+  /**
+   * Stream all providers matching the query. The first page is downloaded alone, its total number of results tells
+   * how many pages remain and up to {@code prefetchPages} of them are downloaded at once.
+   *
+   * @param count The number of providers requested per page.
+   * @param prefetchPages The maximum number of pages downloaded ahead of the page being emitted.
+   * @return stream of providers, setting its handler to {@code null} cancels the pages in flight.
+   */
+  ReadStream<Vendor> streamProviders(String q, Sort sort, int count, int prefetchPages);
+
   CompletableFuture<VendorById> updateProvider(int id, VendorPut vendorPut);
 
+  /**
+   * Updates a provider like {@link #updateProvider} without reading it back, in a single request.
+   */
+  CompletableFuture<Void> putProvider(int id, VendorPut vendorPut);
+
+  /**
+   * @return service making the same calls as this one with the given request options, e.g. a deadline shared by all
+   *         calls made through it
+   */
+  ProviderHoldingsIQService withRequestOptions(RequestOptions requestOptions);
 }
@@ -0,0 +1,42 @@
+package org.folio.holdingsiq.service;
+
+import java.time.Duration;
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * Client-side request rate limit of one RM API customer for an endpoint family, see
+ * {@link HoldingsIQClientOptions#getRateLimits()}.
+ *
+ * <p>Requests are spaced evenly at {@link #getUtilization()} of the {@link #getRequestsPerSecond() quota}, so the
+ * sustained rate stays just under it, while up to {@link #getBurst()} requests may start at once after a quiet
+ * period.
+ */
+@Value
+@Builder(toBuilder = true)
+public class RateLimit {
+
+  /**
+   * Request quota of the RM API per customer.
+   */
+  double requestsPerSecond;
+
+  /**
+   * Share of the quota requests are limited to.
+   */
+  @Builder.Default
+  double utilization = 0.95;
+
+  /**
+   * Number of requests that may be sent without waiting after no requests were sent for a while.
+   */
+  @Builder.Default
+  int burst = 1;
+
+  /**
+   * Longest time a request may wait for its turn, requests that would wait longer fail with
+   * {@link org.folio.holdingsiq.service.exception.RateLimitExceededException}.
+   */
+  @Builder.Default
+  Duration maxWait = Duration.ofSeconds(30);
+}
@@ -0,0 +1,73 @@
+package org.folio.holdingsiq.service;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+/**
+ * Options of the RM API calls made through a service returned by {@code withRequestOptions}.
+ *
+ * <p>The deadline is fixed when the options are created, so all calls made with the same options share one time
+ * budget, including the calls a service method chains, e.g. {@code postTitle} reading the created title back. A call
+ * that is still running at the deadline is reset and fails with
+ * {@link org.folio.holdingsiq.service.exception.DeadlineExceededException}.
+ */
+@EqualsAndHashCode
+@ToString
+public final class RequestOptions {
+
+  /**
+   * Options without a deadline.
+   */
+  public static final RequestOptions NONE = new RequestOptions(false, 0);
+
+  private final boolean deadlineSet;
+  private final long deadline;
+
+  private RequestOptions(boolean deadlineSet, long deadline) {
+    this.deadlineSet = deadlineSet;
+    this.deadline = deadline;
+  }
+
+  /**
+   * @param timeout time from now the calls made with the options must complete in
+   */
+  public static RequestOptions timeout(Duration timeout) {
+    return new RequestOptions(true, System.nanoTime() + timeout.toNanos());
+  }
+
+  public boolean hasDeadline() {
+    return deadlineSet;
+  }
+
+  /**
+   * @return time left until the deadline, {@link Duration#ZERO} once it passed
+   * @throws IllegalStateException if the options have no deadline
+   */
+  public Duration remaining() {
+    return Duration.ofNanos(remainingNanos());
+  }
+
+  /**
+   * @return nanoseconds left until the deadline, 0 once it passed
+   * @throws IllegalStateException if the options have no deadline
+   */
+  public long remainingNanos() {
+    if (!deadlineSet) {
+      throw new IllegalStateException("Request options have no deadline");
+    }
+    return Math.max(0, deadline - System.nanoTime());
+  }
+
+  /**
+   * @return milliseconds left until the deadline rounded up, so a remaining budget is never truncated to 0
+   */
+  public long remainingMillis() {
+    return TimeUnit.NANOSECONDS.toMillis(remainingNanos() + TimeUnit.MILLISECONDS.toNanos(1) - 1);
+  }
+
+  public boolean isExpired() {
+    return deadlineSet && remainingNanos() == 0;
+  }
+}
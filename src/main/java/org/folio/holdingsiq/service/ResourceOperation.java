@@ -0,0 +1,49 @@
+package org.folio.holdingsiq.service;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Value;
+import org.folio.holdingsiq.model.ResourceId;
+import org.folio.holdingsiq.model.ResourcePut;
+import org.folio.holdingsiq.model.ResourceSelectedPayload;
+
+/**
+ * Change of one resource in a batch, see
+ * {@link ResourcesHoldingsIQService#applyResourceOperations(java.util.stream.Stream, BatchOptions)}.
+ */
+@Value
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class ResourceOperation {
+
+  public enum Type {
+    /**
+     * Selects or deselects the resource like {@link ResourcesHoldingsIQService#postResource}.
+     */
+    SELECT,
+    /**
+     * Updates the resource like {@link ResourcesHoldingsIQService#updateResource}.
+     */
+    UPDATE,
+    /**
+     * Deselects the resource like {@link ResourcesHoldingsIQService#deleteResource}.
+     */
+    DELETE
+  }
+
+  Type type;
+  ResourceId resourceId;
+  ResourceSelectedPayload selectedPayload;
+  ResourcePut resourcePut;
+
+  public static ResourceOperation select(ResourceId resourceId, ResourceSelectedPayload selectedPayload) {
+    return new ResourceOperation(Type.SELECT, resourceId, selectedPayload, null);
+  }
+
+  public static ResourceOperation update(ResourceId resourceId, ResourcePut resourcePut) {
+    return new ResourceOperation(Type.UPDATE, resourceId, null, resourcePut);
+  }
+
+  public static ResourceOperation delete(ResourceId resourceId) {
+    return new ResourceOperation(Type.DELETE, resourceId, null, null);
+  }
+}
@@ -1,6 +1,8 @@
 package org.folio.holdingsiq.service;
 
 import java.util.concurrent.CompletableFuture;
+import java.util.function.BiConsumer;
+import java.util.stream.Stream;
 
 import org.folio.holdingsiq.model.ResourceId;
 import org.folio.holdingsiq.model.ResourcePut;
@@ -10,8 +12,43 @@ import org.folio.holdingsiq.model.Title;
 public interface ResourcesHoldingsIQService {
 
   CompletableFuture<Title> postResource(ResourceSelectedPayload resourcePost, ResourceId resourceId);
+
+  /**
+   * Selects or deselects a resource like {@link #postResource} without reading it back, in a single request.
+   */
+  CompletableFuture<Void> selectResource(ResourceSelectedPayload resourcePost, ResourceId resourceId);
+
   CompletableFuture<Void> updateResource(ResourceId parsedResourceId, ResourcePut resourcePutBody);
   CompletableFuture<Void> deleteResource(ResourceId parsedResourceId);
   CompletableFuture<Title> retrieveResource(ResourceId resourceId);
 
+  /**
+   * Applies selections, updates and deletions of many resources with a bounded number of requests in flight.
+   * Operations of the same resource are applied one after another in the order of the stream, failed operations are
+   * reported in {@link BatchReport#getFailures()} instead of failing the batch.
+   *
+   * @param operations consumed lazily and closed once the batch completes
+   * @param batchOptions concurrency and whether selected resources are read back
+   * @return report completed once every operation succeeded or failed
+   */
+  default CompletableFuture<BatchReport<ResourceOperation>> applyResourceOperations(
+    Stream<ResourceOperation> operations, BatchOptions batchOptions) {
+    return applyResourceOperations(operations, batchOptions, (operation, title) -> { });
+  }
+
+  /**
+   * Applies resource operations like {@link #applyResourceOperations(Stream, BatchOptions)} and hands over the title
+   * read back after every {@link ResourceOperation.Type#SELECT} operation if {@link BatchOptions#isReadBack()} is set.
+   *
+   * @param onSelected receives the operation and the title, never called concurrently
+   */
+  CompletableFuture<BatchReport<ResourceOperation>> applyResourceOperations(Stream<ResourceOperation> operations,
+                                                                            BatchOptions batchOptions,
+                                                                            BiConsumer<ResourceOperation, Title> onSelected);
+
+  /**
+   * @return service making the same calls as this one with the given request options, e.g. a deadline shared by all
+   *         calls made through it
+   */
+  ResourcesHoldingsIQService withRequestOptions(RequestOptions requestOptions);
 }
@@ -0,0 +1,71 @@
+package org.folio.holdingsiq.service;
+
+import java.time.Duration;
+import java.util.Set;
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * Retries of failed RM API requests, configured with {@link HoldingsIQClientOptions#getRetryPolicy()}.
+ *
+ * <p>GET requests and, with {@link #isRetryPut()}, PUT requests are retried on connection errors and on the
+ * {@link #getRetryableStatusCodes() retryable status codes}. The delay before a retry is chosen at random between zero
+ * and an exponentially growing backoff ("full jitter"), unless the response has a {@code Retry-After} header. Retries
+ * stop at {@link #getMaxAttempts()}, when the next attempt would start after the {@link #getDeadline()} or when the
+ * retry budget of the client is used up. POST requests are never retried.
+ */
+@Value
+@Builder(toBuilder = true)
+public class RetryPolicy {
+
+  public static final RetryPolicy NONE = RetryPolicy.builder().maxAttempts(1).build();
+
+  /**
+   * Maximum number of attempts including the first one, 1 disables retries.
+   */
+  @Builder.Default
+  int maxAttempts = 3;
+
+  /**
+   * Upper bound of the delay before the first retry, doubled for every further retry.
+   */
+  @Builder.Default
+  Duration initialBackoff = Duration.ofMillis(200);
+
+  /**
+   * Upper bound of the delay before any retry.
+   */
+  @Builder.Default
+  Duration maxBackoff = Duration.ofSeconds(10);
+
+  /**
+   * Time from the first attempt after which no further attempt is started.
+   */
+  @Builder.Default
+  Duration deadline = Duration.ofSeconds(30);
+
+  @Builder.Default
+  Set<Integer> retryableStatusCodes = Set.of(429, 502, 503, 504);
+
+  /**
+   * Retry PUT requests too, RM API updates replace the whole resource so repeating them is safe.
+   */
+  @Builder.Default
+  boolean retryPut = false;
+
+  /**
+   * Retries allowed per request sent with the client, 0.1 allows one retry for every ten requests on average.
+   */
+  @Builder.Default
+  double budgetRatio = 0.1;
+
+  /**
+   * Maximum number of retries the budget saves up, also the number of retries available before any request was sent.
+   */
+  @Builder.Default
+  int budgetCapacity = 10;
+
+  public boolean isEnabled() {
+    return maxAttempts > 1;
+  }
+}
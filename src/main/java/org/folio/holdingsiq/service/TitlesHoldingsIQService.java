@@ -1,6 +1,9 @@
 package org.folio.holdingsiq.service;
 
+import io.vertx.core.streams.ReadStream;
+import java.util.Collection;
 import java.util.concurrent.CompletableFuture;
+import java.util.function.BiConsumer;
 
 import org.folio.holdingsiq.model.FilterQuery;
 import org.folio.holdingsiq.model.PackageId;
@@ -20,5 +23,55 @@ public interface TitlesHoldingsIQService {
   CompletableFuture<Titles> retrieveTitles(int providerId, int packageId, FilterQuery filterQuery, String searchType,
                                            Sort sort, int page, int count);
 
+  /**
+   * Stream all titles of a search. Pages are downloaded one after another starting from the first one, titles without
+   * customer resources are left out like in {@link #retrieveTitles(FilterQuery, String, Sort, int, int)}.
+   *
+   * @param count The number of titles requested per page.
+   * @param prefetchPages The maximum number of pages downloaded ahead of the page being emitted.
+   * @return stream of titles, setting its handler to {@code null} cancels the pages in flight.
+   */
+  ReadStream<Title> streamTitles(FilterQuery filterQuery, String searchType, Sort sort, int count, int prefetchPages);
+
+  /**
+   * Stream all titles of a package like {@link #streamTitles(FilterQuery, String, Sort, int, int)}.
+   */
+  ReadStream<Title> streamTitles(int providerId, int packageId, FilterQuery filterQuery, String searchType, Sort sort,
+                                 int count, int prefetchPages);
+
+  /**
+   * Retrieves titles by id with a bounded number of requests in flight. Duplicate ids are retrieved once, ids that
+   * could not be retrieved, e.g. unknown ones, are reported in {@link BatchResult#getFailures()}.
+   *
+   * @return titles by id in the order the ids were given, completed once every id was retrieved or failed
+   */
+  default CompletableFuture<BatchResult<Integer, Title>> retrieveTitles(Collection<Integer> titleIds,
+                                                                        BatchOptions batchOptions) {
+    return retrieveTitles(titleIds, batchOptions, (titleId, title) -> { });
+  }
+
+  /**
+   * Retrieves titles by id like {@link #retrieveTitles(Collection, BatchOptions)} and hands over every title as soon
+   * as it is retrieved.
+   *
+   * @param onTitle receives the id and the title, never called concurrently
+   */
+  CompletableFuture<BatchResult<Integer, Title>> retrieveTitles(Collection<Integer> titleIds,
+                                                                BatchOptions batchOptions,
+                                                                BiConsumer<Integer, Title> onTitle);
+
   CompletableFuture<Title> postTitle(TitlePost titlePost, PackageId packageId);
+
+  /**
+   * Creates a title like {@link #postTitle} without reading it back, in a single request.
+   *
+   * @return id of the created title
+   */
+  CompletableFuture<Integer> createTitle(TitlePost titlePost, PackageId packageId);
+
+  /**
+   * @return service making the same calls as this one with the given request options, e.g. a deadline shared by all
+   *         calls made through it
+   */
+  TitlesHoldingsIQService withRequestOptions(RequestOptions requestOptions);
 }
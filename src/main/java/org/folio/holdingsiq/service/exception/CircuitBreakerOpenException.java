@@ -0,0 +1,13 @@
+package org.folio.holdingsiq.service.exception;
+
+/**
+ * Thrown without calling the RM API while the circuit breaker of the RM API base URL and customer is open.
+ */
+public class CircuitBreakerOpenException extends ServiceException {
+
+  private static final long serialVersionUID = 1L;
+
+  public CircuitBreakerOpenException(String message) {
+    super(message);
+  }
+}
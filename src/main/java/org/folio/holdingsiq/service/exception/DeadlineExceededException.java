@@ -0,0 +1,14 @@
+package org.folio.holdingsiq.service.exception;
+
+/**
+ * Thrown when an RM API call does not complete before the deadline of its
+ * {@link org.folio.holdingsiq.service.RequestOptions}.
+ */
+public class DeadlineExceededException extends ServiceException {
+
+  private static final long serialVersionUID = 1L;
+
+  public DeadlineExceededException(String message) {
+    super(message);
+  }
+}
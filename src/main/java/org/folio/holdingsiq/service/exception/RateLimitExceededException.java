@@ -0,0 +1,19 @@
+package org.folio.holdingsiq.service.exception;
+
+import lombok.Getter;
+
+/**
+ * Thrown when a request would have to wait longer than allowed for the client-side rate limit of its customer.
+ */
+public class RateLimitExceededException extends ServiceException {
+
+  private static final long serialVersionUID = 1L;
+
+  @Getter
+  private final String endpointFamily;
+
+  public RateLimitExceededException(String message, String endpointFamily) {
+    super(message);
+    this.endpointFamily = endpointFamily;
+  }
+}
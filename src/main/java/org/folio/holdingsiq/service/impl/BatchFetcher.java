@@ -0,0 +1,150 @@
+package org.folio.holdingsiq.service.impl;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import lombok.extern.log4j.Log4j2;
+import org.folio.holdingsiq.service.BatchResult;
+
+/**
+ * Retrieves records of several keys with a bounded number of requests in flight. Duplicate keys are retrieved once,
+ * failures of single keys are collected instead of failing the batch.
+ *
+ * <p>Cancelling the returned future cancels the requests in flight and no further request is started.
+ */
+@Log4j2
+class BatchFetcher<K, V> {
+
+  private final int concurrency;
+  private final Function<K, CompletableFuture<V>> loader;
+  private final BiConsumer<K, V> onResult;
+
+  /**
+   * @param concurrency maximum number of requests in flight
+   * @param loader starts the request of a key
+   * @param onResult receives every record as soon as it is retrieved, never called concurrently
+   */
+  BatchFetcher(int concurrency, Function<K, CompletableFuture<V>> loader, BiConsumer<K, V> onResult) {
+    if (concurrency < 1) {
+      throw new IllegalArgumentException("concurrency must be greater than 0");
+    }
+    this.concurrency = concurrency;
+    this.loader = loader;
+    this.onResult = onResult;
+  }
+
+  CompletableFuture<BatchResult<K, V>> fetch(Collection<K> keys) {
+    return new BatchRun(new LinkedHashSet<>(keys)).start();
+  }
+
+  private static Throwable unwrap(Throwable throwable) {
+    return throwable instanceof CompletionException && throwable.getCause() != null
+           ? throwable.getCause()
+           : throwable;
+  }
+
+  private final class BatchRun {
+
+    private final LinkedHashSet<K> keys;
+    private final Deque<K> pendingKeys;
+    private final CompletableFuture<BatchResult<K, V>> result = new CompletableFuture<>();
+    private final Map<K, V> values = new HashMap<>();
+    private final Map<K, Throwable> failures = new LinkedHashMap<>();
+    private final Map<K, CompletableFuture<V>> inFlight = new HashMap<>();
+    private boolean requesting;
+
+    BatchRun(LinkedHashSet<K> keys) {
+      this.keys = keys;
+      this.pendingKeys = new ArrayDeque<>(keys);
+    }
+
+    CompletableFuture<BatchResult<K, V>> start() {
+      result.whenComplete((batchResult, throwable) -> {
+        if (result.isCancelled()) {
+          cancelInFlight();
+        }
+      });
+      synchronized (this) {
+        requestKeys();
+        completeIfDone();
+      }
+      return result;
+    }
+
+    private void requestKeys() {
+      if (requesting) {
+        // a request completed right away, e.g. from the cache, the loop below goes on with the next key
+        return;
+      }
+      requesting = true;
+      while (!result.isDone() && inFlight.size() < concurrency && !pendingKeys.isEmpty()) {
+        K key = pendingKeys.pollFirst();
+        CompletableFuture<V> request;
+        try {
+          request = loader.apply(key);
+        } catch (RuntimeException e) {
+          failures.put(key, e);
+          continue;
+        }
+        inFlight.put(key, request);
+        request.whenComplete((value, throwable) -> onCompleted(key, value, throwable));
+      }
+      requesting = false;
+    }
+
+    private synchronized void onCompleted(K key, V value, Throwable throwable) {
+      if (inFlight.remove(key) == null || result.isDone()) {
+        return;
+      }
+      if (throwable != null) {
+        failures.put(key, unwrap(throwable));
+      } else {
+        values.put(key, value);
+        deliver(key, value);
+      }
+      requestKeys();
+      if (!requesting) {
+        completeIfDone();
+      }
+    }
+
+    private void deliver(K key, V value) {
+      try {
+        onResult.accept(key, value);
+      } catch (RuntimeException e) {
+        log.warn("Batch result callback failed for key {}: {}", key, e.getMessage(), e);
+      }
+    }
+
+    private void completeIfDone() {
+      if (inFlight.isEmpty() && pendingKeys.isEmpty()) {
+        Map<K, V> ordered = new LinkedHashMap<>();
+        for (K key : keys) {
+          if (values.containsKey(key)) {
+            ordered.put(key, values.get(key));
+          }
+        }
+        result.complete(new BatchResult<>(ordered, failures));
+      }
+    }
+
+    private void cancelInFlight() {
+      Collection<CompletableFuture<V>> requests;
+      synchronized (this) {
+        pendingKeys.clear();
+        requests = new ArrayList<>(inFlight.values());
+        inFlight.clear();
+      }
+      requests.forEach(request -> request.cancel(false));
+    }
+  }
+}
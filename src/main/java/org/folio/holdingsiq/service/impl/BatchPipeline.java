@@ -0,0 +1,201 @@
+package org.folio.holdingsiq.service.impl;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import lombok.extern.log4j.Log4j2;
+import org.folio.holdingsiq.service.BatchReport;
+
+/**
+ * Runs write operations with a bounded number of requests in flight. Operations are pulled from the iterator only
+ * when there is room for them, so a batch of any size is never held in memory as a whole.
+ *
+ * <p>Operations of the same key, e.g. of the same resource, run one after another in the order they were given.
+ * Failures of single operations are collected in the report instead of failing the batch; cancelling the returned
+ * future cancels the operations in flight and no further operation is started.
+ */
+@Log4j2
+class BatchPipeline<T> {
+
+  private final int concurrency;
+  private final Function<T, Object> keyOf;
+  private final Function<T, CompletableFuture<?>> executor;
+  private final BiConsumer<T, Object> onResult;
+
+  /**
+   * @param concurrency maximum number of operations in flight
+   * @param keyOf key of the record an operation changes
+   * @param executor starts an operation
+   * @param onResult receives every operation that succeeded and its result, never called concurrently
+   */
+  BatchPipeline(int concurrency, Function<T, Object> keyOf, Function<T, CompletableFuture<?>> executor,
+                BiConsumer<T, Object> onResult) {
+    if (concurrency < 1) {
+      throw new IllegalArgumentException("concurrency must be greater than 0");
+    }
+    this.concurrency = concurrency;
+    this.keyOf = keyOf;
+    this.executor = executor;
+    this.onResult = onResult;
+  }
+
+  CompletableFuture<BatchReport<T>> run(Iterator<T> operations) {
+    return new PipelineRun(operations).start();
+  }
+
+  private static Throwable unwrap(Throwable throwable) {
+    return throwable instanceof CompletionException && throwable.getCause() != null
+           ? throwable.getCause()
+           : throwable;
+  }
+
+  private final class PipelineRun {
+
+    private final Iterator<T> operations;
+    private final CompletableFuture<BatchReport<T>> result = new CompletableFuture<>();
+    private final long startNanos = System.nanoTime();
+
+    private final Set<CompletableFuture<?>> inFlight = new HashSet<>();
+    private final Set<Object> busyKeys = new HashSet<>();
+    private final Map<Object, Deque<T>> waiting = new HashMap<>();
+    private final Deque<T> ready = new ArrayDeque<>();
+    private final List<BatchReport.Failure<T>> failures = new ArrayList<>();
+    private int waitingCount;
+    private int total;
+    private int succeeded;
+    private boolean running;
+
+    PipelineRun(Iterator<T> operations) {
+      this.operations = operations;
+    }
+
+    CompletableFuture<BatchReport<T>> start() {
+      result.whenComplete((report, throwable) -> {
+        if (throwable != null) {
+          cancelInFlight();
+        }
+      });
+      synchronized (this) {
+        runOperations();
+      }
+      return result;
+    }
+
+    private void runOperations() {
+      if (running) {
+        // an operation completed right away, the loop below goes on with the next one
+        return;
+      }
+      running = true;
+      try {
+        while (!result.isDone() && inFlight.size() < concurrency) {
+          T operation = nextOperation();
+          if (operation == null) {
+            break;
+          }
+          startOperation(operation);
+        }
+        completeIfDone();
+      } catch (RuntimeException e) {
+        // the source of the operations failed
+        result.completeExceptionally(e);
+      } finally {
+        running = false;
+      }
+    }
+
+    private T nextOperation() {
+      if (!ready.isEmpty()) {
+        return ready.pollFirst();
+      }
+      while (waitingCount < concurrency && operations.hasNext()) {
+        T operation = operations.next();
+        total++;
+        Object key = keyOf.apply(operation);
+        if (busyKeys.add(key)) {
+          return operation;
+        }
+        waiting.computeIfAbsent(key, k -> new ArrayDeque<>()).addLast(operation);
+        waitingCount++;
+      }
+      return null;
+    }
+
+    private void startOperation(T operation) {
+      CompletableFuture<?> future;
+      try {
+        future = executor.apply(operation);
+      } catch (RuntimeException e) {
+        onCompleted(operation, null, null, e);
+        return;
+      }
+      inFlight.add(future);
+      future.whenComplete((value, throwable) -> onCompleted(operation, future, value, throwable));
+    }
+
+    private synchronized void onCompleted(T operation, CompletableFuture<?> future, Object value,
+                                          Throwable throwable) {
+      if (future != null && !inFlight.remove(future) || result.isDone()) {
+        return;
+      }
+      if (throwable != null) {
+        failures.add(new BatchReport.Failure<>(operation, unwrap(throwable)));
+      } else {
+        succeeded++;
+        deliver(operation, value);
+      }
+      releaseKey(keyOf.apply(operation));
+      runOperations();
+    }
+
+    private void deliver(T operation, Object value) {
+      try {
+        onResult.accept(operation, value);
+      } catch (RuntimeException e) {
+        log.warn("Batch result callback failed for operation {}: {}", operation, e.getMessage(), e);
+      }
+    }
+
+    private void releaseKey(Object key) {
+      Deque<T> queue = waiting.get(key);
+      if (queue == null) {
+        busyKeys.remove(key);
+        return;
+      }
+      ready.addLast(queue.pollFirst());
+      waitingCount--;
+      if (queue.isEmpty()) {
+        waiting.remove(key);
+      }
+    }
+
+    private void completeIfDone() {
+      if (!result.isDone() && inFlight.isEmpty() && ready.isEmpty() && waitingCount == 0
+          && !operations.hasNext()) {
+        result.complete(new BatchReport<>(total, succeeded, List.copyOf(failures),
+          Duration.ofNanos(System.nanoTime() - startNanos)));
+      }
+    }
+
+    private void cancelInFlight() {
+      Collection<CompletableFuture<?>> operationsInFlight;
+      synchronized (this) {
+        operationsInFlight = new ArrayList<>(inFlight);
+        inFlight.clear();
+      }
+      operationsInFlight.forEach(future -> future.cancel(false));
+    }
+  }
+}
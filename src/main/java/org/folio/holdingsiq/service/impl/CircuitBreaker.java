@@ -0,0 +1,180 @@
+package org.folio.holdingsiq.service.impl;
+
+import java.util.function.BiConsumer;
+import org.folio.holdingsiq.service.CircuitBreakerPolicy;
+import org.folio.holdingsiq.service.CircuitBreakerState;
+
+/**
+ * Circuit breaker of one RM API base URL and customer. Outcomes are counted in a rolling window of ten buckets, so
+ * recording a request and evaluating the thresholds take constant time.
+ *
+ * <p>Every state change starts a new generation; permits carry the generation they were acquired in and outcomes of
+ * an earlier generation, e.g. of requests that were sent before the breaker opened, are ignored.
+ */
+class CircuitBreaker {
+
+  static final long REJECTED = -1;
+
+  private static final int BUCKETS = 10;
+
+  private final CircuitBreakerPolicy policy;
+  private final BiConsumer<CircuitBreakerState, CircuitBreakerState> transitions;
+  private final long bucketNanos;
+  private final long slowCallNanos;
+  private final long openNanos;
+  private final long[] epochs = new long[BUCKETS];
+  private final int[] calls = new int[BUCKETS];
+  private final int[] failures = new int[BUCKETS];
+  private final int[] slowCalls = new int[BUCKETS];
+
+  private CircuitBreakerState state = CircuitBreakerState.CLOSED;
+  private long generation;
+  private long openedAt;
+  private int probes;
+  private int probeSuccesses;
+
+  /**
+   * @param transitions called with the previous and the new state after every state change, outside the lock
+   */
+  CircuitBreaker(CircuitBreakerPolicy policy, BiConsumer<CircuitBreakerState, CircuitBreakerState> transitions) {
+    this.policy = policy;
+    this.transitions = transitions;
+    this.bucketNanos = Math.max(1, policy.getWindow().toNanos() / BUCKETS);
+    this.slowCallNanos = policy.getSlowCallDuration().toNanos();
+    this.openNanos = policy.getOpenDuration().toNanos();
+    resetWindow();
+  }
+
+  /**
+   * @return generation the request is sent in, {@link #REJECTED} if it must fail fast
+   */
+  long tryAcquire(long now) {
+    CircuitBreakerState previous;
+    CircuitBreakerState current;
+    long permit;
+    synchronized (this) {
+      previous = state;
+      permit = acquire(now);
+      current = state;
+    }
+    notifyTransition(previous, current);
+    return permit;
+  }
+
+  /**
+   * Gives back a permit of a request that was not sent.
+   */
+  synchronized void release(long permit) {
+    if (state == CircuitBreakerState.HALF_OPEN && permit == generation) {
+      probes--;
+    }
+  }
+
+  /**
+   * Records the outcome of a request sent with the permit.
+   */
+  void onResult(long permit, boolean failure, long durationNanos, long now) {
+    CircuitBreakerState previous;
+    CircuitBreakerState current;
+    synchronized (this) {
+      previous = state;
+      record(permit, failure || durationNanos >= slowCallNanos, failure, durationNanos, now);
+      current = state;
+    }
+    notifyTransition(previous, current);
+  }
+
+  synchronized CircuitBreakerState state() {
+    return state;
+  }
+
+  private long acquire(long now) {
+    if (state == CircuitBreakerState.OPEN) {
+      if (now - openedAt < openNanos) {
+        return REJECTED;
+      }
+      transitionTo(CircuitBreakerState.HALF_OPEN);
+      probes = 0;
+      probeSuccesses = 0;
+    }
+    if (state == CircuitBreakerState.HALF_OPEN) {
+      if (probes >= policy.getHalfOpenProbes()) {
+        return REJECTED;
+      }
+      probes++;
+    }
+    return generation;
+  }
+
+  private void record(long permit, boolean probeFailed, boolean failure, long durationNanos, long now) {
+    if (permit != generation) {
+      return;
+    }
+    if (state == CircuitBreakerState.HALF_OPEN) {
+      if (probeFailed) {
+        open(now);
+      } else if (++probeSuccesses >= policy.getHalfOpenProbes()) {
+        resetWindow();
+        transitionTo(CircuitBreakerState.CLOSED);
+      }
+      return;
+    }
+
+    long epoch = Math.floorDiv(now, bucketNanos);
+    int bucket = (int) Math.floorMod(epoch, BUCKETS);
+    if (epochs[bucket] != epoch) {
+      epochs[bucket] = epoch;
+      calls[bucket] = 0;
+      failures[bucket] = 0;
+      slowCalls[bucket] = 0;
+    }
+    calls[bucket]++;
+    if (failure) {
+      failures[bucket]++;
+    }
+    if (durationNanos >= slowCallNanos) {
+      slowCalls[bucket]++;
+    }
+
+    int totalCalls = 0;
+    int totalFailures = 0;
+    int totalSlowCalls = 0;
+    for (int i = 0; i < BUCKETS; i++) {
+      if (epochs[i] > epoch - BUCKETS) {
+        totalCalls += calls[i];
+        totalFailures += failures[i];
+        totalSlowCalls += slowCalls[i];
+      }
+    }
+    if (totalCalls >= policy.getMinimumCalls()
+        && (totalFailures >= policy.getFailureRateThreshold() * totalCalls
+            || totalSlowCalls >= policy.getSlowCallRateThreshold() * totalCalls)) {
+      open(now);
+    }
+  }
+
+  private void open(long now) {
+    openedAt = now;
+    transitionTo(CircuitBreakerState.OPEN);
+  }
+
+  private void transitionTo(CircuitBreakerState newState) {
+    state = newState;
+    generation++;
+  }
+
+  private void resetWindow() {
+    for (int i = 0; i < BUCKETS; i++) {
+      epochs[i] = Long.MIN_VALUE;
+      calls[i] = 0;
+      failures[i] = 0;
+      slowCalls[i] = 0;
+    }
+  }
+
+  private void notifyTransition(CircuitBreakerState previous, CircuitBreakerState current) {
+    if (previous != current) {
+      transitions.accept(previous, current);
+    }
+  }
+}
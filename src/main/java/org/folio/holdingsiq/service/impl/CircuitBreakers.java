@@ -0,0 +1,132 @@
+package org.folio.holdingsiq.service.impl;
+
+import io.micrometer.core.instrument.Meter;
+import io.vertx.core.Future;
+import io.vertx.ext.web.client.HttpResponse;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+import lombok.extern.log4j.Log4j2;
+import org.folio.holdingsiq.service.CircuitBreakerListener;
+import org.folio.holdingsiq.service.CircuitBreakerPolicy;
+import org.folio.holdingsiq.service.CircuitBreakerState;
+import org.folio.holdingsiq.service.HoldingsIQClientOptions;
+
+/**
+ * Circuit breakers of the RM API base URLs and customers served by a client, see
+ * {@link HoldingsIQClientOptions#getCircuitBreaker()}. Without a policy every request is let through.
+ */
+@Log4j2
+class CircuitBreakers {
+
+  private static final int SERVER_ERROR = 500;
+
+  private final CircuitBreakerPolicy policy;
+  private final List<CircuitBreakerListener> listeners;
+  private final HoldingsClientMetrics metrics;
+  private final Map<String, CircuitBreaker> circuits = new ConcurrentHashMap<>();
+  private final AtomicInteger notClosed = new AtomicInteger();
+  private final List<Meter> meters;
+
+  CircuitBreakers(HoldingsIQClientOptions options, HoldingsClientMetrics metrics, String poolName) {
+    this.policy = options.getCircuitBreaker();
+    this.listeners = options.getCircuitBreakerListeners();
+    this.metrics = metrics;
+    this.meters = policy == null ? List.of() : List.of(metrics.registerCircuitGauge(poolName, notClosed));
+  }
+
+  /**
+   * Removes the gauge of the circuit breakers when the pool they belong to is closed.
+   */
+  void close() {
+    metrics.remove(meters);
+  }
+
+  /**
+   * @param endpoint endpoint template of the request, used to count rejected requests
+   * @return permit to send the request with, null if the circuit is open and the request must fail fast
+   */
+  Permit tryAcquire(String baseUrl, String customerId, String endpoint) {
+    if (policy == null) {
+      return Permit.NONE;
+    }
+    var circuit = circuits.computeIfAbsent(baseUrl + "|" + customerId,
+      key -> new CircuitBreaker(policy, (from, to) -> transition(baseUrl, customerId, from, to)));
+    long permit = circuit.tryAcquire(System.nanoTime());
+    if (permit == CircuitBreaker.REJECTED) {
+      metrics.recordCircuitRejected(endpoint);
+      return null;
+    }
+    return new Permit(circuit, permit);
+  }
+
+  private void transition(String baseUrl, String customerId, CircuitBreakerState from, CircuitBreakerState to) {
+    if (from == CircuitBreakerState.CLOSED) {
+      notClosed.incrementAndGet();
+    } else if (to == CircuitBreakerState.CLOSED) {
+      notClosed.decrementAndGet();
+    }
+    metrics.recordCircuitTransition(to.name());
+    if (to == CircuitBreakerState.OPEN) {
+      log.warn("RMAPI circuit breaker opened: url = [{}], customerId = [{}]", baseUrl, customerId);
+    } else {
+      log.info("RMAPI circuit breaker {}: url = [{}], customerId = [{}]", to, baseUrl, customerId);
+    }
+    for (CircuitBreakerListener listener : listeners) {
+      try {
+        listener.onStateChange(baseUrl, customerId, from, to);
+      } catch (RuntimeException e) {
+        log.warn("Circuit breaker listener failed: {}", e.getMessage(), e);
+      }
+    }
+  }
+
+  /**
+   * Permission to send a request, the outcome of the request is recorded when it is sent with {@link #send}.
+   */
+  static final class Permit {
+
+    static final Permit NONE = new Permit(null, 0);
+
+    private final CircuitBreaker circuit;
+    private final long generation;
+
+    private Permit(CircuitBreaker circuit, long generation) {
+      this.circuit = circuit;
+      this.generation = generation;
+    }
+
+    /**
+     * Sends the request and records whether it failed with an exception or a 5xx response and how long it took.
+     *
+     * @param cancelled tells whether the request was cancelled by the client, the outcome is not recorded then
+     */
+    <T> Future<HttpResponse<T>> send(Supplier<Future<HttpResponse<T>>> sender, BooleanSupplier cancelled) {
+      if (circuit == null) {
+        return sender.get();
+      }
+      long start = System.nanoTime();
+      return sender.get().andThen(ar -> {
+        if (cancelled.getAsBoolean()) {
+          circuit.release(generation);
+          return;
+        }
+        long now = System.nanoTime();
+        boolean failure = ar.failed() || ar.result().statusCode() >= SERVER_ERROR;
+        circuit.onResult(generation, failure, now - start, now);
+      });
+    }
+
+    /**
+     * Gives the permit back when the request is not sent after all.
+     */
+    void release() {
+      if (circuit != null) {
+        circuit.release(generation);
+      }
+    }
+  }
+}
@@ -5,10 +5,12 @@ import static org.apache.commons.lang3.StringUtils.isEmpty;
 import static org.apache.commons.validator.routines.UrlValidator.ALLOW_LOCAL_URLS;
 
 import io.netty.handler.codec.http.HttpResponseStatus;
+import io.opentelemetry.api.OpenTelemetry;
 import io.vertx.core.Context;
 import io.vertx.core.Future;
 import io.vertx.core.Vertx;
 import io.vertx.core.http.HttpHeaders;
+import io.vertx.core.http.HttpMethod;
 import io.vertx.core.http.HttpResponseExpectation;
 import io.vertx.core.json.JsonObject;
 import io.vertx.ext.web.client.WebClient;
@@ -39,9 +41,18 @@ public class ConfigurationServiceImpl implements ConfigurationService {
   private static final String USER_CREDS_URL = "/eholdings/user-kb-credential";
 
   private final WebClient client;
+  private final HoldingsClientTracing tracing;
 
   public ConfigurationServiceImpl(Vertx vertx) {
+    this(vertx, OpenTelemetry.noop());
+  }
+
+  /**
+   * @param openTelemetry OpenTelemetry instance the credentials requests are traced with
+   */
+  public ConfigurationServiceImpl(Vertx vertx, OpenTelemetry openTelemetry) {
     this.client = WebClient.create(vertx);
+    this.tracing = new HoldingsClientTracing(openTelemetry);
   }
 
   @Override
@@ -109,12 +120,16 @@ public class ConfigurationServiceImpl implements ConfigurationService {
   }
 
   private Future<JsonObject> getCredentialsJson(RequestContext requestContext) {
-    return client.get(requestContext.getPort(), requestContext.getHost(), USER_CREDS_URL)
+    var span = tracing.startRequestSpan(USER_CREDS_URL, HttpMethod.GET.name());
+    var request = client.get(requestContext.getPort(), requestContext.getHost(), USER_CREDS_URL)
       .putHeader(XOkapiHeaders.TENANT, requestContext.getTenant())
       .putHeader(XOkapiHeaders.TOKEN, requestContext.getToken())
       .putHeader(XOkapiHeaders.USER_ID, requestContext.getUserId())
-      .putHeader(HttpHeaders.ACCEPT.toString(), JSON_API_TYPE)
+      .putHeader(HttpHeaders.ACCEPT.toString(), JSON_API_TYPE);
+    tracing.inject(span, request);
+    return request
       .send()
+      .onSuccess(res -> HoldingsClientTracing.responseReceived(span, res.statusCode()))
       .expecting(HttpResponseExpectation.contentType(JSON_API_TYPE))
       .map(res -> {
         if (res.statusCode() == HttpResponseStatus.OK.code()) {
@@ -122,7 +137,8 @@ public class ConfigurationServiceImpl implements ConfigurationService {
         } else {
           throw new ConfigurationServiceException(res.bodyAsString(), res.statusCode());
         }
-      });
+      })
+      .onComplete(ar -> HoldingsClientTracing.end(span, ar.cause()));
   }
 
   private Configuration credentialsToConfiguration(JsonObject creds) {
@@ -0,0 +1,191 @@
+package org.folio.holdingsiq.service.impl;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.compression.ZlibCodecFactory;
+import io.netty.handler.codec.compression.ZlibWrapper;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.ext.web.codec.BodyCodec;
+import io.vertx.ext.web.codec.spi.BodyStream;
+import java.io.IOException;
+
+/**
+ * Body codec that decompresses gzip or deflate encoded response bodies before handing them over to another codec.
+ *
+ * <p>Decompression is done here instead of in the HTTP client, so both the number of bytes received over the network
+ * and the number of decompressed bytes are known. The content encoding is set by the web client interceptor once the
+ * response headers are received, see {@link #contentEncoding(String)}. Bodies without a supported content encoding
+ * are passed through unchanged.
+ *
+ * @param <T> type of the decoded body
+ */
+class ContentDecodingCodec<T> implements BodyCodec<T> {
+
+  static final String GZIP = "gzip";
+  static final String X_GZIP = "x-gzip";
+  static final String DEFLATE = "deflate";
+
+  private final BodyCodec<T> delegate;
+  private final RequestObservation observation;
+  private volatile String contentEncoding;
+
+  /**
+   * @param delegate codec that receives the decompressed body
+   * @param observation observation of the request, notified of every received chunk and of the body sizes once the
+   *                    whole body is received
+   */
+  ContentDecodingCodec(BodyCodec<T> delegate, RequestObservation observation) {
+    this.delegate = delegate;
+    this.observation = observation;
+  }
+
+  RequestObservation observation() {
+    return observation;
+  }
+
+  void contentEncoding(String contentEncoding) {
+    this.contentEncoding = contentEncoding;
+  }
+
+  @Override
+  public BodyStream<T> stream() throws Exception {
+    return new DecodingStream(delegate.stream(), contentEncoding);
+  }
+
+  private static EmbeddedChannel decoderFor(String contentEncoding) {
+    if (contentEncoding == null) {
+      return null;
+    }
+    var encoding = contentEncoding.trim();
+    if (GZIP.equalsIgnoreCase(encoding) || X_GZIP.equalsIgnoreCase(encoding)) {
+      return new EmbeddedChannel(ZlibCodecFactory.newZlibDecoder(ZlibWrapper.GZIP));
+    }
+    if (DEFLATE.equalsIgnoreCase(encoding)) {
+      return new EmbeddedChannel(ZlibCodecFactory.newZlibDecoder(ZlibWrapper.ZLIB_OR_NONE));
+    }
+    return null;
+  }
+
+  private final class DecodingStream implements BodyStream<T> {
+
+    private final BodyStream<T> target;
+    private final EmbeddedChannel decoder;
+    private final String encoding;
+    private long wireBytes;
+    private long bodyBytes;
+    private Throwable failure;
+
+    DecodingStream(BodyStream<T> target, String contentEncoding) {
+      this.target = target;
+      this.decoder = decoderFor(contentEncoding);
+      this.encoding = decoder == null ? null : contentEncoding.trim().toLowerCase();
+    }
+
+    @Override
+    public Future<T> result() {
+      return target.result();
+    }
+
+    @Override
+    public void handle(Throwable throwable) {
+      releaseDecoder();
+      target.handle(throwable);
+    }
+
+    @Override
+    public Future<Void> write(Buffer data) {
+      wireBytes += data.length();
+      observation.chunkReceived(data.length(), wireBytes);
+      if (decoder == null) {
+        bodyBytes += data.length();
+        return target.write(data);
+      }
+      if (failure != null) {
+        return Future.failedFuture(failure);
+      }
+      try {
+        decoder.writeInbound(Unpooled.wrappedBuffer(data.getBytes()));
+        return writeDecoded();
+      } catch (Exception e) {
+        return fail(e);
+      }
+    }
+
+    @Override
+    public Future<Void> end() {
+      if (decoder != null) {
+        if (failure != null) {
+          return Future.failedFuture(failure);
+        }
+        try {
+          decoder.finish();
+          writeDecoded();
+        } catch (Exception e) {
+          return fail(e);
+        } finally {
+          releaseDecoder();
+        }
+      }
+      observation.bodyReceived(encoding, wireBytes, bodyBytes);
+      return target.end();
+    }
+
+    @Override
+    public DecodingStream exceptionHandler(Handler<Throwable> handler) {
+      target.exceptionHandler(handler);
+      return this;
+    }
+
+    @Override
+    public DecodingStream setWriteQueueMaxSize(int maxSize) {
+      target.setWriteQueueMaxSize(maxSize);
+      return this;
+    }
+
+    @Override
+    public boolean writeQueueFull() {
+      return target.writeQueueFull();
+    }
+
+    @Override
+    public DecodingStream drainHandler(Handler<Void> handler) {
+      target.drainHandler(handler);
+      return this;
+    }
+
+    private Future<Void> writeDecoded() {
+      Future<Void> written = Future.succeededFuture();
+      ByteBuf chunk;
+      while ((chunk = decoder.readInbound()) != null) {
+        try {
+          bodyBytes += chunk.readableBytes();
+          written = target.write(Buffer.buffer(ByteBufUtil.getBytes(chunk)));
+        } finally {
+          chunk.release();
+        }
+      }
+      return written;
+    }
+
+    private Future<Void> fail(Exception e) {
+      failure = new IOException("Failed to decode " + encoding + " response body", e);
+      releaseDecoder();
+      target.handle(failure);
+      return Future.failedFuture(failure);
+    }
+
+    private void releaseDecoder() {
+      if (decoder != null) {
+        try {
+          decoder.finishAndReleaseAll();
+        } catch (Exception e) {
+          // remaining input of a failed or truncated body cannot be decoded, the body is failed already
+        }
+      }
+    }
+  }
+}
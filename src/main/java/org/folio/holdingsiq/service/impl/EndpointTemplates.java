@@ -0,0 +1,55 @@
+package org.folio.holdingsiq.service.impl;
+
+import java.net.URI;
+import java.util.StringJoiner;
+import java.util.regex.Pattern;
+
+/**
+ * Turns RM API request URLs into low cardinality endpoint names that can be used as metric tags.
+ *
+ * <p>The base URL, the customer id and the query string are dropped and every path segment that contains a digit
+ * (provider, package, title, transaction and report ids) is replaced with {@code {id}}, so
+ * {@code https://api.ebsco.io/rm/rmaccounts/cust/vendors/19/packages/2222?count=25} becomes
+ * {@code vendors/{id}/packages/{id}}.
+ */
+final class EndpointTemplates {
+
+  static final String ID_PLACEHOLDER = "{id}";
+  static final String ROOT_ENDPOINT = "/";
+
+  private static final Pattern CUSTOMER_PREFIX = Pattern.compile("^/rm/rmaccounts/(v2/)?[^/]+");
+  private static final Pattern ID_SEGMENT = Pattern.compile(".*\\d.*");
+
+  private EndpointTemplates() {
+  }
+
+  static String of(String url) {
+    String path;
+    try {
+      path = URI.create(url).getRawPath();
+    } catch (IllegalArgumentException e) {
+      return ROOT_ENDPOINT;
+    }
+    if (path == null) {
+      return ROOT_ENDPOINT;
+    }
+
+    var template = new StringJoiner("/");
+    var matcher = CUSTOMER_PREFIX.matcher(path);
+    if (matcher.find()) {
+      if (matcher.group(1) != null) {
+        template.add("v2");
+      }
+      path = path.substring(matcher.end());
+    }
+    for (String segment : path.split("/")) {
+      if (!segment.isEmpty()) {
+        template.add(ID_SEGMENT.matcher(segment).matches() ? ID_PLACEHOLDER : segment);
+      }
+    }
+    if (template.length() == 0) {
+      return ROOT_ENDPOINT;
+    }
+    return template.toString();
+  }
+}
@@ -0,0 +1,367 @@
+package org.folio.holdingsiq.service.impl;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import org.folio.holdingsiq.service.HoldingsIQClientOptions;
+
+/**
+ * Records RM API client metrics to the {@link MeterRegistry} configured in {@link HoldingsIQClientOptions}.
+ *
+ * <p>Meters are tagged with the endpoint template produced by {@link EndpointTemplates}, never with the raw URL.
+ * The templates are a small fixed set, so meters are registered once per name and tag values and looked up in a map
+ * afterwards instead of being built for every request.
+ */
+class HoldingsClientMetrics {
+
+  static final String REQUESTS = "holdingsiq.client.requests";
+  static final String CONNECT = "holdingsiq.client.request.connect";
+  static final String TIME_TO_FIRST_BYTE = "holdingsiq.client.request.ttfb";
+  static final String DOWNLOAD = "holdingsiq.client.request.download";
+  static final String DECODE = "holdingsiq.client.request.decode";
+  static final String ERRORS = "holdingsiq.client.errors";
+  static final String RESPONSE_WIRE_SIZE = "holdingsiq.client.response.wire.size";
+  static final String RESPONSE_BODY_SIZE = "holdingsiq.client.response.body.size";
+  static final String POOL_WAIT = "holdingsiq.client.pool.wait";
+  static final String POOL_IN_USE = "holdingsiq.client.pool.in.use";
+  static final String POOL_PENDING = "holdingsiq.client.pool.pending";
+  static final String CACHE_REQUESTS = "holdingsiq.client.cache.requests";
+  static final String RETRIES = "holdingsiq.client.retries";
+  static final String RETRIES_EXHAUSTED = "holdingsiq.client.retries.exhausted";
+  static final String RATE_LIMIT_WAIT = "holdingsiq.client.rate.limit.wait";
+  static final String RATE_LIMIT_REJECTED = "holdingsiq.client.rate.limit.rejected";
+  static final String CIRCUIT_TRANSITIONS = "holdingsiq.client.circuit.transitions";
+  static final String CIRCUIT_REJECTED = "holdingsiq.client.circuit.rejected";
+  static final String CIRCUIT_NOT_CLOSED = "holdingsiq.client.circuit.not.closed";
+  static final String HEDGES = "holdingsiq.client.hedges";
+  static final String HEDGES_SKIPPED = "holdingsiq.client.hedges.skipped";
+  static final String HEDGE_WINS = "holdingsiq.client.hedge.wins";
+
+  static final String ENDPOINT_TAG = "endpoint";
+  static final String METHOD_TAG = "method";
+  static final String STATUS_TAG = "status";
+  static final String EXCEPTION_TAG = "exception";
+  static final String ENCODING_TAG = "encoding";
+  static final String POOL_TAG = "pool";
+  static final String IDENTITY_ENCODING = "identity";
+  static final String NO_STATUS = "none";
+  static final String NO_EXCEPTION = "none";
+  static final String CACHE_TAG = "cache";
+  static final String RESULT_TAG = "result";
+  static final String HIT = "hit";
+  static final String MISS = "miss";
+  static final String REASON_TAG = "reason";
+  static final String FAMILY_TAG = "family";
+  static final String STATE_TAG = "state";
+  static final String WINNER_TAG = "winner";
+
+  private static final String BYTES = "bytes";
+  private static final String[] STATUS_CLASSES = {"0xx", "1xx", "2xx", "3xx", "4xx", "5xx"};
+
+  private final MeterRegistry registry;
+  private final Map<List<String>, Meter> meters = new ConcurrentHashMap<>();
+
+  HoldingsClientMetrics(MeterRegistry registry) {
+    this.registry = registry;
+  }
+
+  /**
+   * Records the whole duration of a request and counts failed requests by exception type.
+   *
+   * @param statusCode HTTP status code of the response, 0 if no response was received
+   * @param failure exception the request failed with, null if it succeeded
+   */
+  void recordRequest(String endpoint, String method, int statusCode, Throwable failure, long nanos) {
+    var exception = failure == null ? NO_EXCEPTION : unwrap(failure).getClass().getSimpleName();
+    Timer timer = meter(List.of(REQUESTS, endpoint, method, statusClass(statusCode), exception),
+      key -> Timer.builder(REQUESTS)
+        .description("Duration of RM API requests including connecting, downloading and decoding")
+        .tags(ENDPOINT_TAG, key.get(1), METHOD_TAG, key.get(2), STATUS_TAG, key.get(3), EXCEPTION_TAG, key.get(4))
+        .register(registry));
+    timer.record(nanos, TimeUnit.NANOSECONDS);
+    if (failure != null) {
+      Counter counter = meter(List.of(ERRORS, endpoint, method, exception),
+        key -> Counter.builder(ERRORS)
+          .description("Failed RM API requests")
+          .tags(ENDPOINT_TAG, key.get(1), METHOD_TAG, key.get(2), EXCEPTION_TAG, key.get(3))
+          .register(registry));
+      counter.increment();
+    }
+  }
+
+  /**
+   * Records the time to get a new connection, including DNS resolution and connecting.
+   */
+  void recordConnect(String endpoint, String method, long nanos) {
+    Timer timer = meter(List.of(CONNECT, endpoint, method),
+      key -> Timer.builder(CONNECT)
+        .description("Time RM API requests took to open a new connection")
+        .tags(ENDPOINT_TAG, key.get(1), METHOD_TAG, key.get(2))
+        .register(registry));
+    timer.record(nanos, TimeUnit.NANOSECONDS);
+  }
+
+  /**
+   * Records the time from sending a request until the response headers are received.
+   */
+  void recordTimeToFirstByte(String endpoint, String method, int statusCode, long nanos) {
+    Timer timer = meter(List.of(TIME_TO_FIRST_BYTE, endpoint, method, statusClass(statusCode)),
+      key -> Timer.builder(TIME_TO_FIRST_BYTE)
+        .description("Time from sending RM API requests until the response headers are received")
+        .tags(ENDPOINT_TAG, key.get(1), METHOD_TAG, key.get(2), STATUS_TAG, key.get(3))
+        .register(registry));
+    timer.record(nanos, TimeUnit.NANOSECONDS);
+  }
+
+  /**
+   * Records the time from receiving the response headers until the whole body is received.
+   */
+  void recordDownload(String endpoint, String method, int statusCode, long nanos) {
+    Timer timer = meter(List.of(DOWNLOAD, endpoint, method, statusClass(statusCode)),
+      key -> Timer.builder(DOWNLOAD)
+        .description("Time to receive RM API response bodies")
+        .tags(ENDPOINT_TAG, key.get(1), METHOD_TAG, key.get(2), STATUS_TAG, key.get(3))
+        .register(registry));
+    timer.record(nanos, TimeUnit.NANOSECONDS);
+  }
+
+  /**
+   * Records the time to decode a received response body, bodies decoded while they are received are not included.
+   */
+  void recordDecode(String endpoint, String method, long nanos) {
+    Timer timer = meter(List.of(DECODE, endpoint, method),
+      key -> Timer.builder(DECODE)
+        .description("Time to decode RM API response bodies")
+        .tags(ENDPOINT_TAG, key.get(1), METHOD_TAG, key.get(2))
+        .register(registry));
+    timer.record(nanos, TimeUnit.NANOSECONDS);
+  }
+
+  /**
+   * Records the size of a response body as it was received and after it was decompressed.
+   *
+   * @param encoding value of the Content-Encoding header, null if the body was not compressed
+   */
+  void recordResponseSize(String endpoint, String method, String encoding, long wireBytes, long bodyBytes) {
+    var contentEncoding = encoding == null ? IDENTITY_ENCODING : encoding;
+    DistributionSummary wireSize = meter(List.of(RESPONSE_WIRE_SIZE, endpoint, method, contentEncoding),
+      key -> DistributionSummary.builder(RESPONSE_WIRE_SIZE)
+        .description("Size of RM API response bodies as received over the network")
+        .baseUnit(BYTES)
+        .tags(responseSizeTags(key))
+        .register(registry));
+    wireSize.record(wireBytes);
+    DistributionSummary bodySize = meter(List.of(RESPONSE_BODY_SIZE, endpoint, method, contentEncoding),
+      key -> DistributionSummary.builder(RESPONSE_BODY_SIZE)
+        .description("Size of RM API response bodies after decompression")
+        .baseUnit(BYTES)
+        .tags(responseSizeTags(key))
+        .register(registry));
+    bodySize.record(bodyBytes);
+  }
+
+  /**
+   * Counts a lookup of a cached value, a miss is a lookup that had to call the RM API.
+   */
+  void recordCacheAccess(String cache, boolean hit) {
+    Counter counter = meter(List.of(CACHE_REQUESTS, cache, hit ? HIT : MISS),
+      key -> Counter.builder(CACHE_REQUESTS)
+        .description("Lookups of values cached by the RM API client")
+        .tags(CACHE_TAG, key.get(1), RESULT_TAG, key.get(2))
+        .register(registry));
+    counter.increment();
+  }
+
+  /**
+   * Counts a retry of a failed request.
+   *
+   * @param reason status code or exception type the retried attempt failed with
+   */
+  void recordRetry(String endpoint, String method, String reason) {
+    Counter counter = meter(List.of(RETRIES, endpoint, method, reason),
+      key -> Counter.builder(RETRIES)
+        .description("Retries of failed RM API requests")
+        .tags(ENDPOINT_TAG, key.get(1), METHOD_TAG, key.get(2), REASON_TAG, key.get(3))
+        .register(registry));
+    counter.increment();
+  }
+
+  /**
+   * Counts a retryable failure that was not retried.
+   *
+   * @param reason what prevented the retry: attempts, deadline or budget
+   */
+  void recordRetriesExhausted(String endpoint, String method, String reason) {
+    Counter counter = meter(List.of(RETRIES_EXHAUSTED, endpoint, method, reason),
+      key -> Counter.builder(RETRIES_EXHAUSTED)
+        .description("Failed RM API requests that could not be retried any more")
+        .tags(ENDPOINT_TAG, key.get(1), METHOD_TAG, key.get(2), REASON_TAG, key.get(3))
+        .register(registry));
+    counter.increment();
+  }
+
+  /**
+   * Records how long a request waited for its turn under the rate limit of the customer.
+   */
+  void recordRateLimitWait(String family, long nanos) {
+    Timer timer = meter(List.of(RATE_LIMIT_WAIT, family),
+      key -> Timer.builder(RATE_LIMIT_WAIT)
+        .description("Time RM API requests waited for the client-side rate limit")
+        .tags(FAMILY_TAG, key.get(1))
+        .register(registry));
+    timer.record(nanos, TimeUnit.NANOSECONDS);
+  }
+
+  void recordRateLimitRejected(String family) {
+    Counter counter = meter(List.of(RATE_LIMIT_REJECTED, family),
+      key -> Counter.builder(RATE_LIMIT_REJECTED)
+        .description("RM API requests failed because they would wait too long for the client-side rate limit")
+        .tags(FAMILY_TAG, key.get(1))
+        .register(registry));
+    counter.increment();
+  }
+
+  /**
+   * Counts a state change of a circuit breaker.
+   *
+   * @param state state the circuit breaker changed to
+   */
+  void recordCircuitTransition(String state) {
+    Counter counter = meter(List.of(CIRCUIT_TRANSITIONS, state),
+      key -> Counter.builder(CIRCUIT_TRANSITIONS)
+        .description("State changes of RM API circuit breakers")
+        .tags(STATE_TAG, key.get(1))
+        .register(registry));
+    counter.increment();
+  }
+
+  void recordCircuitRejected(String endpoint) {
+    Counter counter = meter(List.of(CIRCUIT_REJECTED, endpoint),
+      key -> Counter.builder(CIRCUIT_REJECTED)
+        .description("RM API requests failed fast because the circuit breaker of the customer was open")
+        .tags(ENDPOINT_TAG, key.get(1))
+        .register(registry));
+    counter.increment();
+  }
+
+  /**
+   * Registers a gauge of the circuit breakers that are open or half-open.
+   *
+   * @param notClosed counter of the circuit breakers, must be referenced by the owner as the gauge holds it weakly
+   */
+  Meter registerCircuitGauge(String pool, AtomicInteger notClosed) {
+    return Gauge.builder(CIRCUIT_NOT_CLOSED, notClosed, AtomicInteger::get)
+      .description("RM API circuit breakers that are open or half-open")
+      .tags(POOL_TAG, pool)
+      .register(registry);
+  }
+
+  void recordHedge(String endpoint) {
+    Counter counter = meter(List.of(HEDGES, endpoint),
+      key -> Counter.builder(HEDGES)
+        .description("Second attempts sent for slow RM API requests")
+        .tags(ENDPOINT_TAG, key.get(1))
+        .register(registry));
+    counter.increment();
+  }
+
+  void recordHedgeSkipped(String endpoint) {
+    Counter counter = meter(List.of(HEDGES_SKIPPED, endpoint),
+      key -> Counter.builder(HEDGES_SKIPPED)
+        .description("Second attempts of slow RM API requests not sent because the hedge budget was used up")
+        .tags(ENDPOINT_TAG, key.get(1))
+        .register(registry));
+    counter.increment();
+  }
+
+  /**
+   * Counts which attempt of a hedged request answered first, the win rate of hedges is the share of
+   * {@link #HEDGE_WINS} tagged {@code hedge} in {@link #HEDGES}.
+   *
+   * @param winner primary or hedge
+   */
+  void recordHedgeWin(String endpoint, String winner) {
+    Counter counter = meter(List.of(HEDGE_WINS, endpoint, winner),
+      key -> Counter.builder(HEDGE_WINS)
+        .description("Hedged RM API requests by the attempt that answered first")
+        .tags(ENDPOINT_TAG, key.get(1), WINNER_TAG, key.get(2))
+        .register(registry));
+    counter.increment();
+  }
+
+  /**
+   * Records how long a request waited for a pooled connection, including connecting a new one.
+   */
+  void recordPoolWait(long nanos) {
+    Timer timer = meter(List.of(POOL_WAIT),
+      key -> Timer.builder(POOL_WAIT)
+        .description("Time RM API requests waited for a connection from the pool")
+        .register(registry));
+    timer.record(nanos, TimeUnit.NANOSECONDS);
+  }
+
+  /**
+   * Registers gauges of the requests that use a connection of the pool and of the requests waiting for one.
+   *
+   * @param pool name of the connection pool
+   * @param inUse counter of requests using a connection, must be referenced by the pool as gauges hold it weakly
+   * @param pending counter of requests waiting for a connection, must be referenced by the pool as well
+   * @return registered gauges, to be removed with {@link #remove(List)} when the pool is closed
+   */
+  List<Meter> registerPoolGauges(String pool, AtomicInteger inUse, AtomicInteger pending) {
+    return List.of(
+      Gauge.builder(POOL_IN_USE, inUse, AtomicInteger::get)
+        .description("RM API requests using a connection of the pool")
+        .tags(POOL_TAG, pool)
+        .register(registry),
+      Gauge.builder(POOL_PENDING, pending, AtomicInteger::get)
+        .description("RM API requests waiting for a connection of the pool")
+        .tags(POOL_TAG, pool)
+        .register(registry));
+  }
+
+  void remove(List<Meter> meters) {
+    meters.forEach(registry::remove);
+  }
+
+  /**
+   * Returns the meter registered for the key, made of the meter name and its tag values, registering it on first use.
+   */
+  @SuppressWarnings("unchecked")
+  private <M extends Meter> M meter(List<String> key, Function<List<String>, M> registration) {
+    var meter = meters.get(key);
+    if (meter == null) {
+      meter = meters.computeIfAbsent(key, registration);
+    }
+    return (M) meter;
+  }
+
+  private static Tags responseSizeTags(List<String> key) {
+    return Tags.of(ENDPOINT_TAG, key.get(1), METHOD_TAG, key.get(2), ENCODING_TAG, key.get(3));
+  }
+
+  static String statusClass(int statusCode) {
+    if (statusCode <= 0) {
+      return NO_STATUS;
+    }
+    int statusClass = statusCode / 100;
+    return statusClass < STATUS_CLASSES.length ? STATUS_CLASSES[statusClass] : statusClass + "xx";
+  }
+
+  private static Throwable unwrap(Throwable throwable) {
+    return throwable instanceof CompletionException && throwable.getCause() != null
+           ? throwable.getCause()
+           : throwable;
+  }
+}
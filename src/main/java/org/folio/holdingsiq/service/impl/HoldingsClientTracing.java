@@ -0,0 +1,95 @@
+package org.folio.holdingsiq.service.impl;
+
+import static io.opentelemetry.api.common.AttributeKey.longKey;
+import static io.opentelemetry.api.common.AttributeKey.stringKey;
+
+import io.opentelemetry.api.OpenTelemetry;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.context.propagation.TextMapPropagator;
+import io.opentelemetry.context.propagation.TextMapSetter;
+import io.vertx.ext.web.client.HttpRequest;
+import java.util.concurrent.CompletionException;
+import org.folio.holdingsiq.service.HoldingsIQClientOptions;
+
+/**
+ * Creates OpenTelemetry spans for the RM API and eHoldings requests with the {@link OpenTelemetry} instance
+ * configured in {@link HoldingsIQClientOptions}.
+ *
+ * <p>Request spans are children of the span current when the request is created, the trace context is propagated to
+ * the server with the request headers of the configured propagator, W3C {@code traceparent} by default.
+ */
+class HoldingsClientTracing {
+
+  static final String INSTRUMENTATION_SCOPE = "org.folio.holdingsiq";
+  static final String DECODE_SPAN = "decode";
+  static final String INTERCEPTORS_SPAN = "interceptors";
+
+  static final AttributeKey<String> HTTP_REQUEST_METHOD = stringKey("http.request.method");
+  static final AttributeKey<String> URL_TEMPLATE = stringKey("url.template");
+  static final AttributeKey<Long> HTTP_RESPONSE_STATUS_CODE = longKey("http.response.status_code");
+  static final AttributeKey<Long> HTTP_RESPONSE_BODY_SIZE = longKey("http.response.body.size");
+  static final AttributeKey<String> ERROR_TYPE = stringKey("error.type");
+
+  private static final TextMapSetter<HttpRequest<?>> HEADER_SETTER =
+    (request, name, value) -> {
+      if (request != null) {
+        request.putHeader(name, value);
+      }
+    };
+
+  private final Tracer tracer;
+  private final TextMapPropagator propagator;
+
+  HoldingsClientTracing(OpenTelemetry openTelemetry) {
+    this.tracer = openTelemetry.getTracer(INSTRUMENTATION_SCOPE);
+    this.propagator = openTelemetry.getPropagators().getTextMapPropagator();
+  }
+
+  /**
+   * Starts a client span named after the method and the endpoint template, as a child of the current span.
+   */
+  Span startRequestSpan(String endpoint, String method) {
+    return tracer.spanBuilder(method + " " + endpoint)
+      .setSpanKind(SpanKind.CLIENT)
+      .setAttribute(HTTP_REQUEST_METHOD, method)
+      .setAttribute(URL_TEMPLATE, endpoint)
+      .startSpan();
+  }
+
+  Span startChildSpan(Span parent, String name) {
+    return tracer.spanBuilder(name)
+      .setParent(Context.current().with(parent))
+      .startSpan();
+  }
+
+  /**
+   * Adds the trace context headers of the span to the request.
+   */
+  void inject(Span span, HttpRequest<?> request) {
+    propagator.inject(Context.current().with(span), request, HEADER_SETTER);
+  }
+
+  static void responseReceived(Span span, int statusCode) {
+    span.setAttribute(HTTP_RESPONSE_STATUS_CODE, (long) statusCode);
+  }
+
+  /**
+   * Ends the span, marking it as failed if there is a failure.
+   *
+   * @param failure exception the traced operation failed with, null if it succeeded
+   */
+  static void end(Span span, Throwable failure) {
+    if (failure != null) {
+      var cause = failure instanceof CompletionException && failure.getCause() != null ? failure.getCause() : failure;
+      span.setStatus(StatusCode.ERROR, cause.getMessage());
+      span.setAttribute(ERROR_TYPE, cause.getClass().getName());
+      span.recordException(cause);
+    }
+    span.end();
+  }
+}
@@ -1,23 +1,58 @@
 package org.folio.holdingsiq.service.impl;
 
-import static org.folio.holdingsiq.service.impl.HoldingsRequestHelper.successBodyLogger;
-
+import java.time.Duration;
 import java.util.concurrent.CompletableFuture;
 
 import io.vertx.core.Vertx;
 
+import org.folio.cache.CacheSettings;
+import org.folio.cache.VertxCache;
 import org.folio.holdingsiq.model.Configuration;
 import org.folio.holdingsiq.model.Proxies;
 import org.folio.holdingsiq.model.RootProxyCustomLabels;
+import org.folio.holdingsiq.service.HoldingsIQClientOptions;
 import org.folio.holdingsiq.service.HoldingsIQService;
+import org.folio.holdingsiq.service.RequestOptions;
 
+/**
+ * With {@link HoldingsIQClientOptions#getRootProxyCacheTtl()} proxies and root proxy custom labels, which also carry
+ * the vendor id of the customer, are cached per customer and shared by all services of the Vert.x instance.
+ */
 public class HoldingsIQServiceImpl implements HoldingsIQService {
 
+  static final String ROOT_PROXY_CACHE = "rootProxyCustomLabels";
+  static final String PROXIES_CACHE = "proxies";
+
+  private static final String CACHE_MAP_KEY_PREFIX = "holdingsiq.";
+  private static final long CACHED_CUSTOMERS_MAXIMUM = 1000;
+
   private final HoldingsRequestHelper holdingsRequestHelper;
+  private final VertxCache<String, RootProxyCustomLabels> rootProxyCache;
+  private final VertxCache<String, Proxies> proxiesCache;
 
   public HoldingsIQServiceImpl(Configuration config, Vertx vertx) {
-    holdingsRequestHelper = new HoldingsRequestHelper(config, vertx);
-    holdingsRequestHelper.addBodyListener(successBodyLogger());
+    this(config, vertx, HoldingsIQClientOptions.defaults());
+  }
+
+  public HoldingsIQServiceImpl(Configuration config, Vertx vertx, HoldingsIQClientOptions options) {
+    holdingsRequestHelper = new HoldingsRequestHelper(config, vertx, options);
+
+    rootProxyCache = createCache(vertx, ROOT_PROXY_CACHE, options.getRootProxyCacheTtl());
+    proxiesCache = createCache(vertx, PROXIES_CACHE, options.getRootProxyCacheTtl());
+  }
+
+  private HoldingsIQServiceImpl(HoldingsRequestHelper holdingsRequestHelper,
+                                VertxCache<String, RootProxyCustomLabels> rootProxyCache,
+                                VertxCache<String, Proxies> proxiesCache) {
+    this.holdingsRequestHelper = holdingsRequestHelper;
+    this.rootProxyCache = rootProxyCache;
+    this.proxiesCache = proxiesCache;
+  }
+
+  @Override
+  public HoldingsIQService withRequestOptions(RequestOptions requestOptions) {
+    return new HoldingsIQServiceImpl(holdingsRequestHelper.withRequestOptions(requestOptions), rootProxyCache,
+      proxiesCache);
   }
 
   @Override
@@ -27,19 +62,52 @@ public class HoldingsIQServiceImpl implements HoldingsIQService {
 
   @Override
   public CompletableFuture<Proxies> retrieveProxies() {
-    return holdingsRequestHelper.getRequest(holdingsRequestHelper.constructURL("proxies"), Proxies.class);
+    if (proxiesCache == null) {
+      return loadProxies();
+    }
+    return holdingsRequestHelper.getCachedValue(proxiesCache, PROXIES_CACHE, this::loadProxies);
   }
 
   public CompletableFuture<RootProxyCustomLabels> retrieveRootProxyCustomLabels() {
-    return holdingsRequestHelper.getRequest(holdingsRequestHelper.constructURL(""), RootProxyCustomLabels.class);
+    if (rootProxyCache == null) {
+      return loadRootProxyCustomLabels();
+    }
+    return holdingsRequestHelper.getCachedValue(rootProxyCache, ROOT_PROXY_CACHE, this::loadRootProxyCustomLabels);
   }
 
   @Override
   public CompletableFuture<RootProxyCustomLabels> updateRootProxyCustomLabels(RootProxyCustomLabels rootProxyCustomLabels) {
+    return holdingsRequestHelper.thenCall(putRootProxyCustomLabels(rootProxyCustomLabels),
+      updatedRootProxy -> this.retrieveRootProxyCustomLabels());
+  }
+
+  @Override
+  public CompletableFuture<Void> putRootProxyCustomLabels(RootProxyCustomLabels rootProxyCustomLabels) {
     final String path = "";
 
-    return holdingsRequestHelper.putRequest(holdingsRequestHelper.constructURL(path), rootProxyCustomLabels)
-      .thenCompose(updatedRootProxy -> this.retrieveRootProxyCustomLabels());
+    var put = holdingsRequestHelper.putRequest(holdingsRequestHelper.constructURL(path), rootProxyCustomLabels);
+    return holdingsRequestHelper.whenComplete(put, (o, throwable) -> {
+      if (rootProxyCache != null) {
+        holdingsRequestHelper.invalidateCachedValue(rootProxyCache);
+      }
+    });
   }
 
+  private CompletableFuture<Proxies> loadProxies() {
+    return holdingsRequestHelper.getRequest(holdingsRequestHelper.constructURL("proxies"), Proxies.class);
+  }
+
+  private CompletableFuture<RootProxyCustomLabels> loadRootProxyCustomLabels() {
+    return holdingsRequestHelper.getRequest(holdingsRequestHelper.constructURL(""), RootProxyCustomLabels.class);
+  }
+
+  private static <V> VertxCache<String, V> createCache(Vertx vertx, String name, Duration ttl) {
+    if (!ttl.isPositive()) {
+      return null;
+    }
+    return new VertxCache<>(vertx, CACHE_MAP_KEY_PREFIX + name, CacheSettings.builder()
+      .expirationTime(ttl)
+      .maximumSize(CACHED_CUSTOMERS_MAXIMUM)
+      .build());
+  }
 }
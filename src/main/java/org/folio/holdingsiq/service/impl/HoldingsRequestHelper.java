@@ -6,16 +6,25 @@ import static io.vertx.core.http.HttpResponseExpectation.SC_NO_CONTENT;
 import static io.vertx.core.http.HttpResponseExpectation.SC_OK;
 import static java.lang.String.format;
 
+import io.micrometer.core.instrument.Meter;
 import io.netty.handler.codec.http.HttpHeaderValues;
+import io.vertx.core.Closeable;
+import io.vertx.core.Completable;
 import io.vertx.core.Expectation;
+import io.vertx.core.Future;
 import io.vertx.core.Handler;
 import io.vertx.core.Vertx;
 import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpConnection;
 import io.vertx.core.http.HttpHeaders;
+import io.vertx.core.http.HttpMethod;
 import io.vertx.core.http.HttpResponseHead;
+import io.vertx.core.http.HttpVersion;
 import io.vertx.core.http.PoolOptions;
+import io.vertx.core.internal.VertxInternal;
 import io.vertx.core.json.DecodeException;
 import io.vertx.core.json.Json;
+import io.vertx.core.streams.ReadStream;
 import io.vertx.ext.web.client.HttpRequest;
 import io.vertx.ext.web.client.HttpResponse;
 import io.vertx.ext.web.client.WebClient;
@@ -24,15 +33,50 @@ import io.vertx.ext.web.client.impl.ClientPhase;
 import io.vertx.ext.web.client.impl.HttpContext;
 import io.vertx.ext.web.client.impl.HttpRequestImpl;
 import io.vertx.ext.web.client.impl.WebClientInternal;
+import io.vertx.ext.web.codec.BodyCodec;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HexFormat;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.extern.log4j.Log4j2;
+import org.folio.cache.VertxCache;
 import org.folio.holdingsiq.model.Configuration;
+import org.folio.holdingsiq.service.BatchOptions;
+import org.folio.holdingsiq.service.BatchReport;
+import org.folio.holdingsiq.service.BatchResult;
+import org.folio.holdingsiq.service.HoldingsIQClientOptions;
+import org.folio.holdingsiq.service.HoldingsInteractionContext;
+import org.folio.holdingsiq.service.HoldingsInterceptor;
+import org.folio.holdingsiq.service.HoldingsResponseCache;
+import org.folio.holdingsiq.service.RequestOptions;
+import org.folio.holdingsiq.service.impl.RequestRetrier.Attempt;
+import org.folio.holdingsiq.service.exception.CircuitBreakerOpenException;
 import org.folio.holdingsiq.service.exception.ResourceNotFoundException;
 import org.folio.holdingsiq.service.exception.ResultsProcessingException;
 import org.folio.holdingsiq.service.exception.ServiceResponseException;
@@ -53,78 +97,294 @@ class HoldingsRequestHelper {
   private static final String PROVIDER_LOWER_STRING = "provider";
   private static final String VENDOR_UPPER_STRING = "Vendor";
   private static final String PROVIDER_UPPER_STRING = "Provider";
+  private static final String ACCEPTED_ENCODINGS = "gzip, deflate";
   private static final int HTTP_OK = 200;
   private static final int HTTP_CREATED = 201;
   private static final int HTTP_ACCEPTED = 202;
   private static final int HTTP_NO_CONTENT = 204;
+  private static final int HTTP_NOT_MODIFIED = 304;
   private static final int HTTP_UNAUTHORIZED = 401;
   private static final int HTTP_FORBIDDEN = 403;
   private static final int HTTP_NOT_FOUND = 404;
 
+  private static final HoldingsInterceptor SUCCESS_LOGGER = new HoldingsInterceptor() {
+    @Override
+    public void afterDecode(HoldingsInteractionContext ctx, Object body) {
+      int statusCode = ctx.statusCode();
+      if (isSuccessStatusCode(statusCode)) {
+        log.debug("[OK] RMAPI Service response: query = [{}], statusCode = [{}]", ctx.uri(), statusCode);
+      }
+    }
+  };
+
   private final String customerId;
   private final String apiKey;
   private final String baseURI;
 
   private final Vertx vertx;
-  private final List<HoldingsResponseBodyListener> bodyListeners;
+  private final HoldingsIQClientOptions options;
+  private final HoldingsClientTracing tracing;
+  private final List<HoldingsInterceptor> interceptors;
+  private final RequestOptions requestOptions;
+  private volatile String cachedValueKey;
+  private volatile WebClientHolder clientHolder;
 
   HoldingsRequestHelper(Configuration config, Vertx vertx) {
+    this(config, vertx, HoldingsIQClientOptions.defaults());
+  }
+
+  HoldingsRequestHelper(Configuration config, Vertx vertx, HoldingsIQClientOptions options) {
     this.customerId = config.getCustomerId();
     this.apiKey = config.getApiKey();
     this.baseURI = config.getUrl();
     this.vertx = vertx;
-    this.bodyListeners = new ArrayList<>();
+    this.options = options;
+    this.tracing = new HoldingsClientTracing(options.getOpenTelemetry());
+    this.interceptors = new ArrayList<>();
+    this.interceptors.add(SUCCESS_LOGGER);
+    this.interceptors.addAll(options.getInterceptors());
+    this.requestOptions = RequestOptions.NONE;
+    this.clientHolder = WebClientHolder.getHolder(vertx, options, poolPartition());
+  }
+
+  private HoldingsRequestHelper(HoldingsRequestHelper helper, RequestOptions requestOptions) {
+    this.customerId = helper.customerId;
+    this.apiKey = helper.apiKey;
+    this.baseURI = helper.baseURI;
+    this.vertx = helper.vertx;
+    this.options = helper.options;
+    this.tracing = helper.tracing;
+    this.interceptors = helper.interceptors;
+    this.requestOptions = requestOptions;
+    this.cachedValueKey = helper.cachedValueKey;
+    this.clientHolder = helper.clientHolder;
+  }
+
+  /**
+   * @return helper sending the same requests as this one with the given request options
+   */
+  HoldingsRequestHelper withRequestOptions(RequestOptions requestOptions) {
+    return new HoldingsRequestHelper(this, requestOptions);
   }
 
   <T> CompletableFuture<T> getRequest(String query, Class<T> clazz) {
-    var request = createGetRequest(query);
-    CompletableFuture<T> result = new CompletableFuture<>();
+    var endpoint = EndpointTemplates.of(query);
+    return retry(endpoint, HttpMethod.GET, true, () -> hedge(endpoint, () -> getAttempt(query, endpoint, clazz)));
+  }
 
-    request.send()
-      .onComplete((res, failure) ->
-        handleResponse(res, failure, request, query, result, SC_OK, clazz));
+  /**
+   * Sends GET request and decodes elements of the given top level array field while the body is being received.
+   * Elements are handed over to the consumer one by one, the whole body is never buffered.
+   *
+   * @return number of elements handed over to the consumer
+   */
+  <T> CompletableFuture<Integer> getRequest(String query, String arrayField, Class<T> itemType,
+                                            Consumer<? super T> consumer) {
+    var endpoint = EndpointTemplates.of(query);
+    return retry(endpoint, HttpMethod.GET, true, () -> {
+      var observation = observe(endpoint, HttpMethod.GET);
+      var request = createGetRequest(query, new JsonArrayItemsCodec<>(arrayField, itemType, consumer), observation);
+      CompletableFuture<Integer> result = new CompletableFuture<>();
 
-    return result;
+      send(endpoint, observation, request::send)
+        .onComplete((res, failure) -> handleStreamedResponse(res, failure, query, result, observation));
+
+      return new Attempt<>(observation.observe(result), observation, false);
+    });
   }
 
   <T> CompletableFuture<Void> putRequest(String query, T putData) {
-    var request = createPutRequest(query);
-    CompletableFuture<Void> result = new CompletableFuture<>();
+    var endpoint = EndpointTemplates.of(query);
+    return retry(endpoint, HttpMethod.PUT, options.getRetryPolicy().isRetryPut(),
+      () -> putAttempt(query, endpoint, putData));
+  }
 
-    request.sendJson(putData)
-      .onComplete((res, failure) ->
-        handleResponse(res, failure, request, query, result, SC_NO_CONTENT, null));
+  <T, P> CompletableFuture<T> postRequest(String query, P postData, Class<T> clazz) {
+    var endpoint = EndpointTemplates.of(query);
+    return retry(endpoint, HttpMethod.POST, false, () -> {
+      var observation = observe(endpoint, HttpMethod.POST);
+      var request = createPostRequest(query, observation);
+      CompletableFuture<T> result = new CompletableFuture<>();
 
-    return result;
+      send(endpoint, observation, () -> request.sendJson(postData))
+        .onComplete((res, failure) ->
+          handleResponse(res, failure, query, result, SC_OK.or(SC_ACCEPTED), clazz, observation));
+
+      return Attempt.of(observation, result);
+    });
   }
 
-  <T, P> CompletableFuture<T> postRequest(String query, P postData, Class<T> clazz) {
-    var request = createPostRequest(query);
-    CompletableFuture<T> result = new CompletableFuture<>();
+  <T> CompletableFuture<T> postRequest(String query, Class<T> clazz) {
+    var endpoint = EndpointTemplates.of(query);
+    return retry(endpoint, HttpMethod.POST, false, () -> {
+      var observation = observe(endpoint, HttpMethod.POST);
+      var request = createPostRequest(query, observation);
+      CompletableFuture<T> result = new CompletableFuture<>();
 
-    request.sendJson(postData)
-      .onComplete((res, failure) ->
-        handleResponse(res, failure, request, query, result, SC_OK.or(SC_ACCEPTED), clazz));
+      send(endpoint, observation, request::send)
+        .onComplete((res, failure) ->
+          handleResponse(res, failure, query, result, SC_ACCEPTED.or(SC_CONFLICT), clazz, observation));
+
+      return Attempt.of(observation, result);
+    });
+  }
 
+  /**
+   * Calls {@code next} with the result of {@code first} like {@link CompletableFuture#thenCompose}, but cancelling
+   * the returned future also cancels the call in flight, so chained calls can be abandoned as a whole.
+   */
+  <T, U> CompletableFuture<U> thenCall(CompletableFuture<T> first,
+                                       Function<? super T, CompletableFuture<U>> next) {
+    CompletableFuture<U> result = new CompletableFuture<>();
+    var inFlight = new AtomicReference<CompletableFuture<?>>(first);
+    result.whenComplete((value, throwable) -> {
+      if (result.isCancelled()) {
+        inFlight.get().cancel(false);
+      }
+    });
+    first.whenComplete((value, throwable) -> {
+      if (throwable != null) {
+        result.completeExceptionally(wrap(throwable));
+        return;
+      }
+      CompletableFuture<U> second;
+      try {
+        second = next.apply(value);
+      } catch (RuntimeException e) {
+        result.completeExceptionally(wrap(e));
+        return;
+      }
+      inFlight.set(second);
+      second.whenComplete((nextValue, nextThrowable) -> {
+        if (nextThrowable != null) {
+          result.completeExceptionally(wrap(nextThrowable));
+        } else {
+          result.complete(nextValue);
+        }
+      });
+      if (result.isCancelled()) {
+        second.cancel(false);
+      }
+    });
     return result;
   }
 
-  <T> CompletableFuture<T> postRequest(String query, Class<T> clazz) {
-    var request = createPostRequest(query);
+  /**
+   * Maps the result of {@code first} like {@link CompletableFuture#thenApply}, but cancelling the returned future also
+   * cancels {@code first}.
+   */
+  <T, U> CompletableFuture<U> thenMap(CompletableFuture<T> first, Function<? super T, ? extends U> mapper) {
+    return thenCall(first, value -> CompletableFuture.completedFuture(mapper.apply(value)));
+  }
+
+  /**
+   * Runs {@code action} when {@code first} completes like {@link CompletableFuture#whenComplete}, but cancelling the
+   * returned future also cancels {@code first}. The returned future completes after the action ran.
+   */
+  <T> CompletableFuture<T> whenComplete(CompletableFuture<T> first,
+                                        BiConsumer<? super T, ? super Throwable> action) {
     CompletableFuture<T> result = new CompletableFuture<>();
+    result.whenComplete((value, throwable) -> {
+      if (result.isCancelled()) {
+        first.cancel(false);
+      }
+    });
+    first.whenComplete((value, throwable) -> {
+      try {
+        action.accept(value, throwable);
+      } catch (RuntimeException e) {
+        if (throwable == null) {
+          result.completeExceptionally(wrap(e));
+          return;
+        }
+      }
+      if (throwable != null) {
+        result.completeExceptionally(wrap(throwable));
+      } else {
+        result.complete(value);
+      }
+    });
+    return result;
+  }
 
-    request.send()
-      .onComplete((res, failure) ->
-        handleResponse(res, failure, request, query, result, SC_ACCEPTED.or(SC_CONFLICT), clazz));
+  /**
+   * Retrieves the records of all keys with at most {@link BatchOptions#getConcurrency()} requests in flight, capped by
+   * the connection pool size.
+   *
+   * @param loader starts the request of a key
+   * @param onResult receives every record as soon as it is retrieved, never called concurrently
+   */
+  <K, V> CompletableFuture<BatchResult<K, V>> batch(Collection<K> keys, BatchOptions batchOptions,
+                                                    Function<K, CompletableFuture<V>> loader,
+                                                    BiConsumer<K, V> onResult) {
+    int concurrency = Math.min(batchOptions.getConcurrency(), options.getHttp1MaxPoolSize());
+    return new BatchFetcher<>(concurrency, loader, onResult).fetch(keys);
+  }
 
-    return result;
+  /**
+   * Runs the operations with at most {@link BatchOptions#getConcurrency()} of them in flight, capped by the connection
+   * pool size. Operations of the same key run one after another; the stream is consumed lazily and closed once the
+   * batch completes.
+   *
+   * @param keyOf key of the record an operation changes
+   * @param executor starts an operation
+   * @param onResult receives every operation that succeeded and its result, never called concurrently
+   */
+  <T> CompletableFuture<BatchReport<T>> pipeline(Stream<T> operations, BatchOptions batchOptions,
+                                                 Function<T, Object> keyOf,
+                                                 Function<T, CompletableFuture<?>> executor,
+                                                 BiConsumer<T, Object> onResult) {
+    int concurrency = Math.min(batchOptions.getConcurrency(), options.getHttp1MaxPoolSize());
+    var report = new BatchPipeline<>(concurrency, keyOf, executor, onResult).run(operations.iterator());
+    report.whenComplete((value, throwable) -> operations.close());
+    return report;
   }
 
-  HoldingsRequestHelper addBodyListener(HoldingsResponseBodyListener listener) {
-    if (listener != null) {
-      bodyListeners.add(listener);
+  /**
+   * Removes cached GET responses of the URL and of all URLs below it.
+   */
+  void invalidateCachedResponses(String url) {
+    var responseCache = options.getResponseCache();
+    if (responseCache != null) {
+      responseCache.invalidate(customerId, url);
     }
-    return this;
+  }
+
+  /**
+   * Returns the value cached for the RM API base URL, customer id and API key of this helper, the loader is only
+   * called when the value is not cached. Whether the RM API had to be called is recorded with the given cache name.
+   *
+   * <p>The cache is backed by a Vert.x local map and shared by all services of the JVM using the same Vert.x
+   * instance, not only by this helper. Keying on the API key keeps values loaded with old credentials from being
+   * served after the credentials of the customer change.
+   */
+  <T> CompletableFuture<T> getCachedValue(VertxCache<String, T> cache, String cacheName,
+                                          Supplier<CompletableFuture<T>> loader) {
+    var loaded = new AtomicBoolean();
+    CompletableFuture<T> value = cache.getValueOrLoad(cachedValueKey(), () -> {
+      loaded.set(true);
+      return loader.get();
+    });
+    getClientHolder().getMetrics().recordCacheAccess(cacheName, !loaded.get());
+    return value;
+  }
+
+  void invalidateCachedValue(VertxCache<String, ?> cache) {
+    cache.invalidate(cachedValueKey());
+  }
+
+  <T> ReadStream<T> pagedStream(IntFunction<CompletableFuture<PagedReadStream.Page<T>>> pageLoader,
+                                int prefetchPages) {
+    return new PagedReadStream<>(vertx.getOrCreateContext(), pageLoader, prefetchPages);
+  }
+
+  /**
+   * Paged stream that requests the first page alone and the remaining pages, as many as the first page tells there
+   * are, up to {@code prefetchPages} at once.
+   */
+  <T> ReadStream<T> plannedPagedStream(IntFunction<CompletableFuture<PagedReadStream.Page<T>>> pageLoader,
+                                       int prefetchPages) {
+    return new PagedReadStream<>(vertx.getOrCreateContext(), pageLoader, prefetchPages, true);
   }
 
   String constructURL(String path) {
@@ -139,28 +399,158 @@ class HoldingsRequestHelper {
     return format("%s/rm/rmaccounts/v2/%s/%s?%s", baseURI, customerId, path, queryParams);
   }
 
-  static HoldingsResponseBodyListener successBodyLogger() {
-    return (body, ctx) -> {
-      int statusCode = ctx.statusCode();
-      if (isSuccessStatusCode(statusCode)) {
-        log.debug("[OK] RMAPI Service response: query = [{}], statusCode = [{}]", ctx.uri(), statusCode);
+  /**
+   * Sends the request once the rate limit of the customer allows it, unless the observation was cancelled meanwhile.
+   */
+  private <T> Future<HttpResponse<T>> send(String endpoint, RequestObservation observation,
+                                           Supplier<Future<HttpResponse<T>>> sender) {
+    var holder = getClientHolder();
+    var permit = holder.getCircuitBreakers().tryAcquire(baseURI, customerId, endpoint);
+    if (permit == null) {
+      return Future.failedFuture(new CircuitBreakerOpenException(
+        format("RMAPI circuit breaker is open, request is not sent: url = [%s], customerId = [%s]",
+          baseURI, customerId)));
+    }
+
+    var turn = holder.getRateLimiter().acquire(customerKey(), endpoint);
+    if (turn.isDone() && !turn.isCompletedExceptionally()) {
+      return permit.send(sender, observation::isCancelled);
+    }
+    return Future.fromCompletionStage(turn).transform(ar -> {
+      if (ar.failed() || observation.isCancelled()) {
+        permit.release();
+        return Future.failedFuture(ar.failed()
+                                   ? ar.cause()
+                                   : new CancellationException("RMAPI request cancelled before it was sent"));
       }
-    };
+      return permit.send(sender, observation::isCancelled);
+    });
+  }
+
+  private <T> CompletableFuture<T> retry(String endpoint, HttpMethod method, boolean retryable,
+                                         Supplier<Attempt<T>> attempts) {
+    return getClientHolder().getRetrier().execute(endpoint, method.name(), requestOptions, retryable, attempts);
+  }
+
+  private <T> Attempt<T> hedge(String endpoint, Supplier<Attempt<T>> attempts) {
+    return getClientHolder().getHedger().execute(endpoint, attempts);
+  }
+
+  private <T> Attempt<T> getAttempt(String query, String endpoint, Class<T> clazz) {
+    var responseCache = options.getResponseCache();
+    if (responseCache != null && responseCache.isCacheable(endpoint)) {
+      return getCachedRequest(responseCache, query, endpoint, clazz);
+    }
+
+    var observation = observe(endpoint, HttpMethod.GET);
+    var request = createGetRequest(query, observation);
+    CompletableFuture<T> result = new CompletableFuture<>();
+
+    send(endpoint, observation, request::send)
+      .onComplete((res, failure) ->
+        handleResponse(res, failure, query, result, SC_OK, clazz, observation));
+
+    return Attempt.of(observation, result);
   }
 
-  private HttpRequest<Buffer> createGetRequest(String query) {
-    var client = WebClientHolder.getClient(vertx);
-    return addHeaders(client.getAbs(query));
+  private <T> Attempt<Void> putAttempt(String query, String endpoint, T putData) {
+    var observation = observe(endpoint, HttpMethod.PUT);
+    var request = createPutRequest(query, observation);
+    CompletableFuture<Void> result = new CompletableFuture<>();
+
+    send(endpoint, observation, () -> request.sendJson(putData))
+      .onComplete((res, failure) -> {
+        invalidateCachedResponses(query);
+        handleResponse(res, failure, query, result, SC_NO_CONTENT, null, observation);
+      });
+
+    return Attempt.of(observation, result);
+  }
+
+  private RequestObservation observe(String endpoint, HttpMethod method) {
+    return new RequestObservation(getClientHolder().getMetrics(), tracing, interceptors, endpoint, method.name());
+  }
+
+  private HttpRequest<Buffer> createGetRequest(String query, RequestObservation observation) {
+    return createGetRequest(query, BodyCodec.buffer(), observation);
+  }
+
+  private <T> HttpRequest<T> createGetRequest(String query, BodyCodec<T> codec, RequestObservation observation) {
+    return prepareRequest(getClient().getAbs(query), codec, observation);
+  }
+
+  private HttpRequest<Buffer> createPutRequest(String query, RequestObservation observation) {
+    return prepareRequest(getClient().putAbs(query), BodyCodec.buffer(), observation);
+  }
+
+  private HttpRequest<Buffer> createPostRequest(String query, RequestObservation observation) {
+    return prepareRequest(getClient().postAbs(query), BodyCodec.buffer(), observation);
+  }
+
+  private <T> HttpRequest<T> prepareRequest(HttpRequest<Buffer> request, BodyCodec<T> codec,
+                                            RequestObservation observation) {
+    addHeaders(request);
+    if (options.isCompression()) {
+      request.putHeader(HttpHeaders.ACCEPT_ENCODING.toString(), ACCEPTED_ENCODINGS);
+    }
+    var typedRequest = request.as(new ContentDecodingCodec<>(codec, observation));
+    observation.beforeSend(typedRequest);
+    return typedRequest;
+  }
+
+  private WebClient getClient() {
+    return getClientHolder().getWebClient();
   }
 
-  private HttpRequest<Buffer> createPutRequest(String query) {
-    var client = WebClientHolder.getClient(vertx);
-    return addHeaders(client.putAbs(query));
+  /**
+   * Returns the pool resolved by the constructor, or a new one when it was closed for being idle.
+   */
+  private WebClientHolder getClientHolder() {
+    var holder = clientHolder;
+    if (!holder.touch(System.nanoTime())) {
+      holder = WebClientHolder.getHolder(vertx, options, poolPartition());
+      clientHolder = holder;
+    }
+    return holder;
+  }
+
+  private String poolPartition() {
+    return options.isPoolPerCustomer() ? customerKey() : null;
   }
 
-  private HttpRequest<Buffer> createPostRequest(String query) {
-    var client = WebClientHolder.getClient(vertx);
-    return addHeaders(client.postAbs(query));
+  private String customerKey() {
+    return baseURI + "|" + customerId;
+  }
+
+  /**
+   * Key of the values cached for this helper, computed on first use so helpers of services without caches never
+   * digest the API key.
+   */
+  private String cachedValueKey() {
+    var key = cachedValueKey;
+    if (key == null) {
+      key = customerKey() + "|" + digest(apiKey);
+      cachedValueKey = key;
+    }
+    return key;
+  }
+
+  /**
+   * Digest of the API key, so the key itself is never kept in a cache.
+   */
+  private static String digest(String apiKey) {
+    try {
+      var digest = MessageDigest.getInstance("SHA-256").digest(String.valueOf(apiKey).getBytes(StandardCharsets.UTF_8));
+      return HexFormat.of().formatHex(digest);
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is not available", e);
+    }
+  }
+
+  private static CompletionException wrap(Throwable throwable) {
+    return throwable instanceof CompletionException completionException
+           ? completionException
+           : new CompletionException(throwable);
   }
 
   private static boolean isSuccessStatusCode(int statusCode) {
@@ -169,17 +559,16 @@ class HoldingsRequestHelper {
   }
 
   private <T> void handleResponse(HttpResponse<Buffer> response, Throwable failure,
-                                  HttpRequest<?> request, String query, CompletableFuture<T> result,
-                                  Expectation<HttpResponseHead> expectation, Class<T> clazz) {
+                                  String query, CompletableFuture<T> result,
+                                  Expectation<HttpResponseHead> expectation, Class<T> clazz,
+                                  RequestObservation observation) {
     if (failure != null || response == null || !expectation.test(response)) {
       handleErrorResponse(response, failure, query, result);
       return;
     }
 
     try {
-      var body = response.body();
-      fireBodyReceived(body, new HoldingsInteractionContext(request, response));
-      T decodedBody = decodeResponseBody(body, clazz);
+      T decodedBody = observation.decode(() -> decodeResponseBody(response.body(), clazz));
       result.complete(decodedBody);
     } catch (Exception e) {
       log.error("Error processing response body for query = [{}]: {}", query, e.getMessage());
@@ -187,6 +576,75 @@ class HoldingsRequestHelper {
     }
   }
 
+  private <T> Attempt<T> getCachedRequest(HoldingsResponseCache responseCache, String query, String endpoint,
+                                          Class<T> clazz) {
+    CompletableFuture<T> result = new CompletableFuture<>();
+    var cacheKey = HoldingsResponseCache.key(customerId, query);
+    var cached = responseCache.get(cacheKey);
+    if (cached != null && cached.isFresh()) {
+      completeFromCache(cached, query, result, clazz);
+      return new Attempt<>(result, null, true);
+    }
+
+    var generation = responseCache.generation();
+    var observation = observe(endpoint, HttpMethod.GET);
+    var request = createGetRequest(query, observation);
+    if (cached != null) {
+      if (cached.etag() != null) {
+        request.putHeader(HttpHeaders.IF_NONE_MATCH.toString(), cached.etag());
+      }
+      if (cached.lastModified() != null) {
+        request.putHeader(HttpHeaders.IF_MODIFIED_SINCE.toString(), cached.lastModified());
+      }
+    }
+
+    send(endpoint, observation, request::send)
+      .onComplete((res, failure) -> {
+        if (failure == null && cached != null && res.statusCode() == HTTP_NOT_MODIFIED) {
+          responseCache.revalidated(cacheKey, endpoint, cached, generation);
+          completeFromCache(cached, query, result, clazz);
+          return;
+        }
+        if (failure == null && SC_OK.test(res)) {
+          responseCache.store(cacheKey, endpoint, res, generation);
+        }
+        handleResponse(res, failure, query, result, SC_OK, clazz, observation);
+      });
+
+    return Attempt.of(observation, result);
+  }
+
+  private <T> void completeFromCache(HoldingsResponseCache.CachedResponse cached, String query,
+                                     CompletableFuture<T> result, Class<T> clazz) {
+    log.debug("RMAPI Service response served from cache: query = [{}]", query);
+    try {
+      result.complete(decodeResponseBody(cached.body(), clazz));
+    } catch (Exception e) {
+      result.completeExceptionally(e);
+    }
+  }
+
+  private void handleStreamedResponse(HttpResponse<JsonArrayItemsCodec.Result> response, Throwable failure,
+                                      String query, CompletableFuture<Integer> result,
+                                      RequestObservation observation) {
+    if (failure != null || response == null) {
+      handleErrorResponse(null, failure, query, result);
+      return;
+    }
+
+    var decoded = response.body();
+    if (!SC_OK.test(response)) {
+      var body = decoded == null ? "" : decoded.rawPrefix().toString();
+      handleHttpFailure(response, body, query, result);
+    } else if (decoded.failure() != null) {
+      log.error("{} - Query = [{}] Cause: [{}]", JSON_RESPONSE_ERROR, query, decoded.failure().getMessage());
+      result.completeExceptionally(new ResultsProcessingException(JSON_RESPONSE_ERROR, decoded.failure()));
+    } else {
+      observation.decodedWhileReceived(decoded.count());
+      result.complete(decoded.count());
+    }
+  }
+
   private <T> T decodeResponseBody(Buffer body, Class<T> clazz) {
     if (body == null) {
       return null;
@@ -208,15 +666,14 @@ class HoldingsRequestHelper {
   private <T> void handleErrorResponse(HttpResponse<Buffer> res, Throwable failure,
                                        String query, CompletableFuture<T> result) {
     if (res != null) {
-      handleHttpFailure(res, query, result);
+      handleHttpFailure(res, res.body() == null ? "" : res.body().toString(), query, result);
     } else {
       log.error("Request failed for query = [{}]: {}", query, failure.getMessage());
       result.completeExceptionally(failure);
     }
   }
 
-  private <T> void handleHttpFailure(HttpResponse<Buffer> res, String query, CompletableFuture<T> result) {
-    var body = res.body() == null ? "" : res.body().toString();
+  private <T> void handleHttpFailure(HttpResponse<?> res, String body, String query, CompletableFuture<T> result) {
     var statusCode = res.statusCode();
     var statusMessage = res.statusMessage();
 
@@ -244,46 +701,229 @@ class HoldingsRequestHelper {
       .replace(VENDOR_UPPER_STRING, PROVIDER_UPPER_STRING);
   }
 
-  private <T> void fireBodyReceived(T body, HoldingsInteractionContext context) {
-    for (HoldingsResponseBodyListener listener : bodyListeners) {
-      listener.bodyReceived(body, context);
-    }
-  }
-
   private HttpRequest<Buffer> addHeaders(HttpRequest<Buffer> request) {
+    if (options.getReadTimeout().isPositive()) {
+      request.idleTimeout(options.getReadTimeout().toMillis());
+    }
+    if (requestOptions.hasDeadline()) {
+      long remaining = Math.max(1, requestOptions.remainingMillis());
+      request.connectTimeout(Math.min(remaining, options.getConnectTimeout().toMillis()));
+      request.idleTimeout(request.idleTimeout() > 0 ? Math.min(remaining, request.idleTimeout()) : remaining);
+    }
     return request
       .putHeader(HttpHeaders.ACCEPT.toString(), HttpHeaderValues.APPLICATION_JSON.toString())
       .putHeader(HttpHeaders.CONTENT_TYPE.toString(), HttpHeaderValues.APPLICATION_JSON.toString())
       .putHeader(RMAPI_API_KEY_HEADER, apiKey);
   }
 
-  private static class WebClientHolder {
+  /**
+   * Connection pool with the policies bound to it. Pools are closed, and their gauges removed, once they served no
+   * request for {@link HoldingsIQClientOptions#getPoolIdleTimeout()}, when there are more customer pools than
+   * {@link HoldingsIQClientOptions#getMaxCustomerPools()}, or when their Vert.x instance is closed.
+   */
+  private static class WebClientHolder implements Closeable {
 
-    private static final Map<Vertx, WebClientHolder> webClients = new ConcurrentHashMap<>();
-    private static final int HTTP1_MAX_CONNECTIONS = 20;
-    private static final int HTTP2_MAX_CONNECTIONS = 3;
+    private static final Map<ClientKey, WebClientHolder> webClients = new ConcurrentHashMap<>();
+
+    private static final long CLOSED = Long.MIN_VALUE;
+    /** Requests within this time of each other do not update the last use, so they do not contend on it. */
+    private static final long MAX_TOUCH_GRANULARITY = TimeUnit.SECONDS.toNanos(1);
+
+    private static final String POOL_WAIT_START = "holdingsiq.poolWaitStart";
+    private static final String CONNECTION_IN_USE = "holdingsiq.connectionInUse";
+    private static final String SHARED_POOL = "shared";
+    /** Numbers the pools, so pools of different Vert.x or options instances never share a gauge. */
+    private static final AtomicLong POOL_IDS = new AtomicLong();
 
     @Getter(AccessLevel.PACKAGE)
     private final WebClient webClient;
+    @Getter(AccessLevel.PACKAGE)
+    private final RequestRetrier retrier;
+    @Getter(AccessLevel.PACKAGE)
+    private final RequestHedger hedger;
+    @Getter(AccessLevel.PACKAGE)
+    private final RateLimiter rateLimiter;
+    @Getter(AccessLevel.PACKAGE)
+    private final CircuitBreakers circuitBreakers;
+    @Getter(AccessLevel.PACKAGE)
+    private final HoldingsClientMetrics metrics;
+    private final ClientKey key;
+    private final String poolName;
+    private final long idleTimeout;
+    private final long touchGranularity;
+    private final List<Meter> poolGauges;
+    private final AtomicLong lastUsed = new AtomicLong(System.nanoTime());
+    private final AtomicInteger inUse = new AtomicInteger();
+    private final AtomicInteger pending = new AtomicInteger();
+    private final Set<HttpConnection> connections = Collections.synchronizedSet(
+      Collections.newSetFromMap(new WeakHashMap<>()));
 
-    WebClientHolder(WebClient wc) {
+    WebClientHolder(ClientKey key, String poolName, WebClient wc, RequestRetrier retrier, RequestHedger hedger,
+                    RateLimiter rateLimiter, CircuitBreakers circuitBreakers, HoldingsClientMetrics metrics) {
+      this.key = key;
+      this.poolName = poolName;
+      this.idleTimeout = key.options().getPoolIdleTimeout().toNanos();
+      this.touchGranularity = Math.min(MAX_TOUCH_GRANULARITY, idleTimeout / 4);
       this.webClient = wc;
+      this.retrier = retrier;
+      this.hedger = hedger;
+      this.rateLimiter = rateLimiter;
+      this.circuitBreakers = circuitBreakers;
+      this.metrics = metrics;
+      this.poolGauges = metrics.registerPoolGauges(poolName, inUse, pending);
       ((WebClientInternal) webClient).addInterceptor(createLoggingInterceptor());
+      ((WebClientInternal) webClient).addInterceptor(createPoolInterceptor());
+      ((WebClientInternal) webClient).addInterceptor(createResponseInterceptor());
+    }
+
+    static WebClientHolder getHolder(Vertx vertx, HoldingsIQClientOptions options, String partition) {
+      var clientKey = new ClientKey(vertx, options, partition);
+      while (true) {
+        var created = new AtomicBoolean();
+        var holder = webClients.computeIfAbsent(clientKey, key -> {
+          created.set(true);
+          return createHolder(key);
+        });
+        if (created.get()) {
+          ((VertxInternal) vertx).addCloseHook(holder);
+          holder.scheduleIdleCheck(holder.idleTimeout);
+          if (partition != null) {
+            evictCustomerPools(clientKey, options.getMaxCustomerPools());
+          }
+        }
+        if (holder.touch(System.nanoTime())) {
+          return holder;
+        }
+        webClients.remove(clientKey, holder);
+      }
     }
 
-    static WebClient getClient(Vertx vertx) {
-      return webClients.computeIfAbsent(vertx, vtx ->
-        new WebClientHolder(createWebClient(vtx))
-      ).getWebClient();
+    private static WebClientHolder createHolder(ClientKey key) {
+      var vertx = key.vertx();
+      var options = key.options();
+      var metrics = new HoldingsClientMetrics(options.getMeterRegistry());
+      var retrier = new RequestRetrier(vertx, options.getRetryPolicy(), metrics);
+      var hedger = new RequestHedger(vertx, options.getHedgePolicy(), metrics);
+      var rateLimiter = new RateLimiter(vertx, options, metrics);
+      var poolName = poolName(key.partition());
+      var circuitBreakers = new CircuitBreakers(options, metrics, poolName);
+      return new WebClientHolder(key, poolName, createWebClient(key, poolName), retrier, hedger, rateLimiter,
+        circuitBreakers, metrics);
     }
 
-    private static WebClient createWebClient(Vertx vtx) {
+    /**
+     * Closes the customer pools used least recently, once there are more of them than allowed. Pools serving
+     * requests are kept, they are closed later on, by the idle timeout.
+     */
+    private static void evictCustomerPools(ClientKey added, int maxPools) {
+      var pools = webClients.values().stream()
+        .filter(holder -> holder.key.sameOptions(added) && holder.key.partition() != null)
+        .toList();
+      int excess = pools.size() - maxPools;
+      if (excess <= 0) {
+        return;
+      }
+      long now = System.nanoTime();
+      var candidates = pools.stream()
+        .filter(holder -> !holder.key.equals(added))
+        .sorted(Comparator.comparingLong(holder -> holder.lastUsed.get()))
+        .iterator();
+      while (excess > 0 && candidates.hasNext()) {
+        var holder = candidates.next();
+        if (holder.closeIfIdle(now, 2 * holder.touchGranularity)) {
+          excess--;
+        }
+      }
+    }
+
+    /**
+     * Marks the pool as used.
+     *
+     * @return false if the pool is closed and must not be used any more
+     */
+    boolean touch(long now) {
+      long last = lastUsed.get();
+      if (last != CLOSED && now - last > touchGranularity) {
+        lastUsed.compareAndSet(last, now);
+      }
+      return lastUsed.get() != CLOSED;
+    }
+
+    private void scheduleIdleCheck(long delay) {
+      key.vertx().setTimer(Math.max(1, TimeUnit.NANOSECONDS.toMillis(delay)), id -> {
+        long now = System.nanoTime();
+        if (!closeIfIdle(now, idleTimeout)) {
+          long last = lastUsed.get();
+          if (last != CLOSED) {
+            scheduleIdleCheck(Math.max(touchGranularity, last + idleTimeout - now));
+          }
+        }
+      });
+    }
+
+    /**
+     * Closes the pool if it has no request in flight and was not used for the given time.
+     *
+     * @return true if the pool was closed by this call
+     */
+    private boolean closeIfIdle(long now, long minIdle) {
+      long last = lastUsed.get();
+      if (last == CLOSED || now - last <= minIdle || inUse.get() > 0 || pending.get() > 0
+          || !lastUsed.compareAndSet(last, CLOSED)) {
+        return false;
+      }
+      ((VertxInternal) key.vertx()).removeCloseHook(this);
+      release();
+      webClient.close();
+      log.info("Web client instance closed after being idle, pool = [{}]", poolName);
+      return true;
+    }
+
+    /**
+     * Releases the pool when its Vert.x instance is closed, the web client is closed by Vert.x itself.
+     */
+    @Override
+    public void close(Completable<Void> completion) {
+      lastUsed.set(CLOSED);
+      release();
+      completion.succeed();
+    }
+
+    private void release() {
+      webClients.remove(key, this);
+      metrics.remove(poolGauges);
+      circuitBreakers.close();
+    }
+
+    /**
+     * @return name of a new pool, tagging its gauges: the partition, or shared, followed by a unique number
+     */
+    private static String poolName(String partition) {
+      return (partition == null ? SHARED_POOL : partition) + "-" + POOL_IDS.incrementAndGet();
+    }
+
+    private static WebClient createWebClient(ClientKey key, String poolName) {
+      var options = key.options();
       PoolOptions poolOptions = new PoolOptions()
-        .setHttp1MaxSize(HTTP1_MAX_CONNECTIONS)
-        .setHttp2MaxSize(HTTP2_MAX_CONNECTIONS);
+        .setHttp1MaxSize(options.getHttp1MaxPoolSize())
+        .setHttp2MaxSize(options.getHttp2MaxPoolSize())
+        .setMaxWaitQueueSize(options.getMaxWaitQueueSize());
+
+      WebClientOptions webClientOptions = new WebClientOptions()
+        .setKeepAlive(options.isKeepAlive())
+        .setKeepAliveTimeout((int) options.getKeepAliveTimeout().toSeconds())
+        .setPipelining(options.isPipelining())
+        .setConnectTimeout((int) options.getConnectTimeout().toMillis())
+        .setIdleTimeout((int) options.getIdleTimeout().toMillis())
+        .setIdleTimeoutUnit(TimeUnit.MILLISECONDS);
+      if (options.isHttp2()) {
+        webClientOptions
+          .setProtocolVersion(HttpVersion.HTTP_2)
+          .setUseAlpn(true);
+      }
 
-      var webClient = WebClient.create(vtx, new WebClientOptions(), poolOptions);
-      log.info("Web client instance created to serve requests to HoldingsIQ");
+      var webClient = WebClient.create(key.vertx(), webClientOptions, poolOptions);
+      log.info("Web client instance created to serve requests to HoldingsIQ, pool = [{}]", poolName);
 
       return webClient;
     }
@@ -297,6 +937,74 @@ class HoldingsRequestHelper {
       };
     }
 
+    /**
+     * Tracks the requests waiting for a pooled connection and the requests using one. The wait is measured from
+     * asking the pool for a connection until the request can be sent on it, which includes DNS resolution and
+     * connecting when the pool opens a new connection.
+     */
+    private Handler<HttpContext<?>> createPoolInterceptor() {
+      return httpContext -> {
+        switch (httpContext.phase()) {
+          case CREATE_REQUEST -> {
+            releaseConnection(httpContext);
+            pending.incrementAndGet();
+            httpContext.set(POOL_WAIT_START, System.nanoTime());
+          }
+          case SEND_REQUEST -> {
+            if (httpContext.get(POOL_WAIT_START) instanceof Long start) {
+              long wait = System.nanoTime() - start;
+              httpContext.set(POOL_WAIT_START, null);
+              pending.decrementAndGet();
+              inUse.incrementAndGet();
+              httpContext.set(CONNECTION_IN_USE, Boolean.TRUE);
+              metrics.recordPoolWait(wait);
+              boolean newConnection = connections.add(httpContext.clientRequest().connection());
+              var observation = observation(httpContext);
+              if (observation != null) {
+                observation.connectionAcquired(httpContext.clientRequest(), wait, newConnection);
+              }
+            }
+          }
+          case DISPATCH_RESPONSE, FAILURE -> releaseConnection(httpContext);
+          default -> {
+            // other phases do not change the use of the pool
+          }
+        }
+        httpContext.next();
+      };
+    }
+
+    private void releaseConnection(HttpContext<?> httpContext) {
+      if (httpContext.get(POOL_WAIT_START) != null) {
+        httpContext.set(POOL_WAIT_START, null);
+        pending.decrementAndGet();
+      }
+      if (httpContext.get(CONNECTION_IN_USE) != null) {
+        httpContext.set(CONNECTION_IN_USE, null);
+        inUse.decrementAndGet();
+      }
+    }
+
+    private Handler<HttpContext<?>> createResponseInterceptor() {
+      return httpContext -> {
+        if (ClientPhase.RECEIVE_RESPONSE == httpContext.phase()
+            && httpContext.request() instanceof HttpRequestImpl<?> request
+            && request.bodyCodec() instanceof ContentDecodingCodec<?> codec) {
+          var response = httpContext.clientResponse();
+          codec.contentEncoding(response.getHeader(HttpHeaders.CONTENT_ENCODING));
+          codec.observation().responseHeadReceived(response);
+        }
+        httpContext.next();
+      };
+    }
+
+    private static RequestObservation observation(HttpContext<?> httpContext) {
+      return httpContext.request() instanceof HttpRequestImpl<?> request
+             && request.bodyCodec() instanceof ContentDecodingCodec<?> codec
+             ? codec.observation()
+             : null;
+    }
+
     private void logRequest(HttpContext<?> httpContext) {
       HttpRequestImpl<?> request = (HttpRequestImpl<?>) httpContext.request();
       String uri = request.uri();
@@ -307,5 +1015,26 @@ class HoldingsRequestHelper {
         log.debug("RMAPI Service body is: {}", requestBody);
       }
     }
+
+    /**
+     * Identifies a pool by the Vert.x and the options instances, so the options are never compared field by field.
+     */
+    private record ClientKey(Vertx vertx, HoldingsIQClientOptions options, String partition) {
+
+      boolean sameOptions(ClientKey other) {
+        return vertx == other.vertx && options == other.options;
+      }
+
+      @Override
+      public boolean equals(Object o) {
+        return o instanceof ClientKey other && sameOptions(other) && Objects.equals(partition, other.partition);
+      }
+
+      @Override
+      public int hashCode() {
+        return 31 * (31 * System.identityHashCode(vertx) + System.identityHashCode(options))
+          + Objects.hashCode(partition);
+      }
+    }
   }
 }
@@ -0,0 +1,54 @@
+package org.folio.holdingsiq.service.impl;
+
+import io.vertx.core.http.HttpResponseHead;
+import io.vertx.ext.web.client.HttpRequest;
+import lombok.Getter;
+import org.folio.holdingsiq.service.HoldingsInteractionContext;
+
+/**
+ * {@link HoldingsInteractionContext} updated by {@link RequestObservation} as the request progresses.
+ */
+@Getter
+class InteractionContext implements HoldingsInteractionContext {
+
+  private final String endpoint;
+  private final String method;
+  private final long startTime;
+  private volatile HttpRequest<?> request;
+  private volatile HttpResponseHead response;
+  private volatile long responseHeadTime;
+  private volatile long bodyEndTime;
+  private volatile long endTime;
+  private volatile long wireBytes;
+  private volatile long bodyBytes;
+  private volatile String contentEncoding;
+
+  InteractionContext(String endpoint, String method) {
+    this.endpoint = endpoint;
+    this.method = method;
+    this.startTime = System.nanoTime();
+  }
+
+  void request(HttpRequest<?> request) {
+    this.request = request;
+  }
+
+  void responseHead(HttpResponseHead response) {
+    this.response = response;
+    this.responseHeadTime = System.nanoTime();
+  }
+
+  void wireBytes(long wireBytes) {
+    this.wireBytes = wireBytes;
+  }
+
+  void bodyEnded(String contentEncoding, long bodyBytes) {
+    this.contentEncoding = contentEncoding;
+    this.bodyBytes = bodyBytes;
+    this.bodyEndTime = System.nanoTime();
+  }
+
+  void ended() {
+    this.endTime = System.nanoTime();
+  }
+}
@@ -0,0 +1,207 @@
+package org.folio.holdingsiq.service.impl;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteArrayFeeder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Promise;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.jackson.DatabindCodec;
+import io.vertx.ext.web.codec.BodyCodec;
+import io.vertx.ext.web.codec.spi.BodyStream;
+import java.io.IOException;
+import java.util.function.Consumer;
+
+/**
+ * Body codec that decodes the objects of a single top level JSON array field while the response body is
+ * being received.
+ *
+ * <p>Body chunks are fed into Jackson's non-blocking parser as they arrive, every array element is handed over
+ * to the consumer as soon as its closing brace is parsed, so neither the whole body nor the whole list of
+ * elements is kept in memory. Only the first {@value #RAW_PREFIX_LIMIT} bytes of the body are retained to
+ * describe error responses.
+ *
+ * @param <T> type of the array elements
+ */
+class JsonArrayItemsCodec<T> implements BodyCodec<JsonArrayItemsCodec.Result> {
+
+  static final int RAW_PREFIX_LIMIT = 8 * 1024;
+
+  private final String arrayField;
+  private final Class<T> itemType;
+  private final Consumer<? super T> consumer;
+
+  /**
+   * @param arrayField name of the top level field that holds the array
+   * @param itemType type the array elements are decoded to
+   * @param consumer receives the decoded elements in the order they appear in the body
+   */
+  JsonArrayItemsCodec(String arrayField, Class<T> itemType, Consumer<? super T> consumer) {
+    this.arrayField = arrayField;
+    this.itemType = itemType;
+    this.consumer = consumer;
+  }
+
+  @Override
+  public BodyStream<Result> stream() throws IOException {
+    return new DecodingStream(DatabindCodec.mapper());
+  }
+
+  /**
+   * Outcome of the decoding.
+   *
+   * @param count number of elements handed over to the consumer
+   * @param rawPrefix first bytes of the body, used to describe error responses
+   * @param failure parsing or consumer failure, null if the body was decoded successfully
+   */
+  record Result(int count, Buffer rawPrefix, Exception failure) { }
+
+  private final class DecodingStream implements BodyStream<Result> {
+
+    private final Promise<Result> promise = Promise.promise();
+    private final ObjectMapper mapper;
+    private final JsonParser parser;
+    private final ByteArrayFeeder feeder;
+    private final Buffer rawPrefix = Buffer.buffer();
+
+    private int depth;
+    private boolean insideArray;
+    private TokenBuffer item;
+    private int itemDepth;
+    private int count;
+    private Exception failure;
+
+    DecodingStream(ObjectMapper mapper) throws IOException {
+      this.mapper = mapper;
+      this.parser = mapper.getFactory().createNonBlockingByteArrayParser();
+      this.feeder = (ByteArrayFeeder) parser.getNonBlockingInputFeeder();
+    }
+
+    @Override
+    public Future<Result> result() {
+      return promise.future();
+    }
+
+    @Override
+    public void handle(Throwable throwable) {
+      promise.tryFail(throwable);
+    }
+
+    @Override
+    public Future<Void> write(Buffer data) {
+      retainPrefix(data);
+      if (failure == null) {
+        byte[] bytes = data.getBytes();
+        try {
+          feeder.feedInput(bytes, 0, bytes.length);
+          readAvailableTokens();
+        } catch (Exception e) {
+          failure = e;
+        }
+      }
+      return Future.succeededFuture();
+    }
+
+    @Override
+    public Future<Void> end() {
+      if (failure == null) {
+        try {
+          feeder.endOfInput();
+          readAvailableTokens();
+        } catch (Exception e) {
+          failure = e;
+        }
+      }
+      closeParser();
+      promise.tryComplete(new Result(count, rawPrefix, failure));
+      return Future.succeededFuture();
+    }
+
+    @Override
+    public DecodingStream exceptionHandler(Handler<Throwable> handler) {
+      return this;
+    }
+
+    @Override
+    public DecodingStream setWriteQueueMaxSize(int maxSize) {
+      return this;
+    }
+
+    @Override
+    public boolean writeQueueFull() {
+      return false;
+    }
+
+    @Override
+    public DecodingStream drainHandler(Handler<Void> handler) {
+      return this;
+    }
+
+    private void retainPrefix(Buffer data) {
+      int remaining = RAW_PREFIX_LIMIT - rawPrefix.length();
+      if (remaining > 0) {
+        rawPrefix.appendBuffer(data, 0, Math.min(remaining, data.length()));
+      }
+    }
+
+    private void readAvailableTokens() throws IOException {
+      JsonToken token;
+      while ((token = parser.nextToken()) != null && token != JsonToken.NOT_AVAILABLE) {
+        if (item != null) {
+          appendToItem(token);
+        } else {
+          handleEnvelopeToken(token);
+        }
+      }
+    }
+
+    private void handleEnvelopeToken(JsonToken token) throws IOException {
+      if (token == JsonToken.START_OBJECT && insideArray && depth == 2) {
+        item = new TokenBuffer(parser);
+        itemDepth = 0;
+        appendToItem(token);
+      } else if (token.isStructStart()) {
+        depth++;
+        if (token == JsonToken.START_ARRAY && depth == 2 && arrayField.equals(parser.currentName())) {
+          insideArray = true;
+        }
+      } else if (token.isStructEnd()) {
+        if (token == JsonToken.END_ARRAY && depth == 2) {
+          insideArray = false;
+        }
+        depth--;
+      }
+    }
+
+    private void appendToItem(JsonToken token) throws IOException {
+      item.copyCurrentEvent(parser);
+      if (token.isStructStart()) {
+        itemDepth++;
+      } else if (token.isStructEnd()) {
+        itemDepth--;
+      }
+      if (itemDepth == 0) {
+        T value;
+        try (JsonParser itemParser = item.asParser(mapper)) {
+          value = mapper.readValue(itemParser, itemType);
+        }
+        item = null;
+        count++;
+        consumer.accept(value);
+      }
+    }
+
+    private void closeParser() {
+      try {
+        parser.close();
+      } catch (IOException e) {
+        if (failure == null) {
+          failure = e;
+        }
+      }
+    }
+  }
+}
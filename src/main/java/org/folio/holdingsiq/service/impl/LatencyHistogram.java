@@ -0,0 +1,67 @@
+package org.folio.holdingsiq.service.impl;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Approximate distribution of the recent latencies of an endpoint. Latencies are counted in buckets growing by a
+ * quarter power of two from one millisecond, so a percentile is off by less than 19%; once the counts add up to twice
+ * the window they are halved and older requests fade out.
+ */
+class LatencyHistogram {
+
+  private static final int SUB_BUCKETS = 4;
+  private static final int BUCKETS = 24 * SUB_BUCKETS;
+  private static final long NANOS_PER_MILLI = TimeUnit.MILLISECONDS.toNanos(1);
+
+  private final long[] counts = new long[BUCKETS];
+  private final int window;
+  private long total;
+
+  LatencyHistogram(int window) {
+    this.window = window;
+  }
+
+  synchronized void record(long nanos) {
+    counts[bucket(nanos)]++;
+    if (++total >= 2L * window) {
+      total = 0;
+      for (int i = 0; i < BUCKETS; i++) {
+        counts[i] /= 2;
+        total += counts[i];
+      }
+    }
+  }
+
+  synchronized long count() {
+    return total;
+  }
+
+  /**
+   * @param percentile between 0 and 1
+   * @return upper bound of the bucket holding the percentile, 0 if nothing was recorded
+   */
+  synchronized long percentile(double percentile) {
+    long rank = (long) Math.ceil(percentile * total);
+    long seen = 0;
+    for (int i = 0; i < BUCKETS; i++) {
+      seen += counts[i];
+      if (seen >= rank && seen > 0) {
+        return upperBound(i);
+      }
+    }
+    return 0;
+  }
+
+  private static int bucket(long nanos) {
+    double millis = (double) nanos / NANOS_PER_MILLI;
+    if (millis <= 1) {
+      return 0;
+    }
+    int bucket = (int) Math.ceil(Math.log(millis) / Math.log(2) * SUB_BUCKETS);
+    return Math.min(bucket, BUCKETS - 1);
+  }
+
+  private static long upperBound(int bucket) {
+    return (long) (Math.pow(2, (double) bucket / SUB_BUCKETS) * NANOS_PER_MILLI);
+  }
+}
@@ -1,36 +1,50 @@
 package org.folio.holdingsiq.service.impl;
 
 import io.vertx.core.Vertx;
+import io.vertx.core.streams.ReadStream;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 import org.folio.holdingsiq.model.Configuration;
 import org.folio.holdingsiq.model.DeltaReport;
 import org.folio.holdingsiq.model.DeltaReportParams;
 import org.folio.holdingsiq.model.DeltaReportStatus;
+import org.folio.holdingsiq.model.Holding;
+import org.folio.holdingsiq.model.HoldingInReport;
 import org.folio.holdingsiq.model.Holdings;
 import org.folio.holdingsiq.model.HoldingsLoadStatus;
 import org.folio.holdingsiq.model.HoldingsLoadTransactionStatus;
 import org.folio.holdingsiq.model.HoldingsTransactionIdsList;
 import org.folio.holdingsiq.model.TransactionId;
+import org.folio.holdingsiq.service.HoldingsIQClientOptions;
 import org.folio.holdingsiq.service.LoadService;
+import org.folio.holdingsiq.service.impl.PagedReadStream.Page;
 
 public class LoadServiceImpl implements LoadService {
 
+  private static final String HOLDINGS_FIELD = "holdings";
+
   private final HoldingsRequestHelper holdingsRequestHelper;
 
   public LoadServiceImpl(Configuration config, Vertx vertx) {
-    this.holdingsRequestHelper = new HoldingsRequestHelper(config, vertx);
+    this(config, vertx, HoldingsIQClientOptions.defaults());
+  }
+
+  public LoadServiceImpl(Configuration config, Vertx vertx, HoldingsIQClientOptions options) {
+    this.holdingsRequestHelper = new HoldingsRequestHelper(config, vertx, options);
   }
 
   @Override
   public CompletableFuture<Void> populateHoldings() {
-    return holdingsRequestHelper.postRequest(holdingsRequestHelper.constructURL("holdings"), String.class)
-      .thenAccept(response -> { });
+    var populated = holdingsRequestHelper.postRequest(holdingsRequestHelper.constructURL("holdings"), String.class);
+    return holdingsRequestHelper.thenMap(populated, response -> null);
   }
 
   @Override
   public CompletableFuture<Void> populateHoldingsForce() {
-    return holdingsRequestHelper.postRequest(holdingsRequestHelper.constructURL("holdings?force=true"), String.class)
-      .thenAccept(response -> { });
+    var populated = holdingsRequestHelper.postRequest(holdingsRequestHelper.constructURL("holdings?force=true"), String.class);
+    return holdingsRequestHelper.thenMap(populated, response -> null);
   }
 
   @Override
@@ -63,6 +77,13 @@ public class LoadServiceImpl implements LoadService {
     return holdingsRequestHelper.getRequest(holdingsRequestHelper.constructURL(path), Holdings.class);
   }
 
+  @Override
+  public CompletableFuture<Integer> loadHoldings(int count, int offset, Consumer<Holding> consumer) {
+    String path = "holdings?format=kbart2&count=%d&offset=%d".formatted(count, offset);
+    return holdingsRequestHelper.getRequest(holdingsRequestHelper.constructURL(path), HOLDINGS_FIELD, Holding.class,
+      consumer);
+  }
+
   @Override
   public CompletableFuture<Holdings> loadHoldingsTransaction(String transactionId, int count, int offset) {
     String path = "reports/holdings/transactions/%s?format=kbart2&count=%d&offset=%d"
@@ -70,12 +91,47 @@ public class LoadServiceImpl implements LoadService {
     return holdingsRequestHelper.getRequest(holdingsRequestHelper.constructURL(path), Holdings.class);
   }
 
+  @Override
+  public CompletableFuture<Integer> loadHoldingsTransaction(String transactionId, int count, int offset,
+                                                            Consumer<Holding> consumer) {
+    String path = "reports/holdings/transactions/%s?format=kbart2&count=%d&offset=%d"
+      .formatted(transactionId, count, offset);
+    return holdingsRequestHelper.getRequest(holdingsRequestHelper.constructURL(path), HOLDINGS_FIELD, Holding.class,
+      consumer);
+  }
+
+  @Override
+  public ReadStream<Holding> streamHoldings(int count, int prefetchPages) {
+    return holdingsRequestHelper.pagedStream(page -> {
+      List<Holding> holdings = new ArrayList<>(count);
+      return holdingsRequestHelper.thenMap(loadHoldings(count, page, holdings::add),
+        loaded -> Page.of(holdings, count));
+    }, prefetchPages);
+  }
+
+  @Override
+  public ReadStream<Holding> streamHoldingsTransaction(String transactionId, int count, int prefetchPages) {
+    return holdingsRequestHelper.pagedStream(page -> {
+      List<Holding> holdings = new ArrayList<>(count);
+      return holdingsRequestHelper.thenMap(loadHoldingsTransaction(transactionId, count, page, holdings::add),
+        loaded -> Page.of(holdings, count));
+    }, prefetchPages);
+  }
+
   @Override
   public CompletableFuture<DeltaReport> loadDeltaReport(String deltaReportId, int count, int offset) {
     String path = "reports/holdings/deltas/%s?format=kbart2&count=%d&offset=%d".formatted(deltaReportId, count, offset);
     return holdingsRequestHelper.getRequest(holdingsRequestHelper.constructURL(path), DeltaReport.class);
   }
 
+  @Override
+  public CompletableFuture<Integer> loadDeltaReport(String deltaReportId, int count, int offset,
+                                                    Consumer<HoldingInReport> consumer) {
+    String path = "reports/holdings/deltas/%s?format=kbart2&count=%d&offset=%d".formatted(deltaReportId, count, offset);
+    return holdingsRequestHelper.getRequest(holdingsRequestHelper.constructURL(path), HOLDINGS_FIELD,
+      HoldingInReport.class, consumer);
+  }
+
   @Override
   public CompletableFuture<DeltaReportStatus> getDeltaReportStatus(String deltaReportId) {
     return holdingsRequestHelper.getRequest(holdingsRequestHelper.constructURL(
@@ -3,9 +3,9 @@ package org.folio.holdingsiq.service.impl;
 import static org.folio.holdingsiq.service.impl.HoldingsRequestHelper.LISTS_PATH;
 import static org.folio.holdingsiq.service.impl.HoldingsRequestHelper.PACKAGES_PATH;
 import static org.folio.holdingsiq.service.impl.HoldingsRequestHelper.VENDORS_PATH;
-import static org.folio.holdingsiq.service.impl.HoldingsRequestHelper.successBodyLogger;
 
 import io.vertx.core.Vertx;
+import io.vertx.core.streams.ReadStream;
 import java.util.concurrent.CompletableFuture;
 import org.folio.holdingsiq.model.Configuration;
 import org.folio.holdingsiq.model.PackageCreated;
@@ -16,7 +16,11 @@ import org.folio.holdingsiq.model.PackagePut;
 import org.folio.holdingsiq.model.PackageSelectedPayload;
 import org.folio.holdingsiq.model.Packages;
 import org.folio.holdingsiq.model.Pageable;
+import org.folio.holdingsiq.model.Sort;
+import org.folio.holdingsiq.service.HoldingsIQClientOptions;
 import org.folio.holdingsiq.service.PackagesHoldingsIQService;
+import org.folio.holdingsiq.service.RequestOptions;
+import org.folio.holdingsiq.service.impl.PagedReadStream.Page;
 import org.folio.holdingsiq.service.impl.urlbuilder.PackagesFilterableUrlBuilder;
 
 public class PackagesHoldingsIQServiceImpl implements PackagesHoldingsIQService {
@@ -24,7 +28,20 @@ public class PackagesHoldingsIQServiceImpl implements PackagesHoldingsIQService
   private final HoldingsRequestHelper holdingsRequestHelper;
 
   public PackagesHoldingsIQServiceImpl(Configuration config, Vertx vertx) {
-    this.holdingsRequestHelper = new HoldingsRequestHelper(config, vertx).addBodyListener(successBodyLogger());
+    this(config, vertx, HoldingsIQClientOptions.defaults());
+  }
+
+  public PackagesHoldingsIQServiceImpl(Configuration config, Vertx vertx, HoldingsIQClientOptions options) {
+    this.holdingsRequestHelper = new HoldingsRequestHelper(config, vertx, options);
+  }
+
+  private PackagesHoldingsIQServiceImpl(HoldingsRequestHelper holdingsRequestHelper) {
+    this.holdingsRequestHelper = holdingsRequestHelper;
+  }
+
+  @Override
+  public PackagesHoldingsIQService withRequestOptions(RequestOptions requestOptions) {
+    return new PackagesHoldingsIQServiceImpl(holdingsRequestHelper.withRequestOptions(requestOptions));
   }
 
   @Override
@@ -47,11 +64,37 @@ public class PackagesHoldingsIQServiceImpl implements PackagesHoldingsIQService
     return holdingsRequestHelper.getRequest(url, Packages.class);
   }
 
+  @Override
+  public ReadStream<PackageData> streamPackages(PackageFilter packageFilter, Sort sort, int count,
+                                                int prefetchPages) {
+    return holdingsRequestHelper.plannedPagedStream(page ->
+      getPackagesPage(retrievePackages(packageFilter, new Pageable(page, count, sort)), count), prefetchPages);
+  }
+
+  @Override
+  public ReadStream<PackageData> streamPackages(int providerId, PackageFilter packageFilter, Sort sort, int count,
+                                                int prefetchPages) {
+    return holdingsRequestHelper.plannedPagedStream(page ->
+      getPackagesPage(retrievePackages(providerId, packageFilter, new Pageable(page, count, sort)), count),
+      prefetchPages);
+  }
+
   @Override
   public CompletableFuture<PackageData> postPackage(PackagePost entity, int providerId) {
+    return holdingsRequestHelper.thenCall(createPackage(entity, providerId), this::retrievePackage);
+  }
+
+  @Override
+  public CompletableFuture<Integer> createPackage(PackagePost entity, int providerId) {
     String path = VENDORS_PATH + '/' + providerId + '/' + PACKAGES_PATH;
-    return holdingsRequestHelper.postRequest(holdingsRequestHelper.constructURL(path), entity, PackageCreated.class)
-      .thenCompose(packageCreated -> retrievePackage(packageCreated.packageId()));
+    var packageCreated =
+      holdingsRequestHelper.postRequest(holdingsRequestHelper.constructURL(path), entity, PackageCreated.class);
+    return holdingsRequestHelper.thenMap(packageCreated, PackageCreated::packageId);
+  }
+
+  private CompletableFuture<Page<PackageData>> getPackagesPage(CompletableFuture<Packages> packages, int count) {
+    return holdingsRequestHelper.thenMap(packages,
+      result -> Page.of(result.getPackagesList(), count, result.getTotalResults()));
   }
 
   @Override
@@ -0,0 +1,316 @@
+package org.folio.holdingsiq.service.impl;
+
+import io.vertx.core.Context;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.streams.ReadStream;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.IntFunction;
+
+/**
+ * {@link ReadStream} that walks a paged RM API resource and emits its records one at a time.
+ *
+ * <p>Pages are requested in order starting from page {@code 1}. At most {@code prefetchPages} pages are
+ * requested or buffered ahead of the page being emitted, so memory stays bounded by the prefetch window
+ * instead of the size of the whole result set. Records are only emitted while there is demand,
+ * see {@link #pause()}, {@link #resume()} and {@link #fetch(long)}.
+ *
+ * <p>Pages that report the total number of pages, see {@link Page#of(List, int, Integer)}, stop the stream from
+ * requesting pages beyond the end. A stream planned from the first page requests only the first page until it
+ * arrives and then requests the known remaining pages in parallel.
+ *
+ * <p>Setting the handler to {@code null} cancels the stream: pages in flight are cancelled, no more pages are
+ * requested and neither the end handler nor the exception handler is called afterwards.
+ *
+ * @param <T> type of the emitted records
+ */
+class PagedReadStream<T> implements ReadStream<T> {
+
+  private final Context context;
+  private final IntFunction<CompletableFuture<Page<T>>> pageLoader;
+  private final int prefetchPages;
+  private final boolean planFromFirstPage;
+
+  private final Deque<PendingPage<T>> window = new ArrayDeque<>();
+  private Iterator<T> current = Collections.emptyIterator();
+  private int nextPage = 1;
+  private int lastPage = Integer.MAX_VALUE;
+  private long demand = Long.MAX_VALUE;
+  private boolean started;
+  private boolean closed;
+  private boolean emitting;
+  private boolean drainAgain;
+  private boolean planned;
+
+  private Handler<T> handler;
+  private Handler<Void> endHandler;
+  private Handler<Throwable> exceptionHandler;
+
+  /**
+   * @param context context on which the handlers are called
+   * @param pageLoader loads the page with the given number, page numbers start from 1
+   * @param prefetchPages maximum number of pages that are requested ahead of the page being emitted
+   */
+  PagedReadStream(Context context, IntFunction<CompletableFuture<Page<T>>> pageLoader, int prefetchPages) {
+    this(context, pageLoader, prefetchPages, false);
+  }
+
+  /**
+   * @param context context on which the handlers are called
+   * @param pageLoader loads the page with the given number, page numbers start from 1
+   * @param prefetchPages maximum number of pages that are requested ahead of the page being emitted
+   * @param planFromFirstPage true to request no other page before the first one tells the total number of pages
+   */
+  PagedReadStream(Context context, IntFunction<CompletableFuture<Page<T>>> pageLoader, int prefetchPages,
+                  boolean planFromFirstPage) {
+    if (prefetchPages < 1) {
+      throw new IllegalArgumentException("prefetchPages must be greater than 0");
+    }
+    this.context = context;
+    this.pageLoader = pageLoader;
+    this.prefetchPages = prefetchPages;
+    this.planFromFirstPage = planFromFirstPage;
+  }
+
+  @Override
+  public synchronized PagedReadStream<T> exceptionHandler(Handler<Throwable> handler) {
+    this.exceptionHandler = handler;
+    return this;
+  }
+
+  @Override
+  public PagedReadStream<T> handler(Handler<T> handler) {
+    synchronized (this) {
+      this.handler = handler;
+      if (handler == null) {
+        close();
+      } else {
+        started = true;
+      }
+    }
+    scheduleDrain();
+    return this;
+  }
+
+  @Override
+  public synchronized PagedReadStream<T> pause() {
+    demand = 0;
+    return this;
+  }
+
+  @Override
+  public PagedReadStream<T> resume() {
+    return fetch(Long.MAX_VALUE);
+  }
+
+  @Override
+  public PagedReadStream<T> fetch(long amount) {
+    if (amount < 0) {
+      throw new IllegalArgumentException("amount must be positive");
+    }
+    synchronized (this) {
+      demand += amount;
+      if (demand < 0) {
+        demand = Long.MAX_VALUE;
+      }
+    }
+    scheduleDrain();
+    return this;
+  }
+
+  @Override
+  public synchronized PagedReadStream<T> endHandler(Handler<Void> endHandler) {
+    this.endHandler = endHandler;
+    return this;
+  }
+
+  private void scheduleDrain() {
+    synchronized (this) {
+      if (!started || closed) {
+        return;
+      }
+    }
+    if (Vertx.currentContext() == context) {
+      drain();
+    } else {
+      context.runOnContext(v -> drain());
+    }
+  }
+
+  /**
+   * Emits records while there is demand. The state is only changed under the stream monitor, the handlers are
+   * called after releasing it, so a handler that blocks or calls back into the stream from another thread cannot
+   * deadlock it. A drain requested while another one is emitting is carried out by the emitting one.
+   */
+  private void drain() {
+    synchronized (this) {
+      if (emitting) {
+        drainAgain = true;
+        return;
+      }
+      emitting = true;
+    }
+    boolean waiting = false;
+    try {
+      while (!waiting) {
+        waiting = emitNext();
+      }
+    } finally {
+      if (!waiting) {
+        synchronized (this) {
+          emitting = false;
+        }
+      }
+    }
+  }
+
+  /**
+   * Takes the next step of the stream under the monitor and calls the handler it leads to outside of it.
+   *
+   * @return true if the stream has to wait for demand or for a page, or is finished, and emitting stopped
+   */
+  private boolean emitNext() {
+    T item = null;
+    Handler<T> onItem = null;
+    Handler<Void> onEnd = null;
+    Handler<Throwable> onException = null;
+    Throwable failure = null;
+    synchronized (this) {
+      if (closed || handler == null) {
+        return stopEmitting();
+      }
+      fillWindow();
+      if (demand == 0) {
+        return stopEmitting();
+      }
+      if (current.hasNext()) {
+        if (demand != Long.MAX_VALUE) {
+          demand--;
+        }
+        item = current.next();
+        onItem = handler;
+      } else {
+        PendingPage<T> head = window.peekFirst();
+        if (head == null || head.number() > lastPage) {
+          onEnd = endHandler;
+          close();
+        } else if (!head.future().isDone()) {
+          return stopEmitting();
+        } else {
+          window.pollFirst();
+          try {
+            Page<T> page = head.future().join();
+            current = page.items() == null ? Collections.emptyIterator() : page.items().iterator();
+            return false;
+          } catch (CompletionException e) {
+            failure = e.getCause() != null ? e.getCause() : e;
+            onException = exceptionHandler;
+            close();
+          }
+        }
+      }
+    }
+    if (onItem != null) {
+      onItem.handle(item);
+    } else if (onEnd != null) {
+      onEnd.handle(null);
+    } else if (onException != null) {
+      onException.handle(failure);
+    }
+    return false;
+  }
+
+  /**
+   * @return true if emitting stopped, false if a drain was requested meanwhile and emitting goes on
+   */
+  private boolean stopEmitting() {
+    if (drainAgain) {
+      drainAgain = false;
+      return false;
+    }
+    emitting = false;
+    return true;
+  }
+
+  private void fillWindow() {
+    int windowSize = planFromFirstPage && !planned ? 1 : prefetchPages;
+    while (window.size() < windowSize && nextPage <= lastPage) {
+      int pageNumber = nextPage++;
+      CompletableFuture<Page<T>> future = pageLoader.apply(pageNumber);
+      window.addLast(new PendingPage<>(pageNumber, future));
+      future.whenComplete((page, throwable) -> onPageLoaded(pageNumber, page));
+    }
+  }
+
+  private void onPageLoaded(int pageNumber, Page<T> page) {
+    synchronized (this) {
+      if (page != null) {
+        planned = true;
+        if (page.last() && pageNumber < lastPage) {
+          lastPage = pageNumber;
+        }
+        if (page.totalPages() != Page.UNKNOWN_TOTAL && page.totalPages() < lastPage) {
+          lastPage = page.totalPages();
+          cancelPagesAfterLast();
+        }
+      }
+    }
+    scheduleDrain();
+  }
+
+  private void cancelPagesAfterLast() {
+    List<PendingPage<T>> beyondLast = window.stream().filter(page -> page.number() > lastPage).toList();
+    window.removeAll(beyondLast);
+    beyondLast.forEach(page -> page.future().cancel(false));
+  }
+
+  private void close() {
+    closed = true;
+    List<PendingPage<T>> pending = List.copyOf(window);
+    window.clear();
+    pending.forEach(page -> page.future().cancel(false));
+    current = Collections.emptyIterator();
+  }
+
+  /**
+   * Single page of records.
+   *
+   * @param items records of the page
+   * @param last true if there are no pages after this one
+   * @param totalPages number of pages of the whole result set, {@link #UNKNOWN_TOTAL} if the page does not tell
+   */
+  record Page<T>(List<T> items, boolean last, int totalPages) {
+
+    static final int UNKNOWN_TOTAL = -1;
+
+    Page(List<T> items, boolean last) {
+      this(items, last, UNKNOWN_TOTAL);
+    }
+
+    /**
+     * Creates a page that is considered the last one when it holds fewer records than requested.
+     */
+    static <T> Page<T> of(List<T> items, int count) {
+      return new Page<>(items, items == null || items.size() < count);
+    }
+
+    /**
+     * Creates a page of a result set with the given total number of records.
+     */
+    static <T> Page<T> of(List<T> items, int count, Integer totalResults) {
+      if (totalResults == null) {
+        return of(items, count);
+      }
+      int totalPages = (int) ((totalResults + (long) count - 1) / count);
+      return new Page<>(items, items == null || items.size() < count, totalPages);
+    }
+  }
+
+  private record PendingPage<T>(int number, CompletableFuture<Page<T>> future) { }
+}
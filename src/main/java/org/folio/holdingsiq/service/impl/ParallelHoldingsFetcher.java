@@ -0,0 +1,272 @@
+package org.folio.holdingsiq.service.impl;
+
+import io.vertx.core.Vertx;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+import lombok.extern.log4j.Log4j2;
+import org.apache.commons.lang3.math.NumberUtils;
+import org.folio.holdingsiq.model.Holdings;
+import org.folio.holdingsiq.service.HoldingsIQClientOptions;
+import org.folio.holdingsiq.service.LoadService;
+import org.folio.holdingsiq.service.RetryPolicy;
+import org.folio.holdingsiq.service.exception.ServiceException;
+import org.folio.holdingsiq.service.exception.ServiceResponseException;
+
+/**
+ * Downloads a whole holdings snapshot by fetching several pages at once.
+ *
+ * <p>The number of pages is calculated from the total count reported by the snapshot status. Pages are requested
+ * with an adaptive concurrency limit that never exceeds the connection pool size: the limit grows while responses
+ * are fast and shrinks when latency goes up or the RM API answers with 429 or 5xx. Throttled pages are retried
+ * with exponential backoff, unless the client {@link RetryPolicy} is enabled and has retried them already. When a
+ * page fails for good, the pages still in flight are cancelled.
+ *
+ * <p>Pages are handed over to the consumer one at a time, either in offset order or in completion order.
+ */
+@Log4j2
+public class ParallelHoldingsFetcher {
+
+  private static final int HTTP_TOO_MANY_REQUESTS = 429;
+  private static final int HTTP_INTERNAL_ERROR = 500;
+  private static final int MAX_PAGE_ATTEMPTS = 5;
+  private static final long RETRY_BASE_DELAY_MS = 200;
+  private static final double LATENCY_DEGRADATION_FACTOR = 2.0;
+  /** Share of the difference to a slower page the latency baseline moves by, so old fast pages are forgotten. */
+  private static final double BASELINE_DECAY = 0.05;
+
+  private final LoadService loadService;
+  private final Vertx vertx;
+  private final int pageSize;
+  private final int maxConcurrency;
+  private final boolean ordered;
+  private final boolean retryThrottled;
+
+  /**
+   * @param loadService service used to download the pages
+   * @param vertx Vert.x instance the load service was created with, used to schedule retries
+   * @param pageSize number of holdings requested per page
+   * @param maxConcurrency maximum number of pages downloaded at once, capped by the connection pool size
+   * @param ordered true to hand over pages in offset order, false to hand them over as soon as they arrive
+   */
+  public ParallelHoldingsFetcher(LoadService loadService, Vertx vertx, int pageSize, int maxConcurrency,
+                                 boolean ordered) {
+    this(loadService, vertx, pageSize, maxConcurrency, ordered, HoldingsIQClientOptions.defaults());
+  }
+
+  /**
+   * @param loadService service used to download the pages
+   * @param vertx Vert.x instance the load service was created with, used to schedule retries
+   * @param pageSize number of holdings requested per page
+   * @param maxConcurrency maximum number of pages downloaded at once, capped by the connection pool size
+   * @param ordered true to hand over pages in offset order, false to hand them over as soon as they arrive
+   * @param options client options the load service was created with, used to find out the connection pool size and
+   *                whether throttled requests are retried by the client already
+   */
+  public ParallelHoldingsFetcher(LoadService loadService, Vertx vertx, int pageSize, int maxConcurrency,
+                                 boolean ordered, HoldingsIQClientOptions options) {
+    if (pageSize < 1 || maxConcurrency < 1) {
+      throw new IllegalArgumentException("pageSize and maxConcurrency must be greater than 0");
+    }
+    this.loadService = loadService;
+    this.vertx = vertx;
+    this.pageSize = pageSize;
+    this.maxConcurrency = Math.min(maxConcurrency, options.getHttp1MaxPoolSize());
+    this.ordered = ordered;
+    this.retryThrottled = !options.getRetryPolicy().isEnabled();
+  }
+
+  /**
+   * Download all holdings of the transaction.
+   *
+   * @param transactionId id of transaction
+   * @param pageConsumer receives downloaded pages, never called concurrently
+   * @return number of downloaded holdings
+   */
+  public CompletableFuture<Integer> fetchTransaction(String transactionId, Consumer<Holdings> pageConsumer) {
+    return loadService.getTransactionStatus(transactionId)
+      .thenCompose(status -> fetch(NumberUtils.createInteger(status.getTotalCount()),
+        page -> loadService.loadHoldingsTransaction(transactionId, pageSize, page), pageConsumer));
+  }
+
+  /**
+   * Download all holdings from the staged area.
+   *
+   * @param pageConsumer receives downloaded pages, never called concurrently
+   * @return number of downloaded holdings
+   */
+  public CompletableFuture<Integer> fetchHoldings(Consumer<Holdings> pageConsumer) {
+    return loadService.getLoadingStatus()
+      .thenCompose(status -> fetch(status.getTotalCount(),
+        page -> loadService.loadHoldings(pageSize, page), pageConsumer));
+  }
+
+  private CompletableFuture<Integer> fetch(Integer totalCount, IntFunction<CompletableFuture<Holdings>> pageLoader,
+                                           Consumer<Holdings> pageConsumer) {
+    if (totalCount == null) {
+      return CompletableFuture.failedFuture(new ServiceException("Total count of holdings snapshot is not available"));
+    }
+    int totalPages = (totalCount + pageSize - 1) / pageSize;
+    log.info("Fetching {} holdings in {} pages with up to {} concurrent requests", totalCount, totalPages,
+      maxConcurrency);
+    return new FetchRun(totalPages, pageLoader, pageConsumer).start();
+  }
+
+  private static boolean isThrottled(Throwable throwable) {
+    Throwable cause = throwable instanceof CompletionException && throwable.getCause() != null
+                      ? throwable.getCause()
+                      : throwable;
+    return cause instanceof ServiceResponseException e && e.getCode() != null
+           && (e.getCode() == HTTP_TOO_MANY_REQUESTS || e.getCode() >= HTTP_INTERNAL_ERROR);
+  }
+
+  private final class FetchRun {
+
+    private final int totalPages;
+    private final IntFunction<CompletableFuture<Holdings>> pageLoader;
+    private final Consumer<Holdings> pageConsumer;
+    private final CompletableFuture<Integer> result = new CompletableFuture<>();
+
+    private final TreeMap<Integer, Holdings> completedPages = new TreeMap<>();
+    private final Deque<Integer> retryPages = new ArrayDeque<>();
+    private final Map<Integer, Integer> attempts = new HashMap<>();
+    private final Map<Integer, CompletableFuture<Holdings>> inFlight = new HashMap<>();
+    private int nextPage = 1;
+    private int nextPageToDeliver = 1;
+    private int delivered;
+    private int holdingsCount;
+    private double limit;
+    private double baselineLatencyNanos;
+
+    FetchRun(int totalPages, IntFunction<CompletableFuture<Holdings>> pageLoader, Consumer<Holdings> pageConsumer) {
+      this.totalPages = totalPages;
+      this.pageLoader = pageLoader;
+      this.pageConsumer = pageConsumer;
+      this.limit = Math.min(2, maxConcurrency);
+    }
+
+    synchronized CompletableFuture<Integer> start() {
+      result.whenComplete((count, throwable) -> {
+        if (throwable != null) {
+          cancelPagesInFlight();
+        }
+      });
+      if (totalPages == 0) {
+        result.complete(0);
+      } else {
+        requestPages();
+      }
+      return result;
+    }
+
+    private void requestPages() {
+      while (!result.isDone() && inFlight.size() < (int) limit) {
+        Integer page = pollNextPage();
+        if (page == null) {
+          return;
+        }
+        long startNanos = System.nanoTime();
+        var loading = pageLoader.apply(page);
+        inFlight.put(page, loading);
+        loading.whenComplete((holdings, throwable) ->
+          onPageCompleted(page, holdings, throwable, System.nanoTime() - startNanos));
+      }
+    }
+
+    private synchronized void cancelPagesInFlight() {
+      List.copyOf(inFlight.values()).forEach(page -> page.cancel(true));
+    }
+
+    private Integer pollNextPage() {
+      if (!retryPages.isEmpty()) {
+        return retryPages.pollFirst();
+      }
+      boolean reorderWindowFull = ordered && nextPage - nextPageToDeliver >= 2 * maxConcurrency;
+      return nextPage <= totalPages && !reorderWindowFull ? nextPage++ : null;
+    }
+
+    private synchronized void onPageCompleted(int page, Holdings holdings, Throwable throwable, long latencyNanos) {
+      inFlight.remove(page);
+      if (result.isDone()) {
+        return;
+      }
+      if (throwable != null) {
+        onPageFailed(page, throwable);
+      } else {
+        adaptToLatency(latencyNanos);
+        completedPages.put(page, holdings);
+        deliverPages();
+      }
+      if (delivered == totalPages) {
+        result.complete(holdingsCount);
+      } else {
+        requestPages();
+      }
+    }
+
+    private void onPageFailed(int page, Throwable throwable) {
+      int attempt = attempts.merge(page, 1, Integer::sum);
+      if (!retryThrottled || !isThrottled(throwable) || attempt >= MAX_PAGE_ATTEMPTS) {
+        log.warn("Failed to fetch holdings page {} after {} attempt(s)", page, attempt);
+        result.completeExceptionally(throwable);
+        return;
+      }
+      limit = Math.max(1, limit / 2);
+      long delay = RETRY_BASE_DELAY_MS << (attempt - 1);
+      log.info("Holdings page {} was throttled, retrying in {} ms with concurrency limit {}", page, delay, (int) limit);
+      vertx.setTimer(delay, id -> retryPage(page));
+    }
+
+    private synchronized void retryPage(int page) {
+      retryPages.addLast(page);
+      requestPages();
+    }
+
+    /**
+     * Compares the latency to a baseline that follows faster pages at once and slower ones slowly, so a lasting
+     * change of the RM API response times becomes the new baseline instead of shrinking the limit forever.
+     */
+    private void adaptToLatency(long latencyNanos) {
+      if (baselineLatencyNanos > 0 && latencyNanos > baselineLatencyNanos * LATENCY_DEGRADATION_FACTOR) {
+        limit = Math.max(1, limit - 1);
+      } else {
+        limit = Math.min(maxConcurrency, limit + 1 / limit);
+      }
+      baselineLatencyNanos = baselineLatencyNanos == 0 || latencyNanos < baselineLatencyNanos
+                             ? latencyNanos
+                             : baselineLatencyNanos + (latencyNanos - baselineLatencyNanos) * BASELINE_DECAY;
+    }
+
+    private void deliverPages() {
+      try {
+        if (ordered) {
+          while (!completedPages.isEmpty() && completedPages.firstKey() == nextPageToDeliver) {
+            deliver(completedPages.pollFirstEntry().getValue());
+            nextPageToDeliver++;
+          }
+        } else {
+          while (!completedPages.isEmpty()) {
+            deliver(completedPages.pollFirstEntry().getValue());
+          }
+        }
+      } catch (Exception e) {
+        result.completeExceptionally(e);
+      }
+    }
+
+    private void deliver(Holdings holdings) {
+      delivered++;
+      if (holdings != null && holdings.getHoldingsList() != null) {
+        holdingsCount += holdings.getHoldingsList().size();
+      }
+      pageConsumer.accept(holdings);
+    }
+  }
+}
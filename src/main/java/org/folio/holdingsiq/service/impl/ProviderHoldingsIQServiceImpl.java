@@ -1,19 +1,23 @@
 package org.folio.holdingsiq.service.impl;
 
 import static org.folio.holdingsiq.service.impl.HoldingsRequestHelper.VENDORS_PATH;
-import static org.folio.holdingsiq.service.impl.HoldingsRequestHelper.successBodyLogger;
 
 import java.util.concurrent.CompletableFuture;
 
 import io.vertx.core.Vertx;
+import io.vertx.core.streams.ReadStream;
 
 import org.folio.holdingsiq.model.Configuration;
 import org.folio.holdingsiq.model.Sort;
+import org.folio.holdingsiq.model.Vendor;
 import org.folio.holdingsiq.model.VendorById;
 import org.folio.holdingsiq.model.VendorPut;
 import org.folio.holdingsiq.model.Vendors;
+import org.folio.holdingsiq.service.HoldingsIQClientOptions;
 import org.folio.holdingsiq.service.HoldingsIQService;
 import org.folio.holdingsiq.service.ProviderHoldingsIQService;
+import org.folio.holdingsiq.service.RequestOptions;
+import org.folio.holdingsiq.service.impl.PagedReadStream.Page;
 import org.folio.holdingsiq.service.impl.urlbuilder.QueryableUrlBuilder;
 
 public class ProviderHoldingsIQServiceImpl implements ProviderHoldingsIQService {
@@ -23,24 +27,40 @@ public class ProviderHoldingsIQServiceImpl implements ProviderHoldingsIQService
   private final HoldingsRequestHelper holdingsRequestHelper;
 
   public ProviderHoldingsIQServiceImpl(Configuration config, Vertx vertx, HoldingsIQService holdingsIQService) {
-    holdingsRequestHelper = new HoldingsRequestHelper(config, vertx);
-    holdingsRequestHelper.addBodyListener(successBodyLogger());
+    this(config, vertx, HoldingsIQClientOptions.defaults(), holdingsIQService);
+  }
+
+  public ProviderHoldingsIQServiceImpl(Configuration config, Vertx vertx, HoldingsIQClientOptions options,
+                                       HoldingsIQService holdingsIQService) {
+    holdingsRequestHelper = new HoldingsRequestHelper(config, vertx, options);
+
+    this.holdingsIQService = holdingsIQService;
+  }
 
+  private ProviderHoldingsIQServiceImpl(HoldingsRequestHelper holdingsRequestHelper,
+                                        HoldingsIQService holdingsIQService) {
+    this.holdingsRequestHelper = holdingsRequestHelper;
     this.holdingsIQService = holdingsIQService;
   }
 
   public ProviderHoldingsIQServiceImpl(Configuration config, Vertx vertx) {
-    holdingsRequestHelper = new HoldingsRequestHelper(config, vertx);
-    holdingsRequestHelper.addBodyListener(successBodyLogger());
+    this(config, vertx, HoldingsIQClientOptions.defaults());
+  }
+
+  public ProviderHoldingsIQServiceImpl(Configuration config, Vertx vertx, HoldingsIQClientOptions options) {
+    this(config, vertx, options, new HoldingsIQServiceImpl(config, vertx, options));
+  }
 
-    this.holdingsIQService = new HoldingsIQServiceImpl(config, vertx);
+  @Override
+  public ProviderHoldingsIQService withRequestOptions(RequestOptions requestOptions) {
+    return new ProviderHoldingsIQServiceImpl(holdingsRequestHelper.withRequestOptions(requestOptions),
+      holdingsIQService.withRequestOptions(requestOptions));
   }
 
   @Override
   public CompletableFuture<Integer> getVendorId(){
-    return holdingsIQService.retrieveRootProxyCustomLabels()
-      .thenCompose(rootProxyCustomLabels ->
-        CompletableFuture.completedFuture(Integer.parseInt(rootProxyCustomLabels.getVendorId())));
+    return holdingsRequestHelper.thenMap(holdingsIQService.retrieveRootProxyCustomLabels(),
+      rootProxyCustomLabels -> Integer.parseInt(rootProxyCustomLabels.getVendorId()));
   }
 
   @Override
@@ -51,12 +71,23 @@ public class ProviderHoldingsIQServiceImpl implements ProviderHoldingsIQService
     return vendorFuture;
   }
 
+  @Override
+  public ReadStream<Vendor> streamProviders(String q, Sort sort, int count, int prefetchPages) {
+    return holdingsRequestHelper.plannedPagedStream(page -> holdingsRequestHelper.thenMap(
+        retrieveProviders(q, page, count, sort),
+        vendors -> Page.of(vendors.getVendorList(), count, vendors.getTotalResults())),
+      prefetchPages);
+  }
+
   @Override
   public CompletableFuture<VendorById> updateProvider(int id, VendorPut vendorPut) {
-    final String path = VENDORS_PATH + '/' + id;
+    return holdingsRequestHelper.thenCall(putProvider(id, vendorPut), vend -> this.retrieveProvider(id));
+  }
 
-    return holdingsRequestHelper.putRequest(holdingsRequestHelper.constructURL(path), vendorPut)
-      .thenCompose(vend -> this.retrieveProvider(id));
+  @Override
+  public CompletableFuture<Void> putProvider(int id, VendorPut vendorPut) {
+    final String path = VENDORS_PATH + '/' + id;
+    return holdingsRequestHelper.putRequest(holdingsRequestHelper.constructURL(path), vendorPut);
   }
 
   @Override
@@ -0,0 +1,84 @@
+package org.folio.holdingsiq.service.impl;
+
+import io.vertx.core.Vertx;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import org.folio.holdingsiq.service.HoldingsIQClientOptions;
+import org.folio.holdingsiq.service.RateLimit;
+import org.folio.holdingsiq.service.exception.RateLimitExceededException;
+
+/**
+ * Spaces the requests of every RM API customer according to the {@link RateLimit} of the endpoint family, one
+ * {@link TokenBucket} per customer and family. Requests waiting for their turn are delayed with Vert.x timers, the
+ * calling thread is never blocked.
+ *
+ * <p>The endpoint family is the first segment of the endpoint template, e.g. {@link #VENDORS} for
+ * {@code vendors/{id}/packages} or {@link #REPORTS} for {@code reports/holdings/transactions/{id}}.
+ */
+class RateLimiter {
+
+  static final String VENDORS = "vendors";
+  static final String PACKAGES = "packages";
+  static final String LISTS = "lists";
+  static final String TITLES = "titles";
+  static final String HOLDINGS = "holdings";
+  static final String REPORTS = "reports";
+
+  private static final String V2_SEGMENT = "v2";
+  private static final long NANOS_PER_MILLI = TimeUnit.MILLISECONDS.toNanos(1);
+
+  private final Vertx vertx;
+  private final Map<String, RateLimit> rateLimits;
+  private final RateLimit defaultRateLimit;
+  private final HoldingsClientMetrics metrics;
+  private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+
+  RateLimiter(Vertx vertx, HoldingsIQClientOptions options, HoldingsClientMetrics metrics) {
+    this.vertx = vertx;
+    this.rateLimits = options.getRateLimits();
+    this.defaultRateLimit = options.getDefaultRateLimit();
+    this.metrics = metrics;
+  }
+
+  /**
+   * @param customerKey RM API base URL and customer id the request is sent for
+   * @param endpoint endpoint template of the request
+   * @return completed once the request may be sent, failed with {@link RateLimitExceededException} if it would have
+   *         to wait longer than the maximum wait of the rate limit
+   */
+  CompletableFuture<Void> acquire(String customerKey, String endpoint) {
+    var family = family(endpoint);
+    var rateLimit = rateLimits.getOrDefault(family, defaultRateLimit);
+    if (rateLimit == null) {
+      return CompletableFuture.completedFuture(null);
+    }
+
+    var bucket = buckets.computeIfAbsent(customerKey + "|" + family, key -> new TokenBucket(rateLimit));
+    long wait = bucket.reserve(System.nanoTime());
+    if (wait < 0) {
+      metrics.recordRateLimitRejected(family);
+      return CompletableFuture.failedFuture(new RateLimitExceededException(
+        "Rate limit of " + family + " requests exceeded, request would wait longer than " + rateLimit.getMaxWait(),
+        family));
+    }
+    metrics.recordRateLimitWait(family, wait);
+    if (wait == 0) {
+      return CompletableFuture.completedFuture(null);
+    }
+
+    CompletableFuture<Void> turn = new CompletableFuture<>();
+    vertx.setTimer((wait + NANOS_PER_MILLI - 1) / NANOS_PER_MILLI, id -> turn.complete(null));
+    return turn;
+  }
+
+  static String family(String endpoint) {
+    for (String segment : endpoint.split("/")) {
+      if (!segment.isEmpty() && !V2_SEGMENT.equals(segment)) {
+        return segment;
+      }
+    }
+    return EndpointTemplates.ROOT_ENDPOINT;
+  }
+}
@@ -0,0 +1,45 @@
+package org.folio.holdingsiq.service.impl;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Limits extra requests, retries or hedges, to a share of the requests sent with a client, so they cannot multiply
+ * the load on a slow or failing RM API. Every request deposits the given ratio of an extra request, every extra
+ * request withdraws one.
+ */
+class RequestBudget {
+
+  private static final long SCALE = 1000;
+
+  private final long deposit;
+  private final long capacity;
+  private final AtomicLong balance;
+
+  /**
+   * @param ratio share of an extra request every request deposits
+   * @param capacity maximum number of extra requests saved up, also the number available before any request was sent
+   */
+  RequestBudget(double ratio, int capacity) {
+    this.deposit = Math.round(ratio * SCALE);
+    this.capacity = capacity * SCALE;
+    this.balance = new AtomicLong(this.capacity);
+  }
+
+  void requestSent() {
+    balance.updateAndGet(current -> Math.min(capacity, current + deposit));
+  }
+
+  /**
+   * @return true if an extra request is allowed, it is withdrawn from the budget then
+   */
+  boolean tryWithdraw() {
+    long current;
+    do {
+      current = balance.get();
+      if (current < SCALE) {
+        return false;
+      }
+    } while (!balance.compareAndSet(current, current - SCALE));
+    return true;
+  }
+}
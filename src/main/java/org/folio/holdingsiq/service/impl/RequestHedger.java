@@ -0,0 +1,160 @@
+package org.folio.holdingsiq.service.impl;
+
+import io.vertx.core.Vertx;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import org.folio.holdingsiq.service.HedgePolicy;
+import org.folio.holdingsiq.service.impl.RequestRetrier.Attempt;
+
+/**
+ * Sends a second attempt of slow GET requests according to the {@link HedgePolicy} of a client. One hedger, its
+ * {@link RequestBudget} and the latency distributions of the hedged endpoints are shared by all requests of a client.
+ */
+class RequestHedger {
+
+  static final String PRIMARY = "primary";
+  static final String HEDGE = "hedge";
+
+  private static final int LATENCY_WINDOW = 1000;
+
+  private final Vertx vertx;
+  private final HedgePolicy policy;
+  private final RequestBudget budget;
+  private final HoldingsClientMetrics metrics;
+  private final Map<String, LatencyHistogram> latencies = new ConcurrentHashMap<>();
+
+  /**
+   * @param policy hedge policy of the client, null if no request is hedged
+   */
+  RequestHedger(Vertx vertx, HedgePolicy policy, HoldingsClientMetrics metrics) {
+    this.vertx = vertx;
+    this.policy = policy;
+    this.budget = policy == null ? null : new RequestBudget(policy.getBudgetRatio(), policy.getBudgetCapacity());
+    this.metrics = metrics;
+  }
+
+  /**
+   * Starts the first attempt and a hedge if the first attempt takes longer than the hedging delay of the endpoint.
+   *
+   * @param attempts starts a new attempt of the request every time it is called
+   * @return attempt completed with the first successful result, or with the last failure if all attempts failed
+   */
+  <T> Attempt<T> execute(String endpoint, Supplier<Attempt<T>> attempts) {
+    if (policy == null || !policy.getEndpoints().contains(endpoint)) {
+      return attempts.get();
+    }
+    budget.requestSent();
+    var histogram = latencies.computeIfAbsent(endpoint, key -> new LatencyHistogram(LATENCY_WINDOW));
+    return new HedgedRequest<>(endpoint, attempts, histogram).start(delayNanos(histogram));
+  }
+
+  private long delayNanos(LatencyHistogram histogram) {
+    if (histogram.count() < policy.getMinSamples()) {
+      return policy.getInitialDelay().toNanos();
+    }
+    long delay = histogram.percentile(policy.getPercentile());
+    return Math.clamp(delay, policy.getMinDelay().toNanos(), policy.getMaxDelay().toNanos());
+  }
+
+  private final class HedgedRequest<T> {
+
+    private final String endpoint;
+    private final Supplier<Attempt<T>> attempts;
+    private final LatencyHistogram histogram;
+    private final CompletableFuture<T> result = new CompletableFuture<>();
+    private Attempt<T> primary;
+    private Attempt<T> hedge;
+    private int pending;
+    private long timerId;
+
+    HedgedRequest(String endpoint, Supplier<Attempt<T>> attempts, LatencyHistogram histogram) {
+      this.endpoint = endpoint;
+      this.attempts = attempts;
+      this.histogram = histogram;
+    }
+
+    Attempt<T> start(long delayNanos) {
+      long start = System.nanoTime();
+      var first = attempts.get();
+      if (first.result().isDone()) {
+        // answered from the cache or failed before it was sent
+        return first;
+      }
+
+      synchronized (this) {
+        primary = first;
+        pending = 1;
+        timerId = vertx.setTimer(Math.max(1, TimeUnit.NANOSECONDS.toMillis(delayNanos)), id -> sendHedge());
+      }
+      result.whenComplete((value, failure) -> {
+        if (failure == null) {
+          // the time the first attempt took so far, a lower bound of its latency if the hedge won
+          histogram.record(System.nanoTime() - start);
+        }
+        cancelPending();
+      });
+      first.result().whenComplete((value, failure) -> completed(first, value, failure));
+      return new Attempt<>(result, first.observation(), first.replayable());
+    }
+
+    private void sendHedge() {
+      synchronized (this) {
+        if (result.isDone()) {
+          return;
+        }
+      }
+      if (!budget.tryWithdraw()) {
+        metrics.recordHedgeSkipped(endpoint);
+        return;
+      }
+
+      metrics.recordHedge(endpoint);
+      var second = attempts.get();
+      synchronized (this) {
+        hedge = second;
+        pending++;
+      }
+      second.result().whenComplete((value, failure) -> completed(second, value, failure));
+      if (result.isDone()) {
+        second.cancel();
+      }
+    }
+
+    private void completed(Attempt<T> attempt, T value, Throwable failure) {
+      boolean hedged;
+      boolean lastPending;
+      synchronized (this) {
+        hedged = hedge != null;
+        lastPending = --pending == 0;
+      }
+      if (failure == null) {
+        if (result.complete(value) && hedged) {
+          metrics.recordHedgeWin(endpoint, attempt == primary ? PRIMARY : HEDGE);
+        }
+      } else if (lastPending) {
+        result.completeExceptionally(failure);
+      }
+    }
+
+    private void cancelPending() {
+      Attempt<T> first;
+      Attempt<T> second;
+      synchronized (this) {
+        vertx.cancelTimer(timerId);
+        first = primary;
+        second = hedge;
+      }
+      cancelIfPending(first);
+      cancelIfPending(second);
+    }
+
+    private void cancelIfPending(Attempt<T> attempt) {
+      if (attempt != null && !attempt.result().isDone()) {
+        attempt.cancel();
+      }
+    }
+  }
+}
@@ -0,0 +1,184 @@
+package org.folio.holdingsiq.service.impl;
+
+import io.opentelemetry.api.trace.Span;
+import io.vertx.core.http.HttpClientRequest;
+import io.vertx.core.http.HttpResponseHead;
+import io.vertx.ext.web.client.HttpRequest;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import lombok.extern.log4j.Log4j2;
+import org.folio.holdingsiq.service.HoldingsInterceptor;
+
+/**
+ * Timings and sizes of a single RM API request, recorded to {@link HoldingsClientMetrics}, traced with
+ * {@link HoldingsClientTracing} and passed to the {@link HoldingsInterceptor}s of the client as the request proceeds.
+ *
+ * <p>Created when the request is prepared, then updated by the web client interceptors, by the body codec while the
+ * body is received and by {@link HoldingsRequestHelper} after decoding. All times are {@link System#nanoTime()}
+ * values.
+ */
+@Log4j2
+class RequestObservation {
+
+  private final HoldingsClientMetrics metrics;
+  private final HoldingsClientTracing tracing;
+  private final List<HoldingsInterceptor> interceptors;
+  private final InteractionContext context;
+  private final Span span;
+  private volatile long connectionTime;
+  private volatile HttpClientRequest clientRequest;
+  private volatile boolean cancelled;
+
+  RequestObservation(HoldingsClientMetrics metrics, HoldingsClientTracing tracing,
+                     List<HoldingsInterceptor> interceptors, String endpoint, String method) {
+    this.metrics = metrics;
+    this.tracing = tracing;
+    this.interceptors = interceptors;
+    this.context = new InteractionContext(endpoint, method);
+    this.span = tracing.startRequestSpan(endpoint, method);
+  }
+
+  InteractionContext context() {
+    return context;
+  }
+
+  void beforeSend(HttpRequest<?> request) {
+    context.request(request);
+    tracing.inject(span, request);
+    intercept(interceptor -> interceptor.beforeSend(context));
+  }
+
+  /**
+   * @param request request sent on the connection, it is reset right away if the observation was cancelled
+   * @param waitNanos time spent waiting for the connection
+   * @param newConnection true if the pool opened a new connection for the request, the wait includes DNS resolution
+   *                      and connecting then
+   */
+  void connectionAcquired(HttpClientRequest request, long waitNanos, boolean newConnection) {
+    connectionTime = System.nanoTime();
+    clientRequest = request;
+    if (cancelled) {
+      request.reset();
+    }
+    if (newConnection) {
+      metrics.recordConnect(context.getEndpoint(), context.getMethod(), waitNanos);
+    }
+  }
+
+  /**
+   * Abandons the request: a request that is sent already is reset, one that is not sent yet is never sent.
+   */
+  void cancel() {
+    cancelled = true;
+    var request = clientRequest;
+    if (request != null) {
+      request.reset();
+    }
+  }
+
+  boolean isCancelled() {
+    return cancelled;
+  }
+
+  void responseHeadReceived(HttpResponseHead response) {
+    context.responseHead(response);
+    HoldingsClientTracing.responseReceived(span, response.statusCode());
+    if (connectionTime != 0) {
+      metrics.recordTimeToFirstByte(context.getEndpoint(), context.getMethod(), response.statusCode(),
+        context.getResponseHeadTime() - connectionTime);
+    }
+    intercept(interceptor -> interceptor.onResponseHead(context));
+  }
+
+  /**
+   * @param chunkBytes size of the chunk as received over the network
+   * @param wireBytes number of bytes received over the network so far
+   */
+  void chunkReceived(int chunkBytes, long wireBytes) {
+    context.wireBytes(wireBytes);
+    intercept(interceptor -> interceptor.onBodyChunk(context, chunkBytes));
+  }
+
+  /**
+   * @param contentEncoding content encoding of the body, null if it was not compressed
+   * @param wireBytes number of bytes received over the network
+   * @param bodyBytes number of bytes after decompression
+   */
+  void bodyReceived(String contentEncoding, long wireBytes, long bodyBytes) {
+    context.wireBytes(wireBytes);
+    context.bodyEnded(contentEncoding, bodyBytes);
+    var endpoint = context.getEndpoint();
+    var method = context.getMethod();
+    if (context.getResponseHeadTime() != 0) {
+      metrics.recordDownload(endpoint, method, context.statusCode(),
+        context.getBodyEndTime() - context.getResponseHeadTime());
+    }
+    metrics.recordResponseSize(endpoint, method, contentEncoding, wireBytes, bodyBytes);
+    span.setAttribute(HoldingsClientTracing.HTTP_RESPONSE_BODY_SIZE, wireBytes);
+  }
+
+  /**
+   * Decodes a received body in a child span, records the decode time and passes the decoded body to the interceptors.
+   */
+  <T> T decode(Supplier<T> decoder) {
+    var decodeSpan = tracing.startChildSpan(span, HoldingsClientTracing.DECODE_SPAN);
+    long decodeStart = System.nanoTime();
+    T body;
+    try {
+      body = decoder.get();
+    } catch (RuntimeException e) {
+      HoldingsClientTracing.end(decodeSpan, e);
+      throw e;
+    }
+    metrics.recordDecode(context.getEndpoint(), context.getMethod(), System.nanoTime() - decodeStart);
+    HoldingsClientTracing.end(decodeSpan, null);
+    afterDecode(body);
+    return body;
+  }
+
+  /**
+   * Passes a body decoded while it was received to the interceptors, no decode time is recorded.
+   */
+  void decodedWhileReceived(Object body) {
+    afterDecode(body);
+  }
+
+  /**
+   * Records the duration and the outcome of the request once the result completes.
+   */
+  <T> CompletableFuture<T> observe(CompletableFuture<T> result) {
+    result.whenComplete((value, throwable) -> {
+      context.ended();
+      metrics.recordRequest(context.getEndpoint(), context.getMethod(), context.statusCode(), throwable,
+        context.getEndTime() - context.getStartTime());
+      if (throwable != null) {
+        var failure = throwable instanceof CompletionException && throwable.getCause() != null
+                      ? throwable.getCause()
+                      : throwable;
+        intercept(interceptor -> interceptor.onFailure(context, failure));
+      }
+      HoldingsClientTracing.end(span, throwable);
+    });
+    return result;
+  }
+
+  private void afterDecode(Object body) {
+    var dispatchSpan = tracing.startChildSpan(span, HoldingsClientTracing.INTERCEPTORS_SPAN);
+    intercept(interceptor -> interceptor.afterDecode(context, body));
+    dispatchSpan.end();
+  }
+
+  private void intercept(Consumer<HoldingsInterceptor> callback) {
+    for (HoldingsInterceptor interceptor : interceptors) {
+      try {
+        callback.accept(interceptor);
+      } catch (RuntimeException e) {
+        log.warn("Interceptor {} failed for query = [{}]: {}", interceptor.getClass().getName(),
+          context.getRequest() == null ? context.getEndpoint() : context.uri(), e.getMessage());
+      }
+    }
+  }
+}
@@ -0,0 +1,274 @@
+package org.folio.holdingsiq.service.impl;
+
+import io.vertx.core.Vertx;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import lombok.extern.log4j.Log4j2;
+import org.folio.holdingsiq.service.HoldingsInteractionContext;
+import org.folio.holdingsiq.service.RequestOptions;
+import org.folio.holdingsiq.service.RetryPolicy;
+import org.folio.holdingsiq.service.exception.DeadlineExceededException;
+import org.folio.holdingsiq.service.exception.ServiceException;
+import org.folio.holdingsiq.service.exception.ServiceResponseException;
+
+/**
+ * Repeats failed requests according to the {@link RetryPolicy} of a client, waiting between attempts with Vert.x
+ * timers. One retrier and one {@link RequestBudget} are shared by all requests of a client.
+ */
+@Log4j2
+class RequestRetrier {
+
+  static final String RETRY_AFTER = "Retry-After";
+  static final String EXHAUSTED_ATTEMPTS = "attempts";
+  static final String EXHAUSTED_DEADLINE = "deadline";
+  static final String EXHAUSTED_BUDGET = "budget";
+
+  private static final int MAX_BACKOFF_SHIFT = 30;
+
+  private final Vertx vertx;
+  private final RetryPolicy policy;
+  private final RequestBudget budget;
+  private final HoldingsClientMetrics metrics;
+
+  RequestRetrier(Vertx vertx, RetryPolicy policy, HoldingsClientMetrics metrics) {
+    this.vertx = vertx;
+    this.policy = policy;
+    this.budget = new RequestBudget(policy.getBudgetRatio(), policy.getBudgetCapacity());
+    this.metrics = metrics;
+  }
+
+  /**
+   * Starts the first attempt and repeats it while it fails with a retryable failure.
+   *
+   * <p>The returned future fails with {@link DeadlineExceededException} once the deadline of the request options
+   * passed, completing or cancelling it cancels the attempt in flight, which resets its request.
+   *
+   * @param retryable false if the request must be sent once only whatever the policy
+   * @param attempts starts a new attempt of the request every time it is called
+   * @return result of the last attempt
+   */
+  <T> CompletableFuture<T> execute(String endpoint, String method, RequestOptions requestOptions, boolean retryable,
+                                   Supplier<Attempt<T>> attempts) {
+    if (requestOptions.isExpired()) {
+      return CompletableFuture.failedFuture(deadlineExceeded(endpoint));
+    }
+    return new Execution<>(endpoint, method, requestOptions, retryable && policy.isEnabled(), attempts).start();
+  }
+
+  /**
+   * Attempts of a single request with the timers of its deadline and of the delay before the next attempt.
+   */
+  private final class Execution<T> {
+
+    private final String endpoint;
+    private final String method;
+    private final RequestOptions requestOptions;
+    private final boolean retrying;
+    private final Supplier<Attempt<T>> attempts;
+    private final CompletableFuture<T> result = new CompletableFuture<>();
+    private long deadline;
+    private Attempt<T> current;
+    private long deadlineTimer = -1;
+    private long delayTimer = -1;
+
+    Execution(String endpoint, String method, RequestOptions requestOptions, boolean retrying,
+              Supplier<Attempt<T>> attempts) {
+      this.endpoint = endpoint;
+      this.method = method;
+      this.requestOptions = requestOptions;
+      this.retrying = retrying;
+      this.attempts = attempts;
+    }
+
+    CompletableFuture<T> start() {
+      if (retrying) {
+        budget.requestSent();
+        deadline = System.nanoTime() + policy.getDeadline().toNanos();
+      }
+      if (requestOptions.hasDeadline()) {
+        deadline = retrying
+                   ? Math.min(deadline, System.nanoTime() + requestOptions.remainingNanos())
+                   : System.nanoTime() + requestOptions.remainingNanos();
+        long timer = vertx.setTimer(Math.max(1, requestOptions.remainingMillis()),
+          id -> result.completeExceptionally(deadlineExceeded(endpoint)));
+        synchronized (this) {
+          deadlineTimer = timer;
+        }
+      }
+      result.whenComplete((value, throwable) -> stop());
+      attempt(1);
+      return result;
+    }
+
+    private void attempt(int number) {
+      var attempt = attempts.get();
+      synchronized (this) {
+        current = attempt;
+      }
+      if (result.isDone()) {
+        attempt.cancel();
+        return;
+      }
+      attempt.result().whenComplete((value, throwable) -> {
+        if (throwable == null) {
+          result.complete(value);
+          return;
+        }
+        var reason = retrying ? retryReason(unwrap(throwable), attempt) : null;
+        if (reason == null || result.isDone()) {
+          result.completeExceptionally(throwable);
+          return;
+        }
+
+        long delay = delayNanos(number, attempt.context());
+        var exhausted = exhaustedBy(number, delay, deadline);
+        if (exhausted != null) {
+          metrics.recordRetriesExhausted(endpoint, method, exhausted);
+          result.completeExceptionally(throwable);
+          return;
+        }
+
+        metrics.recordRetry(endpoint, method, reason);
+        log.info("Retrying RMAPI request: endpoint = [{}], attempt = [{}], reason = [{}], delay = [{}] ms", endpoint,
+          number + 1, reason, TimeUnit.NANOSECONDS.toMillis(delay));
+        long timer = vertx.setTimer(Math.max(1, TimeUnit.NANOSECONDS.toMillis(delay)), id -> attempt(number + 1));
+        synchronized (this) {
+          delayTimer = timer;
+        }
+      });
+    }
+
+    private void stop() {
+      Attempt<T> attempt;
+      synchronized (this) {
+        attempt = current;
+        cancelTimer(deadlineTimer);
+        cancelTimer(delayTimer);
+      }
+      if (attempt != null && !attempt.result().isDone()) {
+        attempt.cancel();
+      }
+    }
+
+    private void cancelTimer(long timer) {
+      if (timer >= 0) {
+        vertx.cancelTimer(timer);
+      }
+    }
+  }
+
+  /**
+   * @return reason of a retryable failure used as metric tag, null if the failure must not be retried
+   */
+  private String retryReason(Throwable failure, Attempt<?> attempt) {
+    if (failure instanceof ServiceResponseException responseException) {
+      var code = responseException.getCode();
+      return code != null && policy.getRetryableStatusCodes().contains(code) ? String.valueOf(code) : null;
+    }
+    var context = attempt.context();
+    if (failure instanceof ServiceException || context == null) {
+      return null;
+    }
+    if (!attempt.replayable() && context.getResponse() != null) {
+      // part of the body may have been handed over already
+      return null;
+    }
+    return failure.getClass().getSimpleName();
+  }
+
+  private String exhaustedBy(int number, long delay, long deadline) {
+    if (number >= policy.getMaxAttempts()) {
+      return EXHAUSTED_ATTEMPTS;
+    }
+    if (System.nanoTime() + delay - deadline > 0) {
+      return EXHAUSTED_DEADLINE;
+    }
+    if (!budget.tryWithdraw()) {
+      return EXHAUSTED_BUDGET;
+    }
+    return null;
+  }
+
+  private long delayNanos(int number, HoldingsInteractionContext context) {
+    if (context != null && context.getResponse() != null) {
+      long retryAfter = retryAfterNanos(context.getResponse().getHeader(RETRY_AFTER));
+      if (retryAfter >= 0) {
+        return retryAfter;
+      }
+    }
+    long backoff = policy.getInitialBackoff().toNanos() << Math.min(number - 1, MAX_BACKOFF_SHIFT);
+    long cap = backoff <= 0 ? policy.getMaxBackoff().toNanos() : Math.min(backoff, policy.getMaxBackoff().toNanos());
+    return ThreadLocalRandom.current().nextLong(cap + 1);
+  }
+
+  /**
+   * @param retryAfter value of the Retry-After header, either delay seconds or an HTTP date
+   * @return time to wait, -1 if the value is missing or invalid
+   */
+  static long retryAfterNanos(String retryAfter) {
+    if (retryAfter == null || retryAfter.isBlank()) {
+      return -1;
+    }
+    try {
+      return Math.max(0, TimeUnit.SECONDS.toNanos(Long.parseLong(retryAfter.trim())));
+    } catch (NumberFormatException e) {
+      // not delay seconds, try an HTTP date
+    }
+    try {
+      var date = ZonedDateTime.parse(retryAfter.trim(), DateTimeFormatter.RFC_1123_DATE_TIME);
+      return Math.max(0, Duration.between(ZonedDateTime.now(date.getZone()), date).toNanos());
+    } catch (DateTimeParseException e) {
+      return -1;
+    }
+  }
+
+  private static DeadlineExceededException deadlineExceeded(String endpoint) {
+    return new DeadlineExceededException("RMAPI request did not complete before the deadline: endpoint = ["
+                                         + endpoint + "]");
+  }
+
+  private static Throwable unwrap(Throwable throwable) {
+    return throwable instanceof CompletionException && throwable.getCause() != null
+           ? throwable.getCause()
+           : throwable;
+  }
+
+  /**
+   * A single attempt of a request.
+   *
+   * @param result result of the attempt
+   * @param observation observation of the attempt, null if it was answered without calling the RM API
+   * @param replayable false if the response body is handed over while it is received, such attempts are not retried
+   *                   once the response started
+   */
+  record Attempt<T>(CompletableFuture<T> result, RequestObservation observation, boolean replayable) {
+
+    static <T> Attempt<T> of(RequestObservation observation, CompletableFuture<T> result) {
+      return new Attempt<>(observation.observe(result), observation, true);
+    }
+
+    /**
+     * @return interaction of the attempt, null if it was answered without calling the RM API
+     */
+    HoldingsInteractionContext context() {
+      return observation == null ? null : observation.context();
+    }
+
+    /**
+     * Abandons the attempt, the request is reset if it was sent already and the result is cancelled.
+     */
+    void cancel() {
+      if (observation != null) {
+        observation.cancel();
+      }
+      result.cancel(false);
+    }
+  }
+}
@@ -2,12 +2,14 @@ package org.folio.holdingsiq.service.impl;
 
 import static java.lang.String.format;
 
+import static org.folio.holdingsiq.service.impl.HoldingsRequestHelper.LISTS_PATH;
 import static org.folio.holdingsiq.service.impl.HoldingsRequestHelper.PACKAGES_PATH;
 import static org.folio.holdingsiq.service.impl.HoldingsRequestHelper.TITLES_PATH;
 import static org.folio.holdingsiq.service.impl.HoldingsRequestHelper.VENDORS_PATH;
-import static org.folio.holdingsiq.service.impl.HoldingsRequestHelper.successBodyLogger;
 
 import java.util.concurrent.CompletableFuture;
+import java.util.function.BiConsumer;
+import java.util.stream.Stream;
 
 import io.vertx.core.Vertx;
 
@@ -17,6 +19,11 @@ import org.folio.holdingsiq.model.ResourceId;
 import org.folio.holdingsiq.model.ResourcePut;
 import org.folio.holdingsiq.model.ResourceSelectedPayload;
 import org.folio.holdingsiq.model.Title;
+import org.folio.holdingsiq.service.BatchOptions;
+import org.folio.holdingsiq.service.BatchReport;
+import org.folio.holdingsiq.service.HoldingsIQClientOptions;
+import org.folio.holdingsiq.service.RequestOptions;
+import org.folio.holdingsiq.service.ResourceOperation;
 import org.folio.holdingsiq.service.ResourcesHoldingsIQService;
 
 public class ResourcesHoldingsIQServiceImpl implements ResourcesHoldingsIQService {
@@ -25,8 +32,20 @@ public class ResourcesHoldingsIQServiceImpl implements ResourcesHoldingsIQServic
   private final HoldingsRequestHelper holdingsRequestHelper;
 
   public ResourcesHoldingsIQServiceImpl(Configuration config, Vertx vertx) {
-    holdingsRequestHelper = new HoldingsRequestHelper(config, vertx);
-    holdingsRequestHelper.addBodyListener(successBodyLogger());
+    this(config, vertx, HoldingsIQClientOptions.defaults());
+  }
+
+  public ResourcesHoldingsIQServiceImpl(Configuration config, Vertx vertx, HoldingsIQClientOptions options) {
+    holdingsRequestHelper = new HoldingsRequestHelper(config, vertx, options);
+  }
+
+  private ResourcesHoldingsIQServiceImpl(HoldingsRequestHelper holdingsRequestHelper) {
+    this.holdingsRequestHelper = holdingsRequestHelper;
+  }
+
+  @Override
+  public ResourcesHoldingsIQService withRequestOptions(RequestOptions requestOptions) {
+    return new ResourcesHoldingsIQServiceImpl(holdingsRequestHelper.withRequestOptions(requestOptions));
   }
 
   @Override
@@ -39,20 +58,56 @@ public class ResourcesHoldingsIQServiceImpl implements ResourcesHoldingsIQServic
 
   @Override
   public CompletableFuture<Title> postResource(ResourceSelectedPayload resourcePost, ResourceId resourceId) {
-    final String path = format(RESOURCE_ENDPOINT_FORMAT, resourceId.providerIdPart(), resourceId.packageIdPart(), resourceId.titleIdPart());
-    return holdingsRequestHelper.putRequest(holdingsRequestHelper.constructURL(path), resourcePost)
-      .thenCompose(o -> this.retrieveResource(resourceId));
+    return holdingsRequestHelper.thenCall(selectResource(resourcePost, resourceId),
+      o -> this.retrieveResource(resourceId));
   }
 
 
   public CompletableFuture<Void> updateResource(ResourceId parsedResourceId, ResourcePut resourcePutBody) {
     final String path = VENDORS_PATH + '/' + parsedResourceId.providerIdPart() + '/' + PACKAGES_PATH + '/' + parsedResourceId.packageIdPart() + '/' + TITLES_PATH + '/' + parsedResourceId.titleIdPart();
-    return holdingsRequestHelper.putRequest(holdingsRequestHelper.constructURL(path), resourcePutBody);
+    var put = holdingsRequestHelper.putRequest(holdingsRequestHelper.constructURL(path), resourcePutBody);
+    return holdingsRequestHelper.whenComplete(put, (o, throwable) -> invalidateRelatedResponses(parsedResourceId));
   }
 
   @Override
   public CompletableFuture<Void> deleteResource(ResourceId parsedResourceId) {
     final String path = VENDORS_PATH + '/' + parsedResourceId.providerIdPart() + '/' + PACKAGES_PATH + '/' + parsedResourceId.packageIdPart() + '/' + TITLES_PATH + '/' + parsedResourceId.titleIdPart();
-    return holdingsRequestHelper.putRequest(holdingsRequestHelper.constructURL(path), new ResourceDeletePayload(false));
+    var put = holdingsRequestHelper.putRequest(holdingsRequestHelper.constructURL(path), new ResourceDeletePayload(false));
+    return holdingsRequestHelper.whenComplete(put, (o, throwable) -> invalidateRelatedResponses(parsedResourceId));
+  }
+
+  @Override
+  public CompletableFuture<BatchReport<ResourceOperation>> applyResourceOperations(
+    Stream<ResourceOperation> operations, BatchOptions batchOptions, BiConsumer<ResourceOperation, Title> onSelected) {
+    return holdingsRequestHelper.pipeline(operations, batchOptions, ResourceOperation::getResourceId,
+      operation -> switch (operation.getType()) {
+        case SELECT -> batchOptions.isReadBack()
+                       ? postResource(operation.getSelectedPayload(), operation.getResourceId())
+                       : selectResource(operation.getSelectedPayload(), operation.getResourceId());
+        case UPDATE -> updateResource(operation.getResourceId(), operation.getResourcePut());
+        case DELETE -> deleteResource(operation.getResourceId());
+      },
+      (operation, value) -> {
+        if (value instanceof Title title) {
+          onSelected.accept(operation, title);
+        }
+      });
+  }
+
+  @Override
+  public CompletableFuture<Void> selectResource(ResourceSelectedPayload resourcePost, ResourceId resourceId) {
+    final String path = format(RESOURCE_ENDPOINT_FORMAT, resourceId.providerIdPart(), resourceId.packageIdPart(), resourceId.titleIdPart());
+    var put = holdingsRequestHelper.putRequest(holdingsRequestHelper.constructURL(path), resourcePost);
+    return holdingsRequestHelper.whenComplete(put, (o, throwable) -> invalidateRelatedResponses(resourceId));
+  }
+
+  /**
+   * Selection of a resource is also part of its title and changes the selected count of its package.
+   */
+  private void invalidateRelatedResponses(ResourceId resourceId) {
+    holdingsRequestHelper.invalidateCachedResponses(
+      holdingsRequestHelper.constructURL(TITLES_PATH + '/' + resourceId.titleIdPart()));
+    holdingsRequestHelper.invalidateCachedResponses(
+      holdingsRequestHelper.constructURLv2(LISTS_PATH + '/' + resourceId.packageIdPart()));
   }
 }
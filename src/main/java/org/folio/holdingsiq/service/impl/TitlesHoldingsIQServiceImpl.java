@@ -1,15 +1,16 @@
 package org.folio.holdingsiq.service.impl;
 
-import static java.util.concurrent.CompletableFuture.completedFuture;
 import static org.folio.holdingsiq.service.impl.HoldingsRequestHelper.PACKAGES_PATH;
 import static org.folio.holdingsiq.service.impl.HoldingsRequestHelper.TITLES_PATH;
 import static org.folio.holdingsiq.service.impl.HoldingsRequestHelper.VENDORS_PATH;
-import static org.folio.holdingsiq.service.impl.HoldingsRequestHelper.successBodyLogger;
 
 import io.vertx.core.Vertx;
+import io.vertx.core.streams.ReadStream;
+import java.util.Collection;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
+import java.util.function.BiConsumer;
 import java.util.function.Predicate;
 import org.folio.holdingsiq.model.Configuration;
 import org.folio.holdingsiq.model.FilterQuery;
@@ -19,7 +20,12 @@ import org.folio.holdingsiq.model.Title;
 import org.folio.holdingsiq.model.TitleCreated;
 import org.folio.holdingsiq.model.TitlePost;
 import org.folio.holdingsiq.model.Titles;
+import org.folio.holdingsiq.service.BatchOptions;
+import org.folio.holdingsiq.service.BatchResult;
+import org.folio.holdingsiq.service.HoldingsIQClientOptions;
+import org.folio.holdingsiq.service.RequestOptions;
 import org.folio.holdingsiq.service.TitlesHoldingsIQService;
+import org.folio.holdingsiq.service.impl.PagedReadStream.Page;
 import org.folio.holdingsiq.service.impl.urlbuilder.TitlesFilterableUrlBuilder;
 
 public class TitlesHoldingsIQServiceImpl implements TitlesHoldingsIQService {
@@ -27,8 +33,20 @@ public class TitlesHoldingsIQServiceImpl implements TitlesHoldingsIQService {
   private final HoldingsRequestHelper holdingsRequestHelper;
 
   public TitlesHoldingsIQServiceImpl(Configuration config, Vertx vertx) {
-    holdingsRequestHelper = new HoldingsRequestHelper(config, vertx);
-    holdingsRequestHelper.addBodyListener(successBodyLogger());
+    this(config, vertx, HoldingsIQClientOptions.defaults());
+  }
+
+  public TitlesHoldingsIQServiceImpl(Configuration config, Vertx vertx, HoldingsIQClientOptions options) {
+    holdingsRequestHelper = new HoldingsRequestHelper(config, vertx, options);
+  }
+
+  private TitlesHoldingsIQServiceImpl(HoldingsRequestHelper holdingsRequestHelper) {
+    this.holdingsRequestHelper = holdingsRequestHelper;
+  }
+
+  @Override
+  public TitlesHoldingsIQService withRequestOptions(RequestOptions requestOptions) {
+    return new TitlesHoldingsIQServiceImpl(holdingsRequestHelper.withRequestOptions(requestOptions));
   }
 
   @Override
@@ -40,53 +58,99 @@ public class TitlesHoldingsIQServiceImpl implements TitlesHoldingsIQService {
   @Override
   public CompletableFuture<Titles> retrieveTitles(String rmapiQuery) {
     var path = String.format("titles?%s", rmapiQuery);
-    return getTitles(path)
-      .thenCompose(titles -> completedFuture(postProcessTitles(titles)));
+    return holdingsRequestHelper.thenMap(getTitles(path), this::postProcessTitles);
   }
 
   @Override
   public CompletableFuture<Titles> retrieveTitles(FilterQuery filterQuery, String searchType,
                                                   Sort sort, int page, int count) {
-    String query = new TitlesFilterableUrlBuilder()
-      .filter(filterQuery)
-      .searchType(searchType)
-      .sort(sort)
-      .page(page)
-      .count(count)
-      .build();
+    String query = titlesQuery(filterQuery, searchType, sort, page, count);
 
-    return getTitles(TITLES_PATH + "?" + query)
-      .thenCompose(titles -> completedFuture(postProcessTitles(titles)));
+    return holdingsRequestHelper.thenMap(getTitles(TITLES_PATH + "?" + query), this::postProcessTitles);
   }
 
   @Override
   public CompletableFuture<Titles> retrieveTitles(int providerId, int packageId, FilterQuery filterQuery,
                                                   String searchType, Sort sort,
                                                   int page, int count) {
-    String query = new TitlesFilterableUrlBuilder()
-      .filter(filterQuery)
-      .searchType(searchType)
-      .sort(sort)
-      .page(page)
-      .count(count)
-      .build();
+    String query = titlesQuery(filterQuery, searchType, sort, page, count);
 
-    String titlesPath = VENDORS_PATH + '/' + providerId + '/' + PACKAGES_PATH + '/' + packageId + '/' + TITLES_PATH;
+    return holdingsRequestHelper.thenMap(getTitles(packageTitlesPath(providerId, packageId) + "?" + query),
+      this::postProcessTitles);
+  }
+
+  @Override
+  public ReadStream<Title> streamTitles(FilterQuery filterQuery, String searchType, Sort sort, int count,
+                                        int prefetchPages) {
+    return holdingsRequestHelper.pagedStream(page ->
+      getTitlesPage(TITLES_PATH + "?" + titlesQuery(filterQuery, searchType, sort, page, count), page, count),
+      prefetchPages);
+  }
+
+  @Override
+  public ReadStream<Title> streamTitles(int providerId, int packageId, FilterQuery filterQuery, String searchType,
+                                        Sort sort, int count, int prefetchPages) {
+    String titlesPath = packageTitlesPath(providerId, packageId);
+    return holdingsRequestHelper.pagedStream(page ->
+      getTitlesPage(titlesPath + "?" + titlesQuery(filterQuery, searchType, sort, page, count), page, count),
+      prefetchPages);
+  }
 
-    return getTitles(titlesPath + "?" + query)
-      .thenCompose(titles -> completedFuture(postProcessTitles(titles)));
+  @Override
+  public CompletableFuture<BatchResult<Integer, Title>> retrieveTitles(Collection<Integer> titleIds,
+                                                                       BatchOptions batchOptions,
+                                                                       BiConsumer<Integer, Title> onTitle) {
+    return holdingsRequestHelper.batch(titleIds, batchOptions, this::retrieveTitle, onTitle);
   }
 
   @Override
   public CompletableFuture<Title> postTitle(TitlePost titlePost, PackageId packageId) {
-    return this.createTitle(titlePost, packageId)
-      .thenCompose(titleCreated -> retrieveTitle(titleCreated.titleId()));
+    return holdingsRequestHelper.thenCall(createTitle(titlePost, packageId), this::retrieveTitle);
+  }
+
+  @Override
+  public CompletableFuture<Integer> createTitle(TitlePost titlePost, PackageId packageId) {
+    final String path = VENDORS_PATH + '/' + packageId.providerIdPart() + '/'
+                        + PACKAGES_PATH + '/' + packageId.packageIdPart() + '/'
+                        + TITLES_PATH;
+    var titleCreated =
+      holdingsRequestHelper.postRequest(holdingsRequestHelper.constructURL(path), titlePost, TitleCreated.class);
+    return holdingsRequestHelper.thenMap(titleCreated, TitleCreated::titleId);
   }
 
   private CompletableFuture<Titles> getTitles(String path) {
     return holdingsRequestHelper.getRequest(holdingsRequestHelper.constructURL(path), Titles.class);
   }
 
+  /**
+   * Whether the page is the last one is decided before invalid titles are removed from it.
+   */
+  private CompletableFuture<Page<Title>> getTitlesPage(String path, int page, int count) {
+    return holdingsRequestHelper.thenMap(getTitles(path), titles -> {
+      if (titles.getTitleList() == null) {
+        return new Page<>(null, true);
+      }
+      boolean last = titles.getTitleList().size() < count
+                     || titles.getTotalResults() != null && (long) page * count >= titles.getTotalResults();
+      removeInvalidObjects(titles);
+      return new Page<>(titles.getTitleList(), last);
+    });
+  }
+
+  private String titlesQuery(FilterQuery filterQuery, String searchType, Sort sort, int page, int count) {
+    return new TitlesFilterableUrlBuilder()
+      .filter(filterQuery)
+      .searchType(searchType)
+      .sort(sort)
+      .page(page)
+      .count(count)
+      .build();
+  }
+
+  private String packageTitlesPath(int providerId, int packageId) {
+    return VENDORS_PATH + '/' + providerId + '/' + PACKAGES_PATH + '/' + packageId + '/' + TITLES_PATH;
+  }
+
   private Titles postProcessTitles(Titles titles) {
     int initialSize = titles.getTitleList().size();
     removeInvalidObjects(titles);
@@ -110,11 +174,4 @@ public class TitlesHoldingsIQServiceImpl implements TitlesHoldingsIQService {
       .map(total -> total - removedCount)
       .orElse(0);
   }
-
-  private CompletableFuture<TitleCreated> createTitle(TitlePost entity, PackageId packageId) {
-    final String path = VENDORS_PATH + '/' + packageId.providerIdPart() + '/'
-                        + PACKAGES_PATH + '/' + packageId.packageIdPart() + '/'
-                        + TITLES_PATH;
-    return holdingsRequestHelper.postRequest(holdingsRequestHelper.constructURL(path), entity, TitleCreated.class);
-  }
 }
@@ -0,0 +1,41 @@
+package org.folio.holdingsiq.service.impl;
+
+import java.util.concurrent.TimeUnit;
+import org.folio.holdingsiq.service.RateLimit;
+
+/**
+ * Token bucket implemented as a generic cell rate algorithm: instead of counting tokens it keeps the theoretical
+ * arrival time of the next request, so reserving a turn is a constant time operation and waiting requests are served
+ * in the order they asked.
+ */
+class TokenBucket {
+
+  private final long interval;
+  private final long tolerance;
+  private final long maxWait;
+  private long theoreticalArrival;
+
+  TokenBucket(RateLimit rateLimit) {
+    double rate = rateLimit.getRequestsPerSecond() * rateLimit.getUtilization();
+    this.interval = (long) (TimeUnit.SECONDS.toNanos(1) / rate);
+    this.tolerance = interval * Math.max(0, rateLimit.getBurst() - 1L);
+    this.maxWait = rateLimit.getMaxWait().toNanos();
+    this.theoreticalArrival = System.nanoTime();
+  }
+
+  /**
+   * Reserves the next turn.
+   *
+   * @return time to wait for the turn, 0 if the request may be sent right away and -1 if it would have to wait longer
+   *         than allowed, no turn is reserved then
+   */
+  synchronized long reserve(long now) {
+    long arrival = Math.max(theoreticalArrival, now);
+    long wait = Math.max(0, arrival - tolerance - now);
+    if (wait > maxWait) {
+      return -1;
+    }
+    theoreticalArrival = arrival + interval;
+    return wait;
+  }
+}
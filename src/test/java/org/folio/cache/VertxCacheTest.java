@@ -1,13 +1,20 @@
 package org.folio.cache;
 
+import static org.awaitility.Awaitility.await;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
 
+import java.time.Duration;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Supplier;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 import io.vertx.core.Vertx;
 
@@ -15,7 +22,13 @@ class VertxCacheTest {
 
   private static final String KEY = "key";
   private static final String VALUE = "value";
-  private final VertxCache<String, String> testCache = new VertxCache<>(Vertx.vertx(), 60, "testCache");
+  private final Vertx vertx = Vertx.vertx();
+  private final VertxCache<String, String> testCache = new VertxCache<>(vertx, 60, "testCache");
+
+  @AfterEach
+  void tearDown() {
+    vertx.close();
+  }
 
   @Test
   void shouldInitiallyReturnNull() {
@@ -61,10 +74,177 @@ class VertxCacheTest {
     assertNull(testCache.getValue(KEY));
   }
 
+  @Test
+  void shouldShareInFlightLoadBetweenConcurrentMisses() {
+    var pendingLoad = new CompletableFuture<String>();
+    Supplier<CompletableFuture<String>> loader = spy(new PendingProducer(pendingLoad));
+
+    CompletableFuture<String> first = testCache.getValueOrLoad(KEY, loader);
+    CompletableFuture<String> second = testCache.getValueOrLoad(KEY, loader);
+    pendingLoad.complete(VALUE);
+
+    assertEquals(VALUE, first.join());
+    assertEquals(VALUE, second.join());
+    assertEquals(VALUE, testCache.getValue(KEY));
+    assertEquals(1, testCache.getCoalescedLoadCount());
+    verify(loader).get();
+  }
+
+  @Test
+  void shouldNotCacheFailedLoad() {
+    var failedLoad = new CompletableFuture<String>();
+    CompletableFuture<String> first = testCache.getValueOrLoad(KEY, new PendingProducer(failedLoad));
+    CompletableFuture<String> second = testCache.getValueOrLoad(KEY, new TestProducer());
+    failedLoad.completeExceptionally(new IllegalStateException("load failed"));
+
+    assertThrows(CompletionException.class, first::join);
+    assertThrows(CompletionException.class, second::join);
+    assertNull(testCache.getValue(KEY));
+
+    Supplier<CompletableFuture<String>> loader = spy(new TestProducer());
+    assertEquals(VALUE, testCache.getValueOrLoad(KEY, loader).join());
+    verify(loader).get();
+  }
+
+  @Test
+  void shouldNotCacheValueLoadedBeforeInvalidation() {
+    var pendingLoad = new CompletableFuture<String>();
+    CompletableFuture<String> returnedValue = testCache.getValueOrLoad(KEY, new PendingProducer(pendingLoad));
+    testCache.invalidate(KEY);
+    pendingLoad.complete(VALUE);
+
+    assertEquals(VALUE, returnedValue.join());
+    assertNull(testCache.getValue(KEY));
+  }
+
+  @Test
+  void shouldExpireValue() {
+    var cache = new VertxCache<String, String>(vertx, "expiringCache",
+      CacheSettings.builder().expirationTime(Duration.ofMillis(50)).build());
+    cache.putValue(KEY, VALUE);
+
+    assertEquals(VALUE, cache.getValue(KEY));
+    await().atMost(1, TimeUnit.SECONDS).until(() -> cache.getValue(KEY) == null);
+    assertEquals(0, cache.size());
+  }
+
+  @Test
+  void shouldNotExceedMaximumSize() {
+    var cache = boundedCache(10);
+    for (int i = 0; i < 100; i++) {
+      cache.putValue("key-" + i, VALUE);
+    }
+
+    assertTrue(cache.size() <= 10);
+  }
+
+  @Test
+  void shouldKeepFrequentlyUsedValuesWhenFull() {
+    var cache = boundedCache(100);
+    for (int i = 0; i < 10; i++) {
+      cache.putValue("hot-" + i, VALUE);
+    }
+    for (int round = 0; round < 5; round++) {
+      for (int i = 0; i < 10; i++) {
+        cache.getValue("hot-" + i);
+      }
+    }
+
+    for (int i = 0; i < 1000; i++) {
+      cache.putValue("cold-" + i, VALUE);
+    }
+
+    assertTrue(cache.size() <= 100);
+    for (int i = 0; i < 10; i++) {
+      assertEquals(VALUE, cache.getValue("hot-" + i));
+    }
+  }
+
+  @Test
+  void shouldRemoveExpiredValuesPeriodically() {
+    var cache = new VertxCache<String, String>(vertx, "sweptCache", CacheSettings.builder()
+      .expirationTime(Duration.ofMillis(50))
+      .sweepInterval(Duration.ofMillis(20))
+      .build());
+    for (int i = 0; i < 5; i++) {
+      cache.putValue("key-" + i, VALUE);
+    }
+
+    await().atMost(1, TimeUnit.SECONDS).until(() -> cache.size() == 0);
+    cache.close();
+  }
+
+  @Test
+  void shouldReturnCachedValueAndRefreshItAhead() {
+    var cache = new VertxCache<String, String>(vertx, "refreshedCache", CacheSettings.builder()
+      .expirationTime(Duration.ofSeconds(1))
+      .refreshAheadFactor(0.1)
+      .build());
+    cache.putValue(KEY, VALUE);
+    await().pollDelay(200, TimeUnit.MILLISECONDS).until(() -> true);
+
+    var pendingLoad = new CompletableFuture<String>();
+    Supplier<CompletableFuture<String>> loader = spy(new PendingProducer(pendingLoad));
+    assertEquals(VALUE, cache.getValueOrLoad(KEY, loader).join());
+    assertEquals(VALUE, cache.getValueOrLoad(KEY, loader).join());
+    pendingLoad.complete("refreshed");
+
+    assertEquals("refreshed", cache.getValue(KEY));
+    verify(loader).get();
+  }
+
+  @Test
+  void shouldKeepValueWhenRefreshFails() {
+    var cache = new VertxCache<String, String>(vertx, "refreshedCache", CacheSettings.builder()
+      .expirationTime(Duration.ofSeconds(1))
+      .refreshAheadFactor(0.1)
+      .build());
+    cache.putValue(KEY, VALUE);
+    await().pollDelay(200, TimeUnit.MILLISECONDS).until(() -> true);
+
+    var failedLoad = CompletableFuture.<String>failedFuture(new IllegalStateException("load failed"));
+    assertEquals(VALUE, cache.getValueOrLoad(KEY, () -> failedLoad).join());
+    assertEquals(VALUE, cache.getValue(KEY));
+  }
+
+  @Test
+  void shouldReturnStaleValueWhenLoadFails() {
+    var cache = new VertxCache<String, String>(vertx, "staleCache", CacheSettings.builder()
+      .expirationTime(Duration.ofMillis(50))
+      .staleIfError(Duration.ofMinutes(1))
+      .build());
+    cache.putValue(KEY, VALUE);
+    await().atMost(1, TimeUnit.SECONDS).until(() -> cache.getValue(KEY) == null);
+
+    var failedLoad = CompletableFuture.<String>failedFuture(new IllegalStateException("load failed"));
+    assertEquals(VALUE, cache.getValueOrLoad(KEY, () -> failedLoad).join());
+    assertEquals("new value", cache.getValueOrLoad(KEY, () -> CompletableFuture.completedFuture("new value")).join());
+  }
+
+  private VertxCache<String, String> boundedCache(long maximumSize) {
+    return new VertxCache<>(vertx, "boundedCache", CacheSettings.builder()
+      .expirationTime(Duration.ofMinutes(1))
+      .maximumSize(maximumSize)
+      .build());
+  }
+
   private static class TestProducer implements Supplier<CompletableFuture<String>> {
     @Override
     public CompletableFuture<String> get() {
       return CompletableFuture.completedFuture(VALUE);
     }
   }
+
+  private static class PendingProducer implements Supplier<CompletableFuture<String>> {
+    private final CompletableFuture<String> future;
+
+    private PendingProducer(CompletableFuture<String> future) {
+      this.future = future;
+    }
+
+    @Override
+    public CompletableFuture<String> get() {
+      return future;
+    }
+  }
 }
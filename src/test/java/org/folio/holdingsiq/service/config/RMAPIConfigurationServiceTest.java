@@ -9,10 +9,19 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mockStatic;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.trace.propagation.W3CTraceContextPropagator;
+import io.opentelemetry.context.propagation.ContextPropagators;
+import io.opentelemetry.sdk.OpenTelemetrySdk;
+import io.opentelemetry.sdk.testing.exporter.InMemorySpanExporter;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.export.SimpleSpanProcessor;
 import io.vertx.core.MultiMap;
 import io.vertx.core.Vertx;
 import io.vertx.core.buffer.Buffer;
@@ -125,6 +134,29 @@ class RMAPIConfigurationServiceTest {
     verifyCredentialsRequest();
   }
 
+  @Test
+  void shouldTraceCredentialsRequest() throws Exception {
+    var spanExporter = InMemorySpanExporter.create();
+    var openTelemetry = OpenTelemetrySdk.builder()
+      .setTracerProvider(SdkTracerProvider.builder().addSpanProcessor(SimpleSpanProcessor.create(spanExporter)).build())
+      .setPropagators(ContextPropagators.create(W3CTraceContextPropagator.getInstance()))
+      .build();
+    try (var mocked = mockStatic(WebClient.class)) {
+      mocked.when(() -> WebClient.create(vertx)).thenReturn(webClient);
+      service = new ConfigurationServiceImpl(vertx, openTelemetry);
+    }
+    mockCredentialsRequest();
+    when(httpResponse.statusCode()).thenReturn(SC_OK);
+    when(httpResponse.bodyAsJsonObject()).thenReturn(CredentialsBuilder.instance().id(USER_CRED_ID).build());
+
+    service.retrieveConfiguration(OKAPI_DATA).get();
+
+    var span = spanExporter.getFinishedSpanItems().getFirst();
+    assertEquals("GET " + USER_CREDS_URL, span.getName());
+    assertEquals(200L, span.getAttributes().get(AttributeKey.longKey("http.response.status_code")));
+    verify(httpRequest).putHeader(eq("traceparent"), contains(span.getTraceId()));
+  }
+
   private void verifyCredentialsRequest() {
     verify(webClient).get(OKAPI_DATA.getPort(), OKAPI_DATA.getHost(), USER_CREDS_URL);
     verify(httpRequest).putHeader(XOkapiHeaders.TENANT, OKAPI_DATA.getTenant());
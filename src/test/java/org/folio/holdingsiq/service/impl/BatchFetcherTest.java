@@ -0,0 +1,63 @@
+package org.folio.holdingsiq.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import org.junit.jupiter.api.Test;
+
+class BatchFetcherTest {
+
+  private final Map<Integer, CompletableFuture<String>> requests = new LinkedHashMap<>();
+
+  @Test
+  void shouldKeepConcurrencyLimit() {
+    var fetcher = new BatchFetcher<Integer, String>(2, this::load, (key, value) -> { });
+
+    var result = fetcher.fetch(List.of(1, 2, 3, 4));
+
+    assertEquals(List.of(1, 2), List.copyOf(requests.keySet()));
+    requests.get(2).complete("two");
+    assertEquals(List.of(1, 2, 3), List.copyOf(requests.keySet()));
+    requests.get(1).complete("one");
+    requests.get(3).complete("three");
+    requests.get(4).complete("four");
+    assertEquals(List.of(1, 2, 3, 4), List.copyOf(result.join().getResults().keySet()));
+  }
+
+  @Test
+  void shouldCompleteWithResultsFromCache() {
+    List<Integer> delivered = new ArrayList<>();
+    var fetcher = new BatchFetcher<Integer, String>(1, key -> CompletableFuture.completedFuture("cached"),
+      (key, value) -> delivered.add(key));
+
+    var result = fetcher.fetch(List.of(1, 2, 2, 3));
+
+    assertTrue(result.isDone());
+    assertEquals(3, result.join().getResults().size());
+    assertEquals(List.of(1, 2, 3), delivered);
+  }
+
+  @Test
+  void shouldCancelRequestsInFlight() {
+    var fetcher = new BatchFetcher<Integer, String>(2, this::load, (key, value) -> { });
+
+    var result = fetcher.fetch(List.of(1, 2, 3));
+    result.cancel(false);
+
+    assertTrue(requests.get(1).isCancelled());
+    assertTrue(requests.get(2).isCancelled());
+    assertFalse(requests.containsKey(3));
+  }
+
+  private CompletableFuture<String> load(Integer key) {
+    var request = new CompletableFuture<String>();
+    requests.put(key, request);
+    return request;
+  }
+}
@@ -0,0 +1,59 @@
+package org.folio.holdingsiq.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+class BatchPipelineTest {
+
+  private final List<String> started = new ArrayList<>();
+  private final List<CompletableFuture<Object>> requests = new ArrayList<>();
+
+  @Test
+  void shouldRunOperationsOfSameKeyInOrder() {
+    var pipeline = new BatchPipeline<String>(4, operation -> operation.charAt(0), this::start, (op, value) -> { });
+
+    var report = pipeline.run(List.of("a1", "a2", "b1", "a3").iterator());
+
+    assertEquals(List.of("a1", "b1"), started);
+    requests.get(0).complete(null);
+    assertEquals(List.of("a1", "b1", "a2"), started);
+    requests.get(2).complete(null);
+    requests.get(1).complete(null);
+    requests.get(3).complete(null);
+    assertEquals(List.of("a1", "b1", "a2", "a3"), started);
+    assertEquals(4, report.join().getSucceeded());
+  }
+
+  @Test
+  void shouldPullOperationsLazily() {
+    var pipeline = new BatchPipeline<Integer>(2, operation -> operation, operation -> start("" + operation),
+      (op, value) -> { });
+    var pulled = new ArrayList<Integer>();
+
+    var report = pipeline.run(IntStream.range(0, 100).peek(pulled::add).boxed().iterator());
+
+    assertEquals(2, pulled.size());
+    requests.get(0).completeExceptionally(new IllegalStateException("failed"));
+    assertEquals(3, pulled.size());
+    while (requests.stream().anyMatch(request -> !request.isDone())) {
+      requests.stream().filter(request -> !request.isDone()).findFirst().orElseThrow().complete(null);
+    }
+    assertTrue(report.isDone());
+    assertEquals(100, report.join().getTotal());
+    assertEquals(99, report.join().getSucceeded());
+    assertEquals(IllegalStateException.class, report.join().getFailures().getFirst().getCause().getClass());
+  }
+
+  private CompletableFuture<Object> start(String operation) {
+    started.add(operation);
+    var request = new CompletableFuture<>();
+    requests.add(request);
+    return request;
+  }
+}
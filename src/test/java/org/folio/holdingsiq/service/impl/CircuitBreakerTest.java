@@ -0,0 +1,138 @@
+package org.folio.holdingsiq.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.folio.holdingsiq.service.CircuitBreakerPolicy;
+import org.folio.holdingsiq.service.CircuitBreakerState;
+
+class CircuitBreakerTest {
+
+  private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+  private static final long FAST = TimeUnit.MILLISECONDS.toNanos(10);
+
+  private final List<String> transitions = new ArrayList<>();
+  private CircuitBreaker circuitBreaker;
+  private long now;
+
+  @BeforeEach
+  void setUp() {
+    var policy = CircuitBreakerPolicy.builder()
+      .minimumCalls(4)
+      .failureRateThreshold(0.5)
+      .slowCallDuration(Duration.ofSeconds(1))
+      .slowCallRateThreshold(0.75)
+      .window(Duration.ofSeconds(10))
+      .openDuration(Duration.ofSeconds(5))
+      .halfOpenProbes(2)
+      .build();
+    circuitBreaker = new CircuitBreaker(policy, (from, to) -> transitions.add(from + "->" + to));
+    now = System.nanoTime();
+  }
+
+  @Test
+  void shouldOpenWhenFailureRateIsReached() {
+    call(false, FAST);
+    call(true, FAST);
+    call(false, FAST);
+    assertEquals(CircuitBreakerState.CLOSED, circuitBreaker.state());
+
+    call(true, FAST);
+
+    assertEquals(CircuitBreakerState.OPEN, circuitBreaker.state());
+    assertEquals(CircuitBreaker.REJECTED, circuitBreaker.tryAcquire(now));
+    assertEquals(List.of("CLOSED->OPEN"), transitions);
+  }
+
+  @Test
+  void shouldOpenWhenSlowCallRateIsReached() {
+    call(false, FAST);
+    call(false, 2 * SECOND);
+    call(false, 2 * SECOND);
+    call(false, 2 * SECOND);
+
+    assertEquals(CircuitBreakerState.OPEN, circuitBreaker.state());
+  }
+
+  @Test
+  void shouldForgetOutcomesOutsideOfWindow() {
+    call(true, FAST);
+    call(true, FAST);
+    call(true, FAST);
+    now += 11 * SECOND;
+
+    call(true, FAST);
+
+    assertEquals(CircuitBreakerState.CLOSED, circuitBreaker.state());
+  }
+
+  @Test
+  void shouldCloseWhenAllProbesSucceed() {
+    open();
+    now += 5 * SECOND;
+
+    long first = circuitBreaker.tryAcquire(now);
+    long second = circuitBreaker.tryAcquire(now);
+    assertEquals(CircuitBreaker.REJECTED, circuitBreaker.tryAcquire(now));
+    circuitBreaker.onResult(first, false, FAST, now);
+    circuitBreaker.onResult(second, false, FAST, now);
+
+    assertEquals(CircuitBreakerState.CLOSED, circuitBreaker.state());
+    assertEquals(List.of("CLOSED->OPEN", "OPEN->HALF_OPEN", "HALF_OPEN->CLOSED"), transitions);
+  }
+
+  @Test
+  void shouldOpenAgainWhenProbeFails() {
+    open();
+    now += 5 * SECOND;
+
+    long probe = circuitBreaker.tryAcquire(now);
+    circuitBreaker.onResult(probe, true, FAST, now);
+
+    assertEquals(CircuitBreakerState.OPEN, circuitBreaker.state());
+    assertEquals(CircuitBreaker.REJECTED, circuitBreaker.tryAcquire(now + SECOND));
+  }
+
+  @Test
+  void shouldIgnoreOutcomesOfRequestsSentBeforeOpening() {
+    long late = circuitBreaker.tryAcquire(now);
+    open();
+    now += 5 * SECOND;
+    circuitBreaker.tryAcquire(now);
+
+    circuitBreaker.onResult(late, true, FAST, now);
+
+    assertEquals(CircuitBreakerState.HALF_OPEN, circuitBreaker.state());
+  }
+
+  @Test
+  void shouldLetAnotherProbeThroughWhenPermitIsReleased() {
+    open();
+    now += 5 * SECOND;
+    long released = circuitBreaker.tryAcquire(now);
+    circuitBreaker.tryAcquire(now);
+
+    circuitBreaker.release(released);
+
+    assertNotEquals(CircuitBreaker.REJECTED, circuitBreaker.tryAcquire(now));
+    assertEquals(CircuitBreaker.REJECTED, circuitBreaker.tryAcquire(now));
+  }
+
+  private void open() {
+    for (int i = 0; i < 4; i++) {
+      call(true, FAST);
+    }
+    assertEquals(CircuitBreakerState.OPEN, circuitBreaker.state());
+  }
+
+  private void call(boolean failure, long duration) {
+    long permit = circuitBreaker.tryAcquire(now);
+    circuitBreaker.onResult(permit, failure, duration, now);
+  }
+}
@@ -0,0 +1,25 @@
+package org.folio.holdingsiq.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+class EndpointTemplatesTest {
+
+  @ParameterizedTest
+  @CsvSource({
+    "https://api.ebsco.io/rm/rmaccounts/cust/, /",
+    "https://api.ebsco.io/rm/rmaccounts/cust/proxies, proxies",
+    "https://api.ebsco.io/rm/rmaccounts/cust/vendors?search=abc&count=25, vendors",
+    "https://api.ebsco.io/rm/rmaccounts/cust/vendors/19/packages/2222/titles/3333, vendors/{id}/packages/{id}/titles/{id}",
+    "https://api.ebsco.io/rm/rmaccounts/v2/cust/lists/2222, v2/lists/{id}",
+    "https://api.ebsco.io/rm/rmaccounts/v2/cust/vendors/19/lists?count=25, v2/vendors/{id}/lists",
+    "https://api.ebsco.io/rm/rmaccounts/cust/reports/holdings/transactions/84113ab0-da4b-4a1f-a004-a9d686e54811"
+      + "?format=kbart2&count=2&offset=1, reports/holdings/transactions/{id}",
+    "not a url, /"
+  })
+  void shouldReplaceIdsAndDropCustomer(String url, String expected) {
+    assertEquals(expected, EndpointTemplates.of(url));
+  }
+}
@@ -1,19 +1,47 @@
 package org.folio.holdingsiq.service.impl;
 
 import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.containing;
 import static com.github.tomakehurst.wiremock.client.WireMock.equalTo;
 import static com.github.tomakehurst.wiremock.client.WireMock.get;
 import static com.github.tomakehurst.wiremock.client.WireMock.put;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import com.github.tomakehurst.wiremock.http.RequestMethod;
 import com.github.tomakehurst.wiremock.matching.RequestPatternBuilder;
 import com.github.tomakehurst.wiremock.matching.UrlPattern;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.api.trace.propagation.W3CTraceContextPropagator;
+import io.opentelemetry.context.propagation.ContextPropagators;
+import io.opentelemetry.sdk.OpenTelemetrySdk;
+import io.opentelemetry.sdk.testing.exporter.InMemorySpanExporter;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.export.SimpleSpanProcessor;
 import io.vertx.core.Vertx;
 import io.vertx.core.json.Json;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 import org.apache.hc.core5.http.HttpStatus;
+import org.folio.holdingsiq.model.Configuration;
 import org.folio.holdingsiq.model.RootProxyCustomLabels;
+import org.folio.holdingsiq.service.CircuitBreakerPolicy;
+import org.folio.holdingsiq.service.HoldingsIQClientOptions;
 import org.folio.holdingsiq.service.HoldingsIQService;
+import org.folio.holdingsiq.service.HoldingsInteractionContext;
+import org.folio.holdingsiq.service.HoldingsInterceptor;
+import org.folio.holdingsiq.service.exception.CircuitBreakerOpenException;
+import org.folio.holdingsiq.service.exception.ResourceNotFoundException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -67,4 +95,383 @@ class HoldingsIQServiceImplTest extends HoldingsIQServiceTestConfig {
     wm.verify(new RequestPatternBuilder(RequestMethod.GET, urlPattern));
     wm.verify(new RequestPatternBuilder(RequestMethod.PUT, urlPattern));
   }
+
+  @Test
+  void retrieveProxiesFailsWhenReadTimeoutIsExceeded() {
+    var options = HoldingsIQClientOptions.builder().readTimeout(Duration.ofMillis(200)).build();
+    var timeoutService = new HoldingsIQServiceImpl(getConfiguration(), Vertx.vertx(), options);
+    wm.stubFor(
+      get(urlPathEqualTo("/rm/rmaccounts/" + STUB_CUSTOMER_ID + "/proxies"))
+        .willReturn(aResponse().withStatus(HttpStatus.SC_OK).withBody("[]").withFixedDelay(2000))
+    );
+    var completableFuture = timeoutService.retrieveProxies();
+
+    assertFalse(isCompletedNormally(completableFuture));
+  }
+
+  @Test
+  void retrieveProxiesRecordsPoolWaitTime() {
+    var registry = new SimpleMeterRegistry();
+    var options = HoldingsIQClientOptions.builder().meterRegistry(registry).build();
+    var meteredService = new HoldingsIQServiceImpl(getConfiguration(), Vertx.vertx(), options);
+    wm.stubFor(
+      get(urlPathEqualTo("/rm/rmaccounts/" + STUB_CUSTOMER_ID + "/proxies"))
+        .willReturn(aResponse().withStatus(HttpStatus.SC_OK).withBody("[]"))
+    );
+
+    assertTrue(isCompletedNormally(meteredService.retrieveProxies()));
+    assertEquals(1, registry.get(HoldingsClientMetrics.POOL_WAIT).timer().count());
+  }
+
+  @Test
+  void retrieveProxiesRecordsRequestTimings() {
+    var registry = new SimpleMeterRegistry();
+    var options = HoldingsIQClientOptions.builder().meterRegistry(registry).build();
+    var meteredService = new HoldingsIQServiceImpl(getConfiguration(), Vertx.vertx(), options);
+    wm.stubFor(
+      get(urlPathEqualTo("/rm/rmaccounts/" + STUB_CUSTOMER_ID + "/proxies"))
+        .willReturn(aResponse().withStatus(HttpStatus.SC_OK).withBody("[]"))
+    );
+
+    assertTrue(isCompletedNormally(meteredService.retrieveProxies()));
+    await().atMost(5, TimeUnit.SECONDS).untilAsserted(() -> assertEquals(1, registry.get(HoldingsClientMetrics.REQUESTS)
+      .tags(HoldingsClientMetrics.ENDPOINT_TAG, "proxies", HoldingsClientMetrics.METHOD_TAG, "GET")
+      .tags(HoldingsClientMetrics.STATUS_TAG, "2xx", HoldingsClientMetrics.EXCEPTION_TAG, HoldingsClientMetrics.NO_EXCEPTION)
+      .timer().count()));
+    assertEquals(1, registry.get(HoldingsClientMetrics.TIME_TO_FIRST_BYTE).tag(HoldingsClientMetrics.STATUS_TAG, "2xx")
+      .timer().count());
+    assertEquals(1, registry.get(HoldingsClientMetrics.DOWNLOAD).timer().count());
+    assertEquals(1, registry.get(HoldingsClientMetrics.DECODE).timer().count());
+    await().atMost(5, TimeUnit.SECONDS).untilAsserted(() -> {
+      assertEquals(0, registry.get(HoldingsClientMetrics.POOL_IN_USE).gauge().value());
+      assertEquals(0, registry.get(HoldingsClientMetrics.POOL_PENDING).gauge().value());
+    });
+  }
+
+  @Test
+  void idlePoolIsClosedAndCreatedAgainOnNextRequest() {
+    var registry = new SimpleMeterRegistry();
+    var options = HoldingsIQClientOptions.builder()
+      .meterRegistry(registry)
+      .poolIdleTimeout(Duration.ofMillis(200))
+      .build();
+    var meteredService = new HoldingsIQServiceImpl(getConfiguration(), Vertx.vertx(), options);
+    wm.stubFor(
+      get(urlPathEqualTo("/rm/rmaccounts/" + STUB_CUSTOMER_ID + "/proxies"))
+        .willReturn(aResponse().withStatus(HttpStatus.SC_OK).withBody("[]"))
+    );
+
+    assertTrue(isCompletedNormally(meteredService.retrieveProxies()));
+    await().atMost(5, TimeUnit.SECONDS)
+      .until(() -> registry.find(HoldingsClientMetrics.POOL_IN_USE).gauge() == null);
+
+    assertTrue(isCompletedNormally(meteredService.retrieveProxies()));
+    assertNotNull(registry.find(HoldingsClientMetrics.POOL_IN_USE).gauge());
+  }
+
+  @Test
+  void poolsSharingRegistryHaveOwnGauges() {
+    var registry = new SimpleMeterRegistry();
+    var options = HoldingsIQClientOptions.builder().meterRegistry(registry).build();
+    var firstVertx = Vertx.vertx();
+    var secondVertx = Vertx.vertx();
+    new HoldingsIQServiceImpl(getConfiguration(), firstVertx, options);
+    new HoldingsIQServiceImpl(getConfiguration(), secondVertx, options);
+
+    assertEquals(2, registry.find(HoldingsClientMetrics.POOL_IN_USE).gauges().size());
+    firstVertx.close();
+    await().atMost(5, TimeUnit.SECONDS)
+      .until(() -> registry.find(HoldingsClientMetrics.POOL_IN_USE).gauges().size() == 1);
+    secondVertx.close();
+  }
+
+  @Test
+  void retrieveProxiesCountsErrorsByExceptionType() {
+    var registry = new SimpleMeterRegistry();
+    var options = HoldingsIQClientOptions.builder().meterRegistry(registry).build();
+    var meteredService = new HoldingsIQServiceImpl(getConfiguration(), Vertx.vertx(), options);
+    wm.stubFor(
+      get(urlPathEqualTo("/rm/rmaccounts/" + STUB_CUSTOMER_ID + "/proxies"))
+        .willReturn(aResponse().withStatus(HttpStatus.SC_NOT_FOUND))
+    );
+
+    assertFalse(isCompletedNormally(meteredService.retrieveProxies()));
+    await().atMost(5, TimeUnit.SECONDS).untilAsserted(() -> assertEquals(1, registry.get(HoldingsClientMetrics.ERRORS)
+      .tags(HoldingsClientMetrics.ENDPOINT_TAG, "proxies", HoldingsClientMetrics.EXCEPTION_TAG,
+        "ResourceNotFoundException")
+      .counter().count()));
+    assertEquals(1, registry.get(HoldingsClientMetrics.REQUESTS).tag(HoldingsClientMetrics.STATUS_TAG, "4xx")
+      .timer().count());
+  }
+
+  @Test
+  void retrieveProxiesFailsFastWhenCircuitBreakerIsOpen() {
+    var registry = new SimpleMeterRegistry();
+    var transitions = new CopyOnWriteArrayList<String>();
+    var options = HoldingsIQClientOptions.builder()
+      .meterRegistry(registry)
+      .circuitBreaker(CircuitBreakerPolicy.builder()
+        .minimumCalls(2)
+        .openDuration(Duration.ofMinutes(1))
+        .build())
+      .circuitBreakerListener((baseUrl, customerId, from, to) -> transitions.add(from + "->" + to))
+      .build();
+    var protectedService = new HoldingsIQServiceImpl(getConfiguration(), Vertx.vertx(), options);
+    var urlPattern = new UrlPattern(equalTo("/rm/rmaccounts/" + STUB_CUSTOMER_ID + "/proxies"), false);
+    wm.stubFor(
+      get(urlPattern).willReturn(aResponse().withStatus(HttpStatus.SC_SERVICE_UNAVAILABLE))
+    );
+
+    assertFalse(isCompletedNormally(protectedService.retrieveProxies()));
+    assertFalse(isCompletedNormally(protectedService.retrieveProxies()));
+    var exception = assertThrows(ExecutionException.class, () -> protectedService.retrieveProxies().get());
+
+    assertInstanceOf(CircuitBreakerOpenException.class, exception.getCause());
+    wm.verify(2, new RequestPatternBuilder(RequestMethod.GET, urlPattern));
+    assertEquals(List.of("CLOSED->OPEN"), transitions);
+    assertEquals(1, registry.get(HoldingsClientMetrics.CIRCUIT_TRANSITIONS)
+      .tag(HoldingsClientMetrics.STATE_TAG, "OPEN")
+      .counter().count());
+    assertEquals(1, registry.get(HoldingsClientMetrics.CIRCUIT_REJECTED)
+      .tag(HoldingsClientMetrics.ENDPOINT_TAG, "proxies")
+      .counter().count());
+    assertEquals(1, registry.get(HoldingsClientMetrics.CIRCUIT_NOT_CLOSED).gauge().value());
+  }
+
+  @Test
+  void interceptorIsCalledForEveryPhaseOfRequest() {
+    var events = new CopyOnWriteArrayList<String>();
+    var contexts = new CopyOnWriteArrayList<HoldingsInteractionContext>();
+    var interceptor = new HoldingsInterceptor() {
+      @Override
+      public void beforeSend(HoldingsInteractionContext ctx) {
+        events.add("beforeSend");
+        ctx.requestHeaders().add("X-Trace-Id", "trace-1");
+      }
+
+      @Override
+      public void onResponseHead(HoldingsInteractionContext ctx) {
+        events.add("onResponseHead " + ctx.statusCode());
+      }
+
+      @Override
+      public void onBodyChunk(HoldingsInteractionContext ctx, int chunkBytes) {
+        events.add("onBodyChunk");
+      }
+
+      @Override
+      public void afterDecode(HoldingsInteractionContext ctx, Object body) {
+        events.add("afterDecode");
+        contexts.add(ctx);
+      }
+    };
+    var options = HoldingsIQClientOptions.builder().interceptor(interceptor).build();
+    var interceptedService = new HoldingsIQServiceImpl(getConfiguration(), Vertx.vertx(), options);
+    var urlPattern = new UrlPattern(equalTo("/rm/rmaccounts/" + STUB_CUSTOMER_ID + "/proxies"), false);
+    wm.stubFor(
+      get(urlPattern).willReturn(aResponse().withStatus(HttpStatus.SC_OK).withBody("[]"))
+    );
+
+    assertTrue(isCompletedNormally(interceptedService.retrieveProxies()));
+    wm.verify(new RequestPatternBuilder(RequestMethod.GET, urlPattern).withHeader("X-Trace-Id", equalTo("trace-1")));
+    assertEquals(List.of("beforeSend", "onResponseHead 200", "onBodyChunk", "afterDecode"), events);
+    var ctx = contexts.getFirst();
+    assertEquals("proxies", ctx.getEndpoint());
+    assertEquals(2, ctx.getWireBytes());
+    assertTrue(ctx.getStartTime() <= ctx.getResponseHeadTime());
+    assertTrue(ctx.getResponseHeadTime() <= ctx.getBodyEndTime());
+  }
+
+  @Test
+  void interceptorIsNotifiedOfFailures() {
+    var failures = new CopyOnWriteArrayList<Throwable>();
+    var options = HoldingsIQClientOptions.builder()
+      .interceptor(new HoldingsInterceptor() {
+        @Override
+        public void beforeSend(HoldingsInteractionContext ctx) {
+          throw new IllegalStateException("interceptor failures are ignored");
+        }
+
+        @Override
+        public void onFailure(HoldingsInteractionContext ctx, Throwable failure) {
+          failures.add(failure);
+        }
+      })
+      .build();
+    var interceptedService = new HoldingsIQServiceImpl(getConfiguration(), Vertx.vertx(), options);
+    wm.stubFor(
+      get(urlPathEqualTo("/rm/rmaccounts/" + STUB_CUSTOMER_ID + "/proxies"))
+        .willReturn(aResponse().withStatus(HttpStatus.SC_NOT_FOUND))
+    );
+
+    assertFalse(isCompletedNormally(interceptedService.retrieveProxies()));
+    await().atMost(5, TimeUnit.SECONDS).until(() -> failures.size() == 1);
+    assertInstanceOf(ResourceNotFoundException.class, failures.getFirst());
+  }
+
+  @Test
+  void retrieveProxiesIsTracedWithPropagatedContext() {
+    var spanExporter = InMemorySpanExporter.create();
+    var openTelemetry = OpenTelemetrySdk.builder()
+      .setTracerProvider(SdkTracerProvider.builder().addSpanProcessor(SimpleSpanProcessor.create(spanExporter)).build())
+      .setPropagators(ContextPropagators.create(W3CTraceContextPropagator.getInstance()))
+      .build();
+    var options = HoldingsIQClientOptions.builder().openTelemetry(openTelemetry).build();
+    var tracedService = new HoldingsIQServiceImpl(getConfiguration(), Vertx.vertx(), options);
+    var urlPattern = new UrlPattern(equalTo("/rm/rmaccounts/" + STUB_CUSTOMER_ID + "/proxies"), false);
+    wm.stubFor(
+      get(urlPattern).willReturn(aResponse().withStatus(HttpStatus.SC_OK).withBody("[]"))
+    );
+
+    assertTrue(isCompletedNormally(tracedService.retrieveProxies()));
+    await().atMost(5, TimeUnit.SECONDS).until(() -> spanExporter.getFinishedSpanItems().size() == 3);
+
+    var spans = spanExporter.getFinishedSpanItems();
+    var requestSpan = spans.stream().filter(span -> span.getName().equals("GET proxies")).findFirst().orElseThrow();
+    assertEquals(SpanKind.CLIENT, requestSpan.getKind());
+    assertEquals("proxies", requestSpan.getAttributes().get(HoldingsClientTracing.URL_TEMPLATE));
+    assertEquals(200L, requestSpan.getAttributes().get(HoldingsClientTracing.HTTP_RESPONSE_STATUS_CODE));
+    assertEquals(2L, requestSpan.getAttributes().get(HoldingsClientTracing.HTTP_RESPONSE_BODY_SIZE));
+    spans.stream()
+      .filter(span -> span != requestSpan)
+      .forEach(span -> assertEquals(requestSpan.getSpanId(), span.getParentSpanId()));
+    wm.verify(new RequestPatternBuilder(RequestMethod.GET, urlPattern)
+      .withHeader("traceparent", containing(requestSpan.getTraceId() + "-" + requestSpan.getSpanId())));
+  }
+
+  @Test
+  void sharedPoolRejectsRequestsWhenBusy() {
+    var options = HoldingsIQClientOptions.builder().http1MaxPoolSize(1).maxWaitQueueSize(0).build();
+    var vertx = Vertx.vertx();
+    stubSlowProxies("customer_a");
+
+    var busyCustomer = new HoldingsIQServiceImpl(configurationFor("customer_a"), vertx, options);
+    var otherCustomer = new HoldingsIQServiceImpl(configurationFor("customer_b"), vertx, options);
+    var slowRequest = busyCustomer.retrieveProxies();
+    await().atMost(5, TimeUnit.SECONDS).until(() -> !wm.getAllServeEvents().isEmpty());
+
+    assertFalse(isCompletedNormally(otherCustomer.retrieveProxies()));
+    assertTrue(isCompletedNormally(slowRequest));
+  }
+
+  @Test
+  void poolPerCustomerIsolatesBusyCustomer() {
+    var options = HoldingsIQClientOptions.builder()
+      .http1MaxPoolSize(1)
+      .maxWaitQueueSize(0)
+      .poolPerCustomer(true)
+      .build();
+    var vertx = Vertx.vertx();
+    stubSlowProxies("customer_a");
+    wm.stubFor(
+      get(urlPathEqualTo("/rm/rmaccounts/customer_b/proxies"))
+        .willReturn(aResponse().withStatus(HttpStatus.SC_OK).withBody("[]"))
+    );
+
+    var busyCustomer = new HoldingsIQServiceImpl(configurationFor("customer_a"), vertx, options);
+    var otherCustomer = new HoldingsIQServiceImpl(configurationFor("customer_b"), vertx, options);
+    var slowRequest = busyCustomer.retrieveProxies();
+    await().atMost(5, TimeUnit.SECONDS).until(() -> !wm.getAllServeEvents().isEmpty());
+
+    assertTrue(isCompletedNormally(otherCustomer.retrieveProxies()));
+    assertTrue(isCompletedNormally(slowRequest));
+  }
+
+  @Test
+  void retrieveRootProxyCustomLabelsIsCachedPerCustomer() {
+    var registry = new SimpleMeterRegistry();
+    var options = HoldingsIQClientOptions.builder()
+      .rootProxyCacheTtl(Duration.ofMinutes(5))
+      .meterRegistry(registry)
+      .build();
+    var vertx = Vertx.vertx();
+    var rootProxyCustomLabels = RootProxyCustomLabels.builder().vendorId(String.valueOf(VENDOR_ID)).build();
+    var urlPattern = new UrlPattern(equalTo("/rm/rmaccounts/" + STUB_CUSTOMER_ID + "/"), false);
+    wm.stubFor(
+      get(urlPattern).willReturn(aResponse().withStatus(HttpStatus.SC_OK).withBody(Json.encode(rootProxyCustomLabels)))
+    );
+
+    var firstService = new HoldingsIQServiceImpl(getConfiguration(), vertx, options);
+    assertTrue(isCompletedNormally(firstService.retrieveRootProxyCustomLabels()));
+    var secondService = new HoldingsIQServiceImpl(getConfiguration(), vertx, options);
+    var cached = secondService.retrieveRootProxyCustomLabels();
+
+    assertTrue(isCompletedNormally(cached));
+    assertEquals(String.valueOf(VENDOR_ID), cached.join().getVendorId());
+    wm.verify(1, new RequestPatternBuilder(RequestMethod.GET, urlPattern));
+    assertEquals(1, cacheRequests(registry, HoldingsClientMetrics.HIT));
+    assertEquals(1, cacheRequests(registry, HoldingsClientMetrics.MISS));
+  }
+
+  @Test
+  void retrieveProxiesIsNotSharedWithChangedApiKey() {
+    var options = HoldingsIQClientOptions.builder().rootProxyCacheTtl(Duration.ofMinutes(5)).build();
+    var vertx = Vertx.vertx();
+    var urlPattern = new UrlPattern(equalTo("/rm/rmaccounts/" + STUB_CUSTOMER_ID + "/proxies"), false);
+    wm.stubFor(
+      get(urlPattern).willReturn(aResponse().withStatus(HttpStatus.SC_OK).withBody("[]"))
+    );
+
+    var oldCredentials = new HoldingsIQServiceImpl(getConfiguration(), vertx, options);
+    assertTrue(isCompletedNormally(oldCredentials.retrieveProxies()));
+    var newConfiguration = getConfiguration().toBuilder().apiKey("changed-api-key").build();
+    var newCredentials = new HoldingsIQServiceImpl(newConfiguration, vertx, options);
+    assertTrue(isCompletedNormally(newCredentials.retrieveProxies()));
+
+    wm.verify(2, new RequestPatternBuilder(RequestMethod.GET, urlPattern));
+  }
+
+  @Test
+  void retrieveProxiesIsCached() {
+    var options = HoldingsIQClientOptions.builder().rootProxyCacheTtl(Duration.ofMinutes(5)).build();
+    var cachingService = new HoldingsIQServiceImpl(getConfiguration(), Vertx.vertx(), options);
+    var urlPattern = new UrlPattern(equalTo("/rm/rmaccounts/" + STUB_CUSTOMER_ID + "/proxies"), false);
+    wm.stubFor(
+      get(urlPattern).willReturn(aResponse().withStatus(HttpStatus.SC_OK).withBody("[]"))
+    );
+
+    assertTrue(isCompletedNormally(cachingService.retrieveProxies()));
+    assertTrue(isCompletedNormally(cachingService.retrieveProxies()));
+
+    wm.verify(1, new RequestPatternBuilder(RequestMethod.GET, urlPattern));
+  }
+
+  @Test
+  void updateRootProxyCustomLabelsInvalidatesCachedValue() {
+    var options = HoldingsIQClientOptions.builder().rootProxyCacheTtl(Duration.ofMinutes(5)).build();
+    var cachingService = new HoldingsIQServiceImpl(getConfiguration(), Vertx.vertx(), options);
+    var rootProxyCustomLabels = RootProxyCustomLabels.builder().vendorId(String.valueOf(VENDOR_ID)).build();
+    var urlPattern = new UrlPattern(equalTo("/rm/rmaccounts/" + STUB_CUSTOMER_ID + "/"), false);
+    wm.stubFor(
+      put(urlPattern).willReturn(aResponse().withStatus(HttpStatus.SC_NO_CONTENT))
+    );
+    wm.stubFor(
+      get(urlPattern).willReturn(aResponse().withStatus(HttpStatus.SC_OK).withBody(Json.encode(rootProxyCustomLabels)))
+    );
+
+    assertTrue(isCompletedNormally(cachingService.retrieveRootProxyCustomLabels()));
+    assertTrue(isCompletedNormally(cachingService.updateRootProxyCustomLabels(rootProxyCustomLabels)));
+    assertTrue(isCompletedNormally(cachingService.retrieveRootProxyCustomLabels()));
+
+    wm.verify(2, new RequestPatternBuilder(RequestMethod.GET, urlPattern));
+  }
+
+  private double cacheRequests(SimpleMeterRegistry registry, String result) {
+    return registry.get(HoldingsClientMetrics.CACHE_REQUESTS)
+      .tags(HoldingsClientMetrics.CACHE_TAG, HoldingsIQServiceImpl.ROOT_PROXY_CACHE,
+        HoldingsClientMetrics.RESULT_TAG, result)
+      .counter()
+      .count();
+  }
+
+  private void stubSlowProxies(String customerId) {
+    wm.stubFor(
+      get(urlPathEqualTo("/rm/rmaccounts/" + customerId + "/proxies"))
+        .willReturn(aResponse().withStatus(HttpStatus.SC_OK).withBody("[]").withFixedDelay(1000))
+    );
+  }
+
+  private Configuration configurationFor(String customerId) {
+    return getConfiguration().toBuilder().customerId(customerId).build();
+  }
 }
@@ -0,0 +1,78 @@
+package org.folio.holdingsiq.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.Json;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+import org.folio.holdingsiq.model.Holding;
+import org.folio.holdingsiq.model.Holdings;
+import org.junit.jupiter.api.Test;
+
+class JsonArrayItemsCodecTest {
+
+  @Test
+  void shouldDecodeArrayItemsFromChunkedBody() throws Exception {
+    var holdings = Holdings.builder()
+      .offset(1)
+      .format("kbart2")
+      .holdingsList(IntStream.range(0, 10)
+        .mapToObj(i -> Holding.builder().publicationTitle("title {" + i + "}").vendorId(i).build())
+        .toList())
+      .build();
+    var decoded = new ArrayList<Holding>();
+
+    var result = decode(Json.encode(holdings), 7, decoded);
+
+    assertNull(result.failure());
+    assertEquals(10, result.count());
+    assertEquals(holdings.getHoldingsList(), decoded);
+  }
+
+  @Test
+  void shouldIgnoreOtherFieldsAndNestedArrays() throws Exception {
+    var body = """
+      {"facets": {"holdings": [{"publication_title": "facet"}]},
+       "other": [{"publication_title": "other"}],
+       "holdings": [{"publication_title": "first", "extra": {"nested": [1, 2]}}, null, {"vendor_id": 5}],
+       "totalCount": 2}
+      """;
+    var decoded = new ArrayList<Holding>();
+
+    var result = decode(body, 3, decoded);
+
+    assertNull(result.failure());
+    assertEquals(List.of(Holding.builder().publicationTitle("first").build(), Holding.builder().vendorId(5).build()),
+      decoded);
+  }
+
+  @Test
+  void shouldReportMalformedBody() throws Exception {
+    var result = decode("{\"holdings\": [{\"publication_title\": }]}", 5, new ArrayList<>());
+
+    assertNotNull(result.failure());
+  }
+
+  @Test
+  void shouldRetainBodyPrefix() throws Exception {
+    var body = "Not Found";
+
+    var result = decode(body, 2, new ArrayList<>());
+
+    assertEquals(body, result.rawPrefix().toString());
+  }
+
+  private JsonArrayItemsCodec.Result decode(String body, int chunkSize, List<Holding> decoded) throws Exception {
+    var stream = new JsonArrayItemsCodec<>("holdings", Holding.class, decoded::add).stream();
+    var bytes = Buffer.buffer(body);
+    for (int start = 0; start < bytes.length(); start += chunkSize) {
+      stream.write(bytes.getBuffer(start, Math.min(start + chunkSize, bytes.length())));
+    }
+    stream.end();
+    return stream.result().await();
+  }
+}
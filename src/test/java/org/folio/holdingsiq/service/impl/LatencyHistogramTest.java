@@ -0,0 +1,41 @@
+package org.folio.holdingsiq.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class LatencyHistogramTest {
+
+  @Test
+  void shouldEstimatePercentileWithinBucketPrecision() {
+    var histogram = new LatencyHistogram(1000);
+    for (int millis = 1; millis <= 100; millis++) {
+      histogram.record(TimeUnit.MILLISECONDS.toNanos(millis));
+    }
+
+    long p95 = TimeUnit.NANOSECONDS.toMillis(histogram.percentile(0.95));
+
+    assertTrue(p95 >= 95 && p95 <= 95 * 1.19, "p95 = " + p95);
+  }
+
+  @Test
+  void shouldFadeOutOldLatencies() {
+    var histogram = new LatencyHistogram(10);
+    for (int i = 0; i < 10; i++) {
+      histogram.record(TimeUnit.SECONDS.toNanos(1));
+    }
+    for (int i = 0; i < 40; i++) {
+      histogram.record(TimeUnit.MILLISECONDS.toNanos(10));
+    }
+
+    assertTrue(histogram.count() < 20);
+    assertTrue(histogram.percentile(0.9) < TimeUnit.MILLISECONDS.toNanos(20));
+  }
+
+  @Test
+  void shouldReturnZeroWithoutLatencies() {
+    assertEquals(0, new LatencyHistogram(10).percentile(0.5));
+  }
+}
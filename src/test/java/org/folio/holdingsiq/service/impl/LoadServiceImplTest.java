@@ -1,22 +1,51 @@
 package org.folio.holdingsiq.service.impl;
 
 import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.containing;
 import static com.github.tomakehurst.wiremock.client.WireMock.equalTo;
 import static com.github.tomakehurst.wiremock.client.WireMock.get;
 import static com.github.tomakehurst.wiremock.client.WireMock.post;
+import static com.github.tomakehurst.wiremock.stubbing.Scenario.STARTED;
+import static org.awaitility.Awaitility.await;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import com.github.tomakehurst.wiremock.http.RequestMethod;
 import com.github.tomakehurst.wiremock.matching.RequestPatternBuilder;
 import com.github.tomakehurst.wiremock.matching.UrlPattern;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import io.vertx.core.Vertx;
 import io.vertx.core.json.Json;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
 import org.apache.hc.core5.http.HttpStatus;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.folio.holdingsiq.model.DeltaReport;
+import org.folio.holdingsiq.model.Holding;
+import org.folio.holdingsiq.model.HoldingChangeType;
+import org.folio.holdingsiq.model.HoldingInReport;
+import org.folio.holdingsiq.model.Holdings;
 import org.folio.holdingsiq.model.TransactionId;
+import org.folio.holdingsiq.service.HoldingsIQClientOptions;
 import org.folio.holdingsiq.service.LoadService;
+import org.folio.holdingsiq.service.RetryPolicy;
+import org.folio.holdingsiq.service.exception.ResourceNotFoundException;
+import org.folio.holdingsiq.service.exception.ResultsProcessingException;
+import org.folio.holdingsiq.service.exception.ServiceResponseException;
 
 class LoadServiceImplTest extends HoldingsIQServiceTestConfig {
 
@@ -136,6 +165,185 @@ class LoadServiceImplTest extends HoldingsIQServiceTestConfig {
     wm.verify(new RequestPatternBuilder(RequestMethod.GET, urlPattern));
   }
 
+  @Test
+  void loadHoldingsTransactionWithConsumer() throws Exception {
+    stubHoldingsTransactionPage(1, 0, 2);
+    var holdings = new ArrayList<Holding>();
+
+    var completableFuture = service.loadHoldingsTransaction(TRANSACTION_ID, 2, 1, holdings::add);
+
+    assertTrue(isCompletedNormally(completableFuture));
+    assertEquals(2, completableFuture.get());
+    assertEquals(List.of("title-0", "title-1"), holdings.stream().map(Holding::getPublicationTitle).toList());
+  }
+
+  @Test
+  void loadHoldingsTransactionWithConsumerFailsOnNotFound() {
+    wm.stubFor(get(holdingsTransactionPageUrl(1))
+      .willReturn(aResponse().withStatus(HttpStatus.SC_NOT_FOUND).withBody("{\"errors\": \"vendor not found\"}")));
+
+    var completableFuture = service.loadHoldingsTransaction(TRANSACTION_ID, 2, 1, holding -> { });
+
+    var exception = assertThrows(ExecutionException.class, completableFuture::get);
+    var cause = assertInstanceOf(ResourceNotFoundException.class, exception.getCause());
+    assertEquals("{\"errors\": \"provider not found\"}", cause.getResponseBody());
+  }
+
+  @Test
+  void loadHoldingsTransactionWithConsumerRetriesWhenThrottled() throws Exception {
+    var registry = new SimpleMeterRegistry();
+    var options = HoldingsIQClientOptions.builder()
+      .meterRegistry(registry)
+      .retryPolicy(RetryPolicy.builder().initialBackoff(Duration.ofMillis(10)).build())
+      .build();
+    var retryingService = new LoadServiceImpl(getConfiguration(), Vertx.vertx(), options);
+    wm.stubFor(get(holdingsTransactionPageUrl(1)).inScenario("throttled").whenScenarioStateIs(STARTED)
+      .willReturn(aResponse().withStatus(HttpStatus.SC_TOO_MANY_REQUESTS).withHeader("Retry-After", "0"))
+      .willSetStateTo("available"));
+    wm.stubFor(get(holdingsTransactionPageUrl(1)).inScenario("throttled").whenScenarioStateIs("available")
+      .willReturn(aResponse().withStatus(HttpStatus.SC_OK).withBody(holdingsPageBody(1, 0, 2))));
+    var holdings = new ArrayList<Holding>();
+
+    var completableFuture = retryingService.loadHoldingsTransaction(TRANSACTION_ID, 2, 1, holdings::add);
+
+    assertTrue(isCompletedNormally(completableFuture));
+    assertEquals(2, completableFuture.get());
+    assertEquals(2, holdings.size());
+    wm.verify(2, new RequestPatternBuilder(RequestMethod.GET, holdingsTransactionPageUrl(1)));
+    assertEquals(1, registry.get(HoldingsClientMetrics.RETRIES).tag(HoldingsClientMetrics.REASON_TAG, "429")
+      .counter().count());
+  }
+
+  @Test
+  void loadHoldingsTransactionWithConsumerFailsWhenRetryBudgetIsUsedUp() {
+    var registry = new SimpleMeterRegistry();
+    var options = HoldingsIQClientOptions.builder()
+      .meterRegistry(registry)
+      .retryPolicy(RetryPolicy.builder().budgetCapacity(0).build())
+      .build();
+    var retryingService = new LoadServiceImpl(getConfiguration(), Vertx.vertx(), options);
+    wm.stubFor(get(holdingsTransactionPageUrl(1))
+      .willReturn(aResponse().withStatus(HttpStatus.SC_SERVICE_UNAVAILABLE)));
+
+    var completableFuture = retryingService.loadHoldingsTransaction(TRANSACTION_ID, 2, 1, holding -> { });
+
+    var exception = assertThrows(ExecutionException.class, completableFuture::get);
+    assertEquals(503, assertInstanceOf(ServiceResponseException.class, exception.getCause()).getCode());
+    wm.verify(1, new RequestPatternBuilder(RequestMethod.GET, holdingsTransactionPageUrl(1)));
+    assertEquals(1, registry.get(HoldingsClientMetrics.RETRIES_EXHAUSTED)
+      .tag(HoldingsClientMetrics.REASON_TAG, RequestRetrier.EXHAUSTED_BUDGET).counter().count());
+  }
+
+  @Test
+  void loadHoldingsTransactionWithConsumerFailsOnInvalidBody() {
+    wm.stubFor(get(holdingsTransactionPageUrl(1))
+      .willReturn(aResponse().withStatus(HttpStatus.SC_OK).withBody("{\"holdings\": [{")));
+
+    var completableFuture = service.loadHoldingsTransaction(TRANSACTION_ID, 2, 1, holding -> { });
+
+    var exception = assertThrows(ExecutionException.class, completableFuture::get);
+    assertInstanceOf(ResultsProcessingException.class, exception.getCause());
+  }
+
+  @Test
+  void loadHoldingsTransactionWithGzipCompression() throws Exception {
+    var registry = new SimpleMeterRegistry();
+    var compressingService = new LoadServiceImpl(getConfiguration(), Vertx.vertx(), compressionOptions(registry));
+    var body = holdingsPageBody(1, 0, 2);
+    wm.stubFor(get(holdingsTransactionPageUrl(1))
+      .withHeader("Accept-Encoding", containing("gzip"))
+      .willReturn(aResponse().withStatus(HttpStatus.SC_OK).withHeader("Content-Encoding", "gzip")
+        .withBody(gzip(body))));
+    var holdings = new ArrayList<Holding>();
+
+    var completableFuture = compressingService.loadHoldingsTransaction(TRANSACTION_ID, 2, 1, holdings::add);
+
+    assertTrue(isCompletedNormally(completableFuture));
+    assertEquals(List.of("title-0", "title-1"), holdings.stream().map(Holding::getPublicationTitle).toList());
+    var endpoint = "reports/holdings/transactions/{id}";
+    assertEquals(gzip(body).length, responseSize(registry, HoldingsClientMetrics.RESPONSE_WIRE_SIZE, endpoint, "gzip"));
+    assertEquals(body.length, responseSize(registry, HoldingsClientMetrics.RESPONSE_BODY_SIZE, endpoint, "gzip"));
+  }
+
+  @Test
+  void getHoldingsTransactionWithDeflateCompression() throws Exception {
+    var registry = new SimpleMeterRegistry();
+    var compressingService = new LoadServiceImpl(getConfiguration(), Vertx.vertx(), compressionOptions(registry));
+    var body = holdingsPageBody(1, 0, 2);
+    wm.stubFor(get(holdingsTransactionPageUrl(1))
+      .willReturn(aResponse().withStatus(HttpStatus.SC_OK).withHeader("Content-Encoding", "deflate")
+        .withBody(deflate(body))));
+
+    var completableFuture = compressingService.loadHoldingsTransaction(TRANSACTION_ID, 2, 1);
+
+    assertTrue(isCompletedNormally(completableFuture));
+    assertEquals(2, completableFuture.get().getHoldingsList().size());
+    assertEquals(body.length, responseSize(registry, HoldingsClientMetrics.RESPONSE_BODY_SIZE,
+      "reports/holdings/transactions/{id}", "deflate"));
+  }
+
+  @Test
+  void loadHoldingsTransactionFailsOnCorruptedCompressedBody() {
+    var compressingService = new LoadServiceImpl(getConfiguration(), Vertx.vertx(),
+      compressionOptions(new SimpleMeterRegistry()));
+    wm.stubFor(get(holdingsTransactionPageUrl(1))
+      .willReturn(aResponse().withStatus(HttpStatus.SC_OK).withHeader("Content-Encoding", "gzip")
+        .withBody("{\"holdings\": []}")));
+
+    var completableFuture = compressingService.loadHoldingsTransaction(TRANSACTION_ID, 2, 1, holding -> { });
+
+    assertThrows(ExecutionException.class, completableFuture::get);
+  }
+
+  @Test
+  void loadDeltaReportWithConsumer() throws Exception {
+    var deltaReport = DeltaReport.builder()
+      .holdings(List.of(HoldingInReport.builder().publicationTitle("title").changeType(HoldingChangeType.HOLDING_ADDED)
+        .build()))
+      .build();
+    var urlPattern = new UrlPattern(equalTo(
+      "/rm/rmaccounts/" + STUB_CUSTOMER_ID + "/reports/holdings/deltas/" + DELTA_ID + "?format=kbart2&count="
+        + COUNT_FOR_PARAM + "&offset=" + PAGE_FOR_PARAM), false);
+    wm.stubFor(
+      get(urlPattern).willReturn(aResponse().withStatus(HttpStatus.SC_OK).withBody(Json.encode(deltaReport)))
+    );
+    var changes = new ArrayList<HoldingInReport>();
+
+    var completableFuture = service.loadDeltaReport(DELTA_ID, COUNT_FOR_PARAM, PAGE_FOR_PARAM, changes::add);
+
+    assertTrue(isCompletedNormally(completableFuture));
+    assertEquals(1, completableFuture.get());
+    assertEquals(deltaReport.getHoldings(), changes);
+  }
+
+  @Test
+  void streamHoldingsTransaction() {
+    stubHoldingsTransactionPage(1, 0, 2);
+    stubHoldingsTransactionPage(2, 2, 2);
+    stubHoldingsTransactionPage(3, 4, 1);
+    stubHoldingsTransactionPage(4, 0, 0);
+
+    var titles = service.streamHoldingsTransaction(TRANSACTION_ID, 2, 2)
+      .collect(Collectors.mapping(Holding::getPublicationTitle, Collectors.toList()))
+      .toCompletionStage().toCompletableFuture();
+
+    assertTrue(isCompletedNormally(titles));
+    assertEquals(List.of("title-0", "title-1", "title-2", "title-3", "title-4"), titles.join());
+  }
+
+  @Test
+  void streamHoldingsTransactionFailsWhenPageFails() {
+    stubHoldingsTransactionPage(1, 0, 2);
+    wm.stubFor(get(holdingsTransactionPageUrl(2)).willReturn(aResponse().withStatus(HttpStatus.SC_BAD_GATEWAY)));
+
+    var titles = service.streamHoldingsTransaction(TRANSACTION_ID, 2, 1)
+      .collect(Collectors.toList())
+      .toCompletionStage().toCompletableFuture();
+
+    await().atMost(5, TimeUnit.SECONDS).until(titles::isDone);
+    assertTrue(titles.isCompletedExceptionally());
+  }
+
   @Test
   void postDeltaReport() throws Exception {
     var urlPattern = new UrlPattern(equalTo("/rm/rmaccounts/" + STUB_CUSTOMER_ID + "/reports/holdings/deltas"), false);
@@ -176,4 +384,50 @@ class LoadServiceImplTest extends HoldingsIQServiceTestConfig {
     assertTrue(isCompletedNormally(completableFuture));
     wm.verify(new RequestPatternBuilder(RequestMethod.GET, urlPattern));
   }
+
+  private void stubHoldingsTransactionPage(int page, int firstIndex, int size) {
+    wm.stubFor(
+      get(holdingsTransactionPageUrl(page))
+        .willReturn(aResponse().withStatus(HttpStatus.SC_OK).withBody(holdingsPageBody(page, firstIndex, size)))
+    );
+  }
+
+  private byte[] holdingsPageBody(int page, int firstIndex, int size) {
+    var holdings = Holdings.builder()
+      .offset(page)
+      .holdingsList(IntStream.range(firstIndex, firstIndex + size)
+        .mapToObj(i -> Holding.builder().publicationTitle("title-" + i).build())
+        .toList())
+      .build();
+    return Json.encode(holdings).getBytes(StandardCharsets.UTF_8);
+  }
+
+  private HoldingsIQClientOptions compressionOptions(MeterRegistry registry) {
+    return HoldingsIQClientOptions.builder().compression(true).meterRegistry(registry).build();
+  }
+
+  private double responseSize(MeterRegistry registry, String name, String endpoint, String encoding) {
+    return registry.get(name).tag("endpoint", endpoint).tag("encoding", encoding).summary().totalAmount();
+  }
+
+  private byte[] gzip(byte[] body) throws IOException {
+    var out = new ByteArrayOutputStream();
+    try (var gzip = new GZIPOutputStream(out)) {
+      gzip.write(body);
+    }
+    return out.toByteArray();
+  }
+
+  private byte[] deflate(byte[] body) throws IOException {
+    var out = new ByteArrayOutputStream();
+    try (var deflater = new DeflaterOutputStream(out)) {
+      deflater.write(body);
+    }
+    return out.toByteArray();
+  }
+
+  private UrlPattern holdingsTransactionPageUrl(int page) {
+    return new UrlPattern(equalTo("/rm/rmaccounts/" + STUB_CUSTOMER_ID + "/reports/holdings/transactions/"
+      + TRANSACTION_ID + "?format=kbart2&count=2&offset=" + page), false);
+  }
 }
@@ -1,7 +1,12 @@
 package org.folio.holdingsiq.service.impl;
 
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.equalTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
 import static com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor;
 import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
+import static org.awaitility.Awaitility.await;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -9,14 +14,23 @@ import com.github.tomakehurst.wiremock.http.RequestMethod;
 import com.github.tomakehurst.wiremock.matching.RequestPatternBuilder;
 import io.vertx.core.Vertx;
 import io.vertx.core.json.Json;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.apache.hc.core5.http.HttpStatus;
 import org.folio.holdingsiq.model.PackageData;
 import org.folio.holdingsiq.model.PackageFilter;
 import org.folio.holdingsiq.model.PackageFilterSelected;
 import org.folio.holdingsiq.model.PackageFilterType;
+import org.folio.holdingsiq.model.Packages;
 import org.folio.holdingsiq.model.PackagePut;
 import org.folio.holdingsiq.model.Pageable;
 import org.folio.holdingsiq.model.SearchType;
 import org.folio.holdingsiq.model.Sort;
+import org.folio.holdingsiq.service.HoldingsIQClientOptions;
+import org.folio.holdingsiq.service.HoldingsResponseCache;
 import org.folio.holdingsiq.service.PackagesHoldingsIQService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -100,6 +114,22 @@ class PackagesHoldingsIQServiceImplTest extends HoldingsIQServiceTestConfig {
     wm.verify(new RequestPatternBuilder(RequestMethod.PUT, urlPattern));
   }
 
+  @Test
+  void streamPackagesOfProvider() {
+    var listsUrl = "/rm/rmaccounts/v2/" + STUB_CUSTOMER_ID + "/vendors/" + VENDOR_ID + "/lists";
+    stubPackagesPage(listsUrl, 1, 1, 2);
+    stubPackagesPage(listsUrl, 2, 3, 4);
+    stubPackagesPage(listsUrl, 3, 5);
+
+    var packageIds = service.streamPackages(VENDOR_ID, PackageFilter.builder().build(), Sort.NAME, 2, 4)
+      .collect(Collectors.mapping(PackageData::getPackageId, Collectors.toList()))
+      .toCompletionStage().toCompletableFuture();
+
+    assertTrue(isCompletedNormally(packageIds));
+    assertEquals(List.of(1, 2, 3, 4, 5), packageIds.join());
+    wm.verify(3, getRequestedFor(urlPathEqualTo(listsUrl)));
+  }
+
   @Test
   void postPackage() {
     var completableFuture = service.postPackage(packagePost, VENDOR_ID);
@@ -110,4 +140,83 @@ class PackagesHoldingsIQServiceImplTest extends HoldingsIQServiceTestConfig {
     var urlPatternGet = urlEqualTo("/rm/rmaccounts/v2/" + STUB_CUSTOMER_ID + "/lists/" + PACKAGE_ID);
     wm.verify(new RequestPatternBuilder(RequestMethod.GET, urlPatternGet));
   }
+
+  @Test
+  void createPackageDoesNotReadPackageBack() throws Exception {
+    var completableFuture = service.createPackage(packagePost, VENDOR_ID);
+
+    assertEquals(PACKAGE_ID, completableFuture.get(5, TimeUnit.SECONDS));
+    var urlPatternPost = urlEqualTo("/rm/rmaccounts/" + STUB_CUSTOMER_ID + "/vendors/" + VENDOR_ID + "/packages");
+    wm.verify(new RequestPatternBuilder(RequestMethod.POST, urlPatternPost));
+    var urlPatternGet = urlEqualTo("/rm/rmaccounts/v2/" + STUB_CUSTOMER_ID + "/lists/" + PACKAGE_ID);
+    wm.verify(0, new RequestPatternBuilder(RequestMethod.GET, urlPatternGet));
+  }
+
+  @Test
+  void retrievePackageFromResponseCache() throws Exception {
+    var responseCache = packageResponseCache(Duration.ofMinutes(5));
+    var cachingService = new PackagesHoldingsIQServiceImpl(getConfiguration(), Vertx.vertx(),
+      HoldingsIQClientOptions.builder().responseCache(responseCache).build());
+
+    assertTrue(isCompletedNormally(cachingService.retrievePackage(PACKAGE_ID)));
+    var cachedPackage = cachingService.retrievePackage(PACKAGE_ID);
+
+    assertTrue(isCompletedNormally(cachedPackage));
+    assertEquals(Json.decodeValue(getJson("package-2222.json"), PackageData.class), cachedPackage.join());
+    assertEquals(1, responseCache.getHitCount());
+    wm.verify(1, getRequestedFor(urlEqualTo(packageUrl())));
+  }
+
+  @Test
+  void updatePackageInvalidatesCachedPackage() {
+    var responseCache = packageResponseCache(Duration.ofMinutes(5));
+    var options = HoldingsIQClientOptions.builder().responseCache(responseCache).build();
+    var cachingService = new PackagesHoldingsIQServiceImpl(getConfiguration(), Vertx.vertx(), options);
+
+    assertTrue(isCompletedNormally(cachingService.retrievePackage(PACKAGE_ID)));
+    assertTrue(isCompletedNormally(cachingService.updatePackage(PACKAGE_ID, PackagePut.builder().build())));
+    assertTrue(isCompletedNormally(cachingService.retrievePackage(PACKAGE_ID)));
+
+    assertEquals(0, responseCache.getHitCount());
+    wm.verify(2, getRequestedFor(urlEqualTo(packageUrl())));
+  }
+
+  @Test
+  void retrievePackageRevalidatesExpiredResponse() throws Exception {
+    var responseCache = packageResponseCache(Duration.ofMillis(50));
+    var cachingService = new PackagesHoldingsIQServiceImpl(getConfiguration(), Vertx.vertx(),
+      HoldingsIQClientOptions.builder().responseCache(responseCache).build());
+    wm.stubFor(get(urlEqualTo(packageUrl())).atPriority(1)
+      .willReturn(aResponse().withStatus(HttpStatus.SC_OK).withHeader("ETag", "\"v1\"")
+        .withBody(getJson("package-2222.json"))));
+    wm.stubFor(get(urlEqualTo(packageUrl())).atPriority(0)
+      .withHeader("If-None-Match", equalTo("\"v1\""))
+      .willReturn(aResponse().withStatus(HttpStatus.SC_NOT_MODIFIED)));
+
+    assertTrue(isCompletedNormally(cachingService.retrievePackage(PACKAGE_ID)));
+    await().pollDelay(100, TimeUnit.MILLISECONDS).until(() -> true);
+    var revalidatedPackage = cachingService.retrievePackage(PACKAGE_ID);
+
+    assertTrue(isCompletedNormally(revalidatedPackage));
+    assertEquals(Json.decodeValue(getJson("package-2222.json"), PackageData.class), revalidatedPackage.join());
+    assertEquals(1, responseCache.getRevalidationCount());
+    wm.verify(getRequestedFor(urlEqualTo(packageUrl())).withHeader("If-None-Match", equalTo("\"v1\"")));
+  }
+
+  private HoldingsResponseCache packageResponseCache(Duration ttl) {
+    return HoldingsResponseCache.builder().ttl("v2/lists/{id}", ttl).build();
+  }
+
+  private String packageUrl() {
+    return "/rm/rmaccounts/v2/" + STUB_CUSTOMER_ID + "/lists/" + PACKAGE_ID;
+  }
+
+  private void stubPackagesPage(String listsUrl, int page, int... packageIds) {
+    var body = Packages.builder()
+      .packagesList(IntStream.of(packageIds).mapToObj(id -> PackageData.builder().packageId(id).build()).toList())
+      .totalResults(5)
+      .build();
+    wm.stubFor(get(urlPathEqualTo(listsUrl)).withQueryParam("offset", equalTo(String.valueOf(page)))
+      .willReturn(aResponse().withStatus(HttpStatus.SC_OK).withBody(Json.encode(body))));
+  }
 }
@@ -0,0 +1,163 @@
+package org.folio.holdingsiq.service.impl;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import io.vertx.core.Vertx;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import org.folio.holdingsiq.service.impl.PagedReadStream.Page;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class PagedReadStreamTest {
+
+  private final Vertx vertx = Vertx.vertx();
+  private final Map<Integer, CompletableFuture<Page<Integer>>> requestedPages = new ConcurrentHashMap<>();
+
+  @AfterEach
+  void tearDown() {
+    vertx.close();
+  }
+
+  @Test
+  void shouldRequestNoMoreThanPrefetchPagesAhead() {
+    var stream = createStream(2);
+    var items = new CopyOnWriteArrayList<Integer>();
+    stream.handler(items::add);
+
+    await().atMost(5, TimeUnit.SECONDS).until(() -> requestedPages.size() == 2);
+    completePage(1, List.of(1, 2), false);
+
+    await().atMost(5, TimeUnit.SECONDS).until(() -> requestedPages.size() == 3);
+    assertEquals(List.of(1, 2), items);
+  }
+
+  @Test
+  void shouldEmitOnlyRequestedAmountOfItems() {
+    var stream = createStream(1);
+    var items = new CopyOnWriteArrayList<Integer>();
+    stream.pause();
+    stream.handler(items::add);
+    stream.fetch(1);
+
+    await().atMost(5, TimeUnit.SECONDS).until(() -> requestedPages.containsKey(1));
+    completePage(1, List.of(1, 2, 3), false);
+
+    await().atMost(5, TimeUnit.SECONDS).until(() -> items.size() == 1);
+    stream.fetch(2);
+    await().atMost(5, TimeUnit.SECONDS).until(() -> items.size() == 3);
+    assertEquals(List.of(1, 2, 3), items);
+  }
+
+  @Test
+  void shouldEndAfterLastPage() {
+    var stream = createStream(3);
+    var ended = new AtomicBoolean();
+    var items = new CopyOnWriteArrayList<Integer>();
+    stream.endHandler(v -> ended.set(true));
+    stream.handler(items::add);
+
+    await().atMost(5, TimeUnit.SECONDS).until(() -> requestedPages.size() == 3);
+    completePage(3, List.of(), true);
+    completePage(2, List.of(3), true);
+    completePage(1, List.of(1, 2), false);
+
+    await().atMost(5, TimeUnit.SECONDS).untilTrue(ended);
+    assertEquals(List.of(1, 2, 3), items);
+  }
+
+  @Test
+  void shouldCallHandlersWithoutHoldingStreamMonitor() {
+    var stream = createStream(1);
+    var lockHeld = new CopyOnWriteArrayList<Boolean>();
+    stream.endHandler(v -> lockHeld.add(Thread.holdsLock(stream)));
+    stream.handler(item -> lockHeld.add(Thread.holdsLock(stream)));
+
+    await().atMost(5, TimeUnit.SECONDS).until(() -> requestedPages.containsKey(1));
+    completePage(1, List.of(1, 2), true);
+
+    await().atMost(5, TimeUnit.SECONDS).until(() -> lockHeld.size() == 3);
+    assertEquals(List.of(false, false, false), lockHeld);
+  }
+
+  @Test
+  void shouldReportPageFailure() {
+    var stream = createStream(1);
+    var failure = new AtomicReference<Throwable>();
+    var exception = new IllegalStateException("failed");
+    stream.exceptionHandler(failure::set);
+    stream.handler(item -> { });
+
+    await().atMost(5, TimeUnit.SECONDS).until(() -> requestedPages.containsKey(1));
+    requestedPages.get(1).completeExceptionally(exception);
+
+    await().atMost(5, TimeUnit.SECONDS).until(() -> failure.get() != null);
+    assertSame(exception, failure.get());
+  }
+
+  @Test
+  void shouldStopRequestingPagesWhenCancelled() {
+    var stream = createStream(1);
+    var ended = new AtomicBoolean();
+    stream.endHandler(v -> ended.set(true));
+    stream.handler(item -> stream.handler(null));
+
+    await().atMost(5, TimeUnit.SECONDS).until(() -> requestedPages.containsKey(1));
+    completePage(1, List.of(1, 2), false);
+    await().atMost(5, TimeUnit.SECONDS).until(() -> requestedPages.containsKey(2));
+    completePage(2, List.of(3, 4), false);
+
+    await().during(200, TimeUnit.MILLISECONDS).atMost(1, TimeUnit.SECONDS).until(() -> requestedPages.size() == 2);
+    assertFalse(ended.get());
+  }
+
+  @Test
+  void shouldCancelPagesInFlightWhenCancelled() {
+    var stream = createStream(2);
+    stream.handler(item -> stream.handler(null));
+
+    await().atMost(5, TimeUnit.SECONDS).until(() -> requestedPages.containsKey(2));
+    completePage(1, List.of(1, 2), false);
+
+    await().atMost(5, TimeUnit.SECONDS).until(() -> requestedPages.get(2).isCancelled());
+    assertFalse(requestedPages.containsKey(4));
+  }
+
+  @Test
+  void shouldRequestRemainingPagesOnceFirstPageTellsTotal() {
+    var stream = new PagedReadStream<Integer>(vertx.getOrCreateContext(),
+      page -> requestedPages.computeIfAbsent(page, p -> new CompletableFuture<>()), 5, true);
+    var items = new CopyOnWriteArrayList<Integer>();
+    stream.handler(items::add);
+
+    await().atMost(5, TimeUnit.SECONDS).until(() -> requestedPages.containsKey(1));
+    await().during(100, TimeUnit.MILLISECONDS).atMost(1, TimeUnit.SECONDS).until(() -> requestedPages.size() == 1);
+    requestedPages.get(1).complete(Page.of(List.of(1, 2), 2, 5));
+
+    await().atMost(5, TimeUnit.SECONDS).until(() -> requestedPages.size() == 3);
+    requestedPages.get(3).complete(Page.of(List.of(5), 2, 5));
+    requestedPages.get(2).complete(Page.of(List.of(3, 4), 2, 5));
+
+    await().atMost(5, TimeUnit.SECONDS).until(() -> items.size() == 5);
+    assertEquals(List.of(1, 2, 3, 4, 5), items);
+    assertFalse(requestedPages.containsKey(4));
+  }
+
+  private PagedReadStream<Integer> createStream(int prefetchPages) {
+    return new PagedReadStream<>(vertx.getOrCreateContext(),
+      page -> requestedPages.computeIfAbsent(page, p -> new CompletableFuture<>()), prefetchPages);
+  }
+
+  private void completePage(int page, List<Integer> items, boolean last) {
+    requestedPages.get(page).complete(new Page<>(items, last));
+  }
+}
@@ -0,0 +1,176 @@
+package org.folio.holdingsiq.service.impl;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.equalTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor;
+import static com.github.tomakehurst.wiremock.stubbing.Scenario.STARTED;
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.github.tomakehurst.wiremock.matching.UrlPattern;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.Json;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import org.apache.hc.core5.http.HttpStatus;
+import org.folio.holdingsiq.model.Holding;
+import org.folio.holdingsiq.model.Holdings;
+import org.folio.holdingsiq.model.HoldingsLoadStatus;
+import org.folio.holdingsiq.model.HoldingsLoadTransactionStatus;
+import org.folio.holdingsiq.service.HoldingsIQClientOptions;
+import org.folio.holdingsiq.service.RetryPolicy;
+import org.folio.holdingsiq.service.exception.ResourceNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ParallelHoldingsFetcherTest extends HoldingsIQServiceTestConfig {
+
+  private static final String TRANSACTION_ID = "84113ab0-da4b-4a1f-a004-a9d686e54811";
+  private static final String TRANSACTIONS_PATH = "/rm/rmaccounts/" + STUB_CUSTOMER_ID
+                                                  + "/reports/holdings/transactions/" + TRANSACTION_ID;
+  private static final int PAGE_SIZE = 2;
+
+  private Vertx vertx;
+  private LoadServiceImpl loadService;
+
+  @BeforeEach
+  void setUp() {
+    vertx = Vertx.vertx();
+    loadService = new LoadServiceImpl(getConfiguration(), vertx);
+  }
+
+  @Test
+  void shouldFetchTransactionPagesInOrder() throws Exception {
+    stubTransactionStatus("7");
+    stubTransactionPage(1, 2, 300);
+    stubTransactionPage(2, 2, 0);
+    stubTransactionPage(3, 2, 100);
+    stubTransactionPage(4, 1, 0);
+    var pages = new CopyOnWriteArrayList<Integer>();
+
+    var result = new ParallelHoldingsFetcher(loadService, vertx, PAGE_SIZE, 4, true)
+      .fetchTransaction(TRANSACTION_ID, holdings -> pages.add(holdings.getOffset()));
+
+    assertTrue(isCompletedNormally(result));
+    assertEquals(7, result.get());
+    assertEquals(List.of(1, 2, 3, 4), pages);
+  }
+
+  @Test
+  void shouldFetchAllPagesUnordered() throws Exception {
+    wm.stubFor(get(new UrlPattern(equalTo("/rm/rmaccounts/" + STUB_CUSTOMER_ID + "/holdings/status"), false))
+      .willReturn(aResponse().withStatus(HttpStatus.SC_OK)
+        .withBody(Json.encode(HoldingsLoadStatus.builder().totalCount(5).build()))));
+    for (int page = 1; page <= 3; page++) {
+      wm.stubFor(get(new UrlPattern(equalTo("/rm/rmaccounts/" + STUB_CUSTOMER_ID
+        + "/holdings?format=kbart2&count=" + PAGE_SIZE + "&offset=" + page), false))
+        .willReturn(aResponse().withStatus(HttpStatus.SC_OK).withBody(pageBody(page, page == 3 ? 1 : 2))));
+    }
+    var pages = new CopyOnWriteArrayList<Integer>();
+
+    var result = new ParallelHoldingsFetcher(loadService, vertx, PAGE_SIZE, 3, false)
+      .fetchHoldings(holdings -> pages.add(holdings.getOffset()));
+
+    assertTrue(isCompletedNormally(result));
+    assertEquals(5, result.get());
+    assertEquals(List.of(1, 2, 3), pages.stream().sorted().toList());
+  }
+
+  @Test
+  void shouldRetryThrottledPage() throws Exception {
+    stubTransactionStatus("3");
+    stubTransactionPage(1, 2, 0);
+    wm.stubFor(get(transactionPageUrl(2)).inScenario("throttling").whenScenarioStateIs(STARTED)
+      .willReturn(aResponse().withStatus(429))
+      .willSetStateTo("recovered"));
+    wm.stubFor(get(transactionPageUrl(2)).inScenario("throttling").whenScenarioStateIs("recovered")
+      .willReturn(aResponse().withStatus(HttpStatus.SC_OK).withBody(pageBody(2, 1))));
+    var pages = new CopyOnWriteArrayList<Integer>();
+
+    var result = new ParallelHoldingsFetcher(loadService, vertx, PAGE_SIZE, 2, true)
+      .fetchTransaction(TRANSACTION_ID, holdings -> pages.add(holdings.getOffset()));
+
+    assertTrue(isCompletedNormally(result));
+    assertEquals(List.of(1, 2), pages);
+    wm.verify(2, getRequestedFor(transactionPageUrl(2)));
+  }
+
+  @Test
+  void shouldFailOnNonRetryableError() {
+    stubTransactionStatus("3");
+    stubTransactionPage(1, 2, 0);
+    wm.stubFor(get(transactionPageUrl(2)).willReturn(aResponse().withStatus(HttpStatus.SC_NOT_FOUND)));
+
+    var result = new ParallelHoldingsFetcher(loadService, vertx, PAGE_SIZE, 2, true)
+      .fetchTransaction(TRANSACTION_ID, holdings -> { });
+
+    var exception = assertThrows(ExecutionException.class, result::get);
+    assertInstanceOf(ResourceNotFoundException.class, exception.getCause());
+  }
+
+  @Test
+  void shouldLeaveThrottledPagesToClientRetryPolicy() {
+    var options = HoldingsIQClientOptions.builder()
+      .retryPolicy(RetryPolicy.builder().maxAttempts(2).initialBackoff(Duration.ofMillis(10)).build())
+      .build();
+    var retryingService = new LoadServiceImpl(getConfiguration(), vertx, options);
+    stubTransactionStatus("3");
+    stubTransactionPage(1, 2, 0);
+    wm.stubFor(get(transactionPageUrl(2)).willReturn(aResponse().withStatus(429)));
+
+    var result = new ParallelHoldingsFetcher(retryingService, vertx, PAGE_SIZE, 2, true, options)
+      .fetchTransaction(TRANSACTION_ID, holdings -> { });
+
+    assertThrows(ExecutionException.class, result::get);
+    wm.verify(2, getRequestedFor(transactionPageUrl(2)));
+  }
+
+  @Test
+  void shouldCancelPagesInFlightWhenPageFails() {
+    var registry = new SimpleMeterRegistry();
+    var options = HoldingsIQClientOptions.builder().meterRegistry(registry).build();
+    var meteredService = new LoadServiceImpl(getConfiguration(), vertx, options);
+    stubTransactionStatus("3");
+    stubTransactionPage(1, 2, 5000);
+    wm.stubFor(get(transactionPageUrl(2)).willReturn(aResponse().withStatus(HttpStatus.SC_NOT_FOUND)));
+
+    var result = new ParallelHoldingsFetcher(meteredService, vertx, PAGE_SIZE, 2, true, options)
+      .fetchTransaction(TRANSACTION_ID, holdings -> { });
+
+    var exception = assertThrows(ExecutionException.class, result::get);
+    assertInstanceOf(ResourceNotFoundException.class, exception.getCause());
+    await().atMost(2, TimeUnit.SECONDS).untilAsserted(() ->
+      assertEquals(0, registry.get(HoldingsClientMetrics.POOL_IN_USE).gauge().value()));
+  }
+
+  private void stubTransactionStatus(String totalCount) {
+    wm.stubFor(get(new UrlPattern(equalTo(TRANSACTIONS_PATH + "/status"), false))
+      .willReturn(aResponse().withStatus(HttpStatus.SC_OK)
+        .withBody(Json.encode(HoldingsLoadTransactionStatus.builder().totalCount(totalCount).build()))));
+  }
+
+  private void stubTransactionPage(int page, int size, int delayMillis) {
+    wm.stubFor(get(transactionPageUrl(page))
+      .willReturn(aResponse().withStatus(HttpStatus.SC_OK).withFixedDelay(delayMillis).withBody(pageBody(page, size))));
+  }
+
+  private UrlPattern transactionPageUrl(int page) {
+    return new UrlPattern(equalTo(TRANSACTIONS_PATH + "?format=kbart2&count=" + PAGE_SIZE + "&offset=" + page), false);
+  }
+
+  private String pageBody(int page, int size) {
+    return Json.encode(Holdings.builder()
+      .offset(page)
+      .holdingsList(IntStream.range(0, size).mapToObj(i -> Holding.builder().titleId(page + "-" + i).build()).toList())
+      .build());
+  }
+}
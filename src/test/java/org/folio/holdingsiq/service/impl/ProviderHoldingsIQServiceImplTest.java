@@ -4,6 +4,8 @@ import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
 import static com.github.tomakehurst.wiremock.client.WireMock.equalTo;
 import static com.github.tomakehurst.wiremock.client.WireMock.get;
 import static com.github.tomakehurst.wiremock.client.WireMock.put;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -12,9 +14,13 @@ import com.github.tomakehurst.wiremock.matching.RequestPatternBuilder;
 import com.github.tomakehurst.wiremock.matching.UrlPattern;
 import io.vertx.core.Vertx;
 import io.vertx.core.json.Json;
+import java.util.List;
+import java.util.stream.Collectors;
 import org.apache.hc.core5.http.HttpStatus;
 import org.folio.holdingsiq.model.RootProxyCustomLabels;
 import org.folio.holdingsiq.model.Sort;
+import org.folio.holdingsiq.model.Vendor;
+import org.folio.holdingsiq.model.Vendors;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -29,6 +35,25 @@ class ProviderHoldingsIQServiceImplTest extends HoldingsIQServiceTestConfig {
     service = new ProviderHoldingsIQServiceImpl(configuration, vertx);
   }
 
+  @Test
+  void streamProvidersStopsAtTotalResults() {
+    var vendorsUrl = "/rm/rmaccounts/" + STUB_CUSTOMER_ID + "/vendors";
+    var body = Vendors.builder()
+      .vendorList(List.of(Vendor.builder().vendorId(VENDOR_ID).build(), Vendor.builder().vendorId(VENDOR_ID + 1).build()))
+      .totalResults(2)
+      .build();
+    wm.stubFor(get(urlPathEqualTo(vendorsUrl))
+      .willReturn(aResponse().withStatus(HttpStatus.SC_OK).withBody(Json.encode(body))));
+
+    var vendorIds = service.streamProviders("search", Sort.NAME, 2, 4)
+      .collect(Collectors.mapping(Vendor::getVendorId, Collectors.toList()))
+      .toCompletionStage().toCompletableFuture();
+
+    assertTrue(isCompletedNormally(vendorIds));
+    assertEquals(List.of(VENDOR_ID, VENDOR_ID + 1), vendorIds.join());
+    wm.verify(1, new RequestPatternBuilder(RequestMethod.GET, urlPathEqualTo(vendorsUrl)));
+  }
+
   @Test
   void getVendorId() {
     var rootProxyCustomLabels = RootProxyCustomLabels.builder().vendorId(String.valueOf(VENDOR_ID)).build();
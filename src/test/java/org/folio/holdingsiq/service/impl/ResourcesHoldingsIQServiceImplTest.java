@@ -4,18 +4,29 @@ import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
 import static com.github.tomakehurst.wiremock.client.WireMock.equalTo;
 import static com.github.tomakehurst.wiremock.client.WireMock.get;
 import static com.github.tomakehurst.wiremock.client.WireMock.put;
+import static org.awaitility.Awaitility.await;
 import static org.folio.holdingsiq.service.util.DataUtils.getResourceBody;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import com.github.tomakehurst.wiremock.http.RequestMethod;
 import com.github.tomakehurst.wiremock.matching.RequestPatternBuilder;
 import com.github.tomakehurst.wiremock.matching.UrlPattern;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import io.vertx.core.Vertx;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
 import lombok.SneakyThrows;
 import org.apache.hc.core5.http.HttpStatus;
+import org.folio.holdingsiq.model.ResourceId;
 import org.folio.holdingsiq.model.ResourceSelectedPayload;
+import org.folio.holdingsiq.service.BatchOptions;
+import org.folio.holdingsiq.service.HoldingsIQClientOptions;
+import org.folio.holdingsiq.service.ResourceOperation;
 import org.folio.holdingsiq.service.ResourcesHoldingsIQService;
+import org.folio.holdingsiq.service.exception.ResourceNotFoundException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -49,6 +60,21 @@ class ResourcesHoldingsIQServiceImplTest extends HoldingsIQServiceTestConfig {
     wm.verify(new RequestPatternBuilder(RequestMethod.GET, urlPattern));
   }
 
+  @Test
+  void selectResourceDoesNotReadResourceBack() {
+    ResourceSelectedPayload resourceSelectedPayload = new ResourceSelectedPayload(true, "titleName",
+      "pubType", STUB_BASE_URL);
+    var urlPattern = new UrlPattern(equalTo(URL), false);
+    wm.stubFor(
+      put(urlPattern).willReturn(aResponse().withStatus(HttpStatus.SC_NO_CONTENT))
+    );
+    var completableFuture = service.selectResource(resourceSelectedPayload, resourceId);
+
+    assertTrue(isCompletedNormally(completableFuture));
+    wm.verify(new RequestPatternBuilder(RequestMethod.PUT, urlPattern));
+    wm.verify(0, new RequestPatternBuilder(RequestMethod.GET, urlPattern));
+  }
+
   @Test
   @SneakyThrows
   void retrieveResources() {
@@ -76,6 +102,26 @@ class ResourcesHoldingsIQServiceImplTest extends HoldingsIQServiceTestConfig {
     wm.verify(new RequestPatternBuilder(RequestMethod.PUT, urlPattern));
   }
 
+  @Test
+  void cancellingUpdateResourceResetsRequest() {
+    var registry = new SimpleMeterRegistry();
+    var options = HoldingsIQClientOptions.builder().meterRegistry(registry).build();
+    var meteredService = new ResourcesHoldingsIQServiceImpl(getConfiguration(), Vertx.vertx(), options);
+    var urlPattern = new UrlPattern(equalTo(URL), false);
+    wm.stubFor(
+      put(urlPattern).willReturn(aResponse().withStatus(HttpStatus.SC_NO_CONTENT).withFixedDelay(5000))
+    );
+
+    var completableFuture = meteredService.updateResource(resourceId, resourcePut);
+    var inUse = registry.get(HoldingsClientMetrics.POOL_IN_USE).gauge();
+    await().atMost(2, TimeUnit.SECONDS).until(() -> inUse.value() == 1);
+    completableFuture.cancel(false);
+
+    await().atMost(2, TimeUnit.SECONDS).until(() -> inUse.value() == 0);
+    assertTrue(completableFuture.isCancelled());
+    wm.verify(1, new RequestPatternBuilder(RequestMethod.PUT, urlPattern));
+  }
+
   @Test
   void deleteResource() {
     var urlPattern = new UrlPattern(equalTo(URL), false);
@@ -87,4 +133,35 @@ class ResourcesHoldingsIQServiceImplTest extends HoldingsIQServiceTestConfig {
     assertTrue(isCompletedNormally(completableFuture));
     wm.verify(new RequestPatternBuilder(RequestMethod.PUT, urlPattern));
   }
+
+  @Test
+  @SneakyThrows
+  void applyResourceOperationsWithoutReadBack() {
+    var urlPattern = new UrlPattern(equalTo(URL), false);
+    var missingResourceId = new ResourceId(VENDOR_ID, PACKAGE_ID, TITLE_ID + 1);
+    var missingUrlPattern = new UrlPattern(equalTo("/rm/rmaccounts/" + STUB_CUSTOMER_ID + "/vendors/"
+      + VENDOR_ID + "/packages/" + PACKAGE_ID + "/titles/" + (TITLE_ID + 1)), false);
+    wm.stubFor(
+      put(urlPattern).willReturn(aResponse().withStatus(HttpStatus.SC_NO_CONTENT))
+    );
+    wm.stubFor(
+      put(missingUrlPattern).willReturn(aResponse().withStatus(HttpStatus.SC_NOT_FOUND))
+    );
+    var selected = new ResourceSelectedPayload(true, "titleName", "pubType", STUB_BASE_URL);
+
+    var completableFuture = service.applyResourceOperations(Stream.of(
+        ResourceOperation.select(resourceId, selected),
+        ResourceOperation.update(resourceId, resourcePut),
+        ResourceOperation.delete(missingResourceId)),
+      BatchOptions.builder().readBack(false).build());
+
+    var report = completableFuture.get(5, TimeUnit.SECONDS);
+    assertEquals(3, report.getTotal());
+    assertEquals(2, report.getSucceeded());
+    assertEquals(1, report.getFailed());
+    assertEquals(ResourceOperation.delete(missingResourceId), report.getFailures().getFirst().getOperation());
+    assertInstanceOf(ResourceNotFoundException.class, report.getFailures().getFirst().getCause());
+    wm.verify(2, new RequestPatternBuilder(RequestMethod.PUT, urlPattern));
+    wm.verify(0, new RequestPatternBuilder(RequestMethod.GET, urlPattern));
+  }
 }
@@ -3,27 +3,63 @@ package org.folio.holdingsiq.service.impl;
 import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
 import static com.github.tomakehurst.wiremock.client.WireMock.equalTo;
 import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.matching;
 import static com.github.tomakehurst.wiremock.client.WireMock.post;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
+import static com.github.tomakehurst.wiremock.stubbing.Scenario.STARTED;
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import com.github.tomakehurst.wiremock.http.RequestMethod;
 import com.github.tomakehurst.wiremock.matching.RequestPatternBuilder;
 import com.github.tomakehurst.wiremock.matching.UrlPattern;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import io.vertx.core.Vertx;
 import io.vertx.core.json.Json;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 import org.apache.hc.core5.http.HttpStatus;
+import org.folio.holdingsiq.model.CustomerResources;
 import org.folio.holdingsiq.model.Sort;
+import org.folio.holdingsiq.model.Title;
+import org.folio.holdingsiq.model.Titles;
+import org.folio.holdingsiq.service.BatchOptions;
+import org.folio.holdingsiq.service.HedgePolicy;
+import org.folio.holdingsiq.service.HoldingsIQClientOptions;
+import org.folio.holdingsiq.service.RateLimit;
+import org.folio.holdingsiq.service.RequestOptions;
 import org.folio.holdingsiq.service.TitlesHoldingsIQService;
+import org.folio.holdingsiq.service.exception.DeadlineExceededException;
+import org.folio.holdingsiq.service.exception.RateLimitExceededException;
+import org.folio.holdingsiq.service.exception.ResourceNotFoundException;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 class TitlesHoldingsIQServiceImplTest extends HoldingsIQServiceTestConfig {
 
+  private static final String TITLES_URL = "/rm/rmaccounts/" + STUB_CUSTOMER_ID + "/titles";
+  private static final Duration HEDGE_DELAY = Duration.ofMillis(10);
+
+  private final Vertx vertx = Vertx.vertx();
   private TitlesHoldingsIQService service;
 
   @BeforeEach
   void setUp() {
-    service = new TitlesHoldingsIQServiceImpl(getConfiguration(), Vertx.vertx());
+    service = new TitlesHoldingsIQServiceImpl(getConfiguration(), vertx);
+  }
+
+  @AfterEach
+  void closeVertx() {
+    vertx.close();
   }
 
   @Test
@@ -41,6 +77,107 @@ class TitlesHoldingsIQServiceImplTest extends HoldingsIQServiceTestConfig {
     wm.verify(new RequestPatternBuilder(RequestMethod.GET, urlPattern));
   }
 
+  @Test
+  void streamTitles() {
+    stubTitlesPage(1, titleWithResources(1), titleWithResources(2));
+    stubTitlesPage(2, Title.builder().titleId(3).customerResourcesList(List.of()).build(), titleWithResources(4));
+
+    var titleIds = service.streamTitles(filterQuery, null, Sort.NAME, 2, 2)
+      .collect(Collectors.mapping(Title::getTitleId, Collectors.toList()))
+      .toCompletionStage().toCompletableFuture();
+
+    assertTrue(isCompletedNormally(titleIds));
+    assertEquals(List.of(1, 2, 4), titleIds.join());
+    wm.verify(2, new RequestPatternBuilder(RequestMethod.GET, urlPathEqualTo(TITLES_URL)));
+  }
+
+  @Test
+  void retrieveTitleWaitsForRateLimit() {
+    var registry = new SimpleMeterRegistry();
+    var rateLimitedService = rateLimitedService(registry, RateLimit.builder().requestsPerSecond(2).utilization(1));
+    var urlPattern = new UrlPattern(matching("/rm/rmaccounts/" + STUB_CUSTOMER_ID + "/titles/.*"), false);
+    wm.stubFor(
+      get(urlPattern).willReturn(aResponse().withStatus(HttpStatus.SC_OK).withBody("{}"))
+    );
+
+    var first = rateLimitedService.retrieveTitle(TITLE_ID);
+    var second = rateLimitedService.retrieveTitle(TITLE_ID + 1);
+
+    assertTrue(isCompletedNormally(CompletableFuture.allOf(first, second)));
+    wm.verify(2, new RequestPatternBuilder(RequestMethod.GET, urlPattern));
+    var waits = registry.get(HoldingsClientMetrics.RATE_LIMIT_WAIT)
+      .tag(HoldingsClientMetrics.FAMILY_TAG, RateLimiter.TITLES)
+      .timer();
+    assertEquals(2, waits.count());
+    assertTrue(waits.max(TimeUnit.MILLISECONDS) > 0);
+  }
+
+  @Test
+  void retrieveTitleFailsWhenRateLimitWaitIsTooLong() {
+    var registry = new SimpleMeterRegistry();
+    var rateLimitedService = rateLimitedService(registry,
+      RateLimit.builder().requestsPerSecond(1).utilization(1).maxWait(Duration.ZERO));
+    var urlPattern = new UrlPattern(matching("/rm/rmaccounts/" + STUB_CUSTOMER_ID + "/titles/.*"), false);
+    wm.stubFor(
+      get(urlPattern).willReturn(aResponse().withStatus(HttpStatus.SC_OK).withBody("{}"))
+    );
+
+    var first = rateLimitedService.retrieveTitle(TITLE_ID);
+    var second = rateLimitedService.retrieveTitle(TITLE_ID + 1);
+
+    assertTrue(isCompletedNormally(first));
+    var exception = assertThrows(ExecutionException.class, second::get);
+    var cause = assertInstanceOf(RateLimitExceededException.class, exception.getCause());
+    assertEquals(RateLimiter.TITLES, cause.getEndpointFamily());
+    wm.verify(1, new RequestPatternBuilder(RequestMethod.GET, urlPattern));
+    assertEquals(1, registry.get(HoldingsClientMetrics.RATE_LIMIT_REJECTED)
+      .tag(HoldingsClientMetrics.FAMILY_TAG, RateLimiter.TITLES)
+      .counter()
+      .count());
+  }
+
+  @Test
+  void retrieveTitleIsHedgedWhenResponseIsSlow() {
+    var registry = new SimpleMeterRegistry();
+    var hedgingService = hedgingService(registry, HedgePolicy.forRecordLookups());
+    var urlPattern = new UrlPattern(equalTo("/rm/rmaccounts/" + STUB_CUSTOMER_ID + "/titles/" + TITLE_ID), false);
+    wm.stubFor(get(urlPattern).inScenario("slow").whenScenarioStateIs(STARTED)
+      .willReturn(aResponse().withStatus(HttpStatus.SC_OK).withBody("{}").withFixedDelay(500))
+      .willSetStateTo("fast"));
+    wm.stubFor(get(urlPattern).inScenario("slow").whenScenarioStateIs("fast")
+      .willReturn(aResponse().withStatus(HttpStatus.SC_OK).withBody("{}")));
+
+    var completableFuture = hedgingService.retrieveTitle(TITLE_ID);
+
+    assertTrue(isCompletedNormally(completableFuture));
+    wm.verify(2, new RequestPatternBuilder(RequestMethod.GET, urlPattern));
+    assertEquals(1, registry.get(HoldingsClientMetrics.HEDGES)
+      .tag(HoldingsClientMetrics.ENDPOINT_TAG, HedgePolicy.TITLE_ENDPOINT)
+      .counter().count());
+    assertEquals(1, registry.get(HoldingsClientMetrics.HEDGE_WINS)
+      .tag(HoldingsClientMetrics.WINNER_TAG, RequestHedger.HEDGE)
+      .counter().count());
+  }
+
+  @Test
+  void retrieveTitleIsNotHedgedWhenBudgetIsUsedUp() {
+    var registry = new SimpleMeterRegistry();
+    var hedgingService = hedgingService(registry, HedgePolicy.forRecordLookups().toBuilder()
+      .budgetRatio(0)
+      .budgetCapacity(0)
+      .build());
+    var urlPattern = new UrlPattern(equalTo("/rm/rmaccounts/" + STUB_CUSTOMER_ID + "/titles/" + TITLE_ID), false);
+    wm.stubFor(
+      get(urlPattern).willReturn(aResponse().withStatus(HttpStatus.SC_OK).withBody("{}").withFixedDelay(100))
+    );
+
+    assertTrue(isCompletedNormally(hedgingService.retrieveTitle(TITLE_ID)));
+    wm.verify(1, new RequestPatternBuilder(RequestMethod.GET, urlPattern));
+    assertEquals(1, registry.get(HoldingsClientMetrics.HEDGES_SKIPPED)
+      .tag(HoldingsClientMetrics.ENDPOINT_TAG, HedgePolicy.TITLE_ENDPOINT)
+      .counter().count());
+  }
+
   @Test
   void retrieveTitlesWithVendorId() {
     var urlPattern = new UrlPattern(equalTo(
@@ -69,6 +206,31 @@ class TitlesHoldingsIQServiceImplTest extends HoldingsIQServiceTestConfig {
     wm.verify(new RequestPatternBuilder(RequestMethod.GET, urlPattern));
   }
 
+  @Test
+  void retrieveTitlesByIds() throws Exception {
+    var urlPattern = new UrlPattern(equalTo("/rm/rmaccounts/" + STUB_CUSTOMER_ID + "/titles/" + TITLE_ID), false);
+    var missingUrlPattern = new UrlPattern(
+      equalTo("/rm/rmaccounts/" + STUB_CUSTOMER_ID + "/titles/" + (TITLE_ID + 1)), false);
+    wm.stubFor(
+      get(urlPattern).willReturn(aResponse().withStatus(HttpStatus.SC_OK).withBody(Json.encode(titleCreated)))
+    );
+    wm.stubFor(
+      get(missingUrlPattern).willReturn(aResponse().withStatus(HttpStatus.SC_NOT_FOUND))
+    );
+    List<Integer> delivered = new ArrayList<>();
+
+    var completableFuture = service.retrieveTitles(List.of(TITLE_ID + 1, TITLE_ID, TITLE_ID + 1),
+      BatchOptions.builder().concurrency(2).build(), (titleId, title) -> delivered.add(titleId));
+
+    var result = completableFuture.get(5, TimeUnit.SECONDS);
+    assertEquals(List.of(TITLE_ID), List.copyOf(result.getResults().keySet()));
+    assertEquals(TITLE_ID, result.getResults().get(TITLE_ID).getTitleId());
+    assertInstanceOf(ResourceNotFoundException.class, result.getFailures().get(TITLE_ID + 1));
+    assertEquals(List.of(TITLE_ID), delivered);
+    wm.verify(1, new RequestPatternBuilder(RequestMethod.GET, urlPattern));
+    wm.verify(1, new RequestPatternBuilder(RequestMethod.GET, missingUrlPattern));
+  }
+
   @Test
   void postTitle() {
     var urlPatternPost = new UrlPattern(
@@ -87,4 +249,115 @@ class TitlesHoldingsIQServiceImplTest extends HoldingsIQServiceTestConfig {
     wm.verify(new RequestPatternBuilder(RequestMethod.POST, urlPatternPost));
     wm.verify(new RequestPatternBuilder(RequestMethod.GET, urlPatternGet));
   }
+
+  @Test
+  void createTitleDoesNotReadTitleBack() throws Exception {
+    var urlPatternPost = new UrlPattern(
+      equalTo("/rm/rmaccounts/" + STUB_CUSTOMER_ID + "/vendors/" + VENDOR_ID + "/packages/" + PACKAGE_ID + "/titles"),
+      false);
+    wm.stubFor(
+      post(urlPatternPost).willReturn(aResponse().withStatus(HttpStatus.SC_OK).withBody(Json.encode(titleCreated)))
+    );
+    var completableFuture = service.createTitle(titlePost, packageId);
+
+    assertEquals(TITLE_ID, completableFuture.get(5, TimeUnit.SECONDS));
+    wm.verify(new RequestPatternBuilder(RequestMethod.POST, urlPatternPost));
+    wm.verify(0, new RequestPatternBuilder(RequestMethod.GET, new UrlPattern(matching(".*/titles/.*"), true)));
+  }
+
+  @Test
+  void retrieveTitleFailsWhenDeadlineIsExceeded() {
+    var urlPattern = new UrlPattern(equalTo("/rm/rmaccounts/" + STUB_CUSTOMER_ID + "/titles/" + TITLE_ID), false);
+    wm.stubFor(
+      get(urlPattern).willReturn(aResponse().withStatus(HttpStatus.SC_OK).withBody("{}").withFixedDelay(3000))
+    );
+
+    var completableFuture = service.withRequestOptions(RequestOptions.timeout(Duration.ofMillis(200)))
+      .retrieveTitle(TITLE_ID);
+
+    await().atMost(2, TimeUnit.SECONDS).until(completableFuture::isDone);
+    var exception = assertThrows(ExecutionException.class, completableFuture::get);
+    assertInstanceOf(DeadlineExceededException.class, exception.getCause());
+  }
+
+  @Test
+  void retrieveTitleIsNotSentWhenDeadlinePassed() {
+    var urlPattern = new UrlPattern(equalTo("/rm/rmaccounts/" + STUB_CUSTOMER_ID + "/titles/" + TITLE_ID), false);
+
+    var completableFuture = service.withRequestOptions(RequestOptions.timeout(Duration.ZERO))
+      .retrieveTitle(TITLE_ID);
+
+    var exception = assertThrows(ExecutionException.class, completableFuture::get);
+    assertInstanceOf(DeadlineExceededException.class, exception.getCause());
+    wm.verify(0, new RequestPatternBuilder(RequestMethod.GET, urlPattern));
+  }
+
+  @Test
+  void postTitleSharesDeadlineWithReadBack() {
+    var urlPatternPost = new UrlPattern(
+      equalTo("/rm/rmaccounts/" + STUB_CUSTOMER_ID + "/vendors/" + VENDOR_ID + "/packages/" + PACKAGE_ID + "/titles"),
+      false);
+    var urlPatternGet = new UrlPattern(equalTo("/rm/rmaccounts/" + STUB_CUSTOMER_ID + "/titles/" + TITLE_ID), false);
+    wm.stubFor(
+      post(urlPatternPost).willReturn(aResponse().withStatus(HttpStatus.SC_OK).withBody(Json.encode(titleCreated))
+        .withFixedDelay(300))
+    );
+    wm.stubFor(
+      get(urlPatternGet).willReturn(aResponse().withStatus(HttpStatus.SC_OK).withBody(Json.encode(titleCreated))
+        .withFixedDelay(300))
+    );
+
+    var completableFuture = service.withRequestOptions(RequestOptions.timeout(Duration.ofMillis(450)))
+      .postTitle(titlePost, packageId);
+
+    await().atMost(2, TimeUnit.SECONDS).until(completableFuture::isDone);
+    var exception = assertThrows(ExecutionException.class, completableFuture::get);
+    assertInstanceOf(DeadlineExceededException.class, exception.getCause());
+    wm.verify(new RequestPatternBuilder(RequestMethod.GET, urlPatternGet));
+  }
+
+  @Test
+  void cancellingRetrieveTitleReleasesConnection() {
+    var registry = new SimpleMeterRegistry();
+    var options = HoldingsIQClientOptions.builder().meterRegistry(registry).build();
+    var meteredService = new TitlesHoldingsIQServiceImpl(getConfiguration(), vertx, options);
+    var urlPattern = new UrlPattern(equalTo("/rm/rmaccounts/" + STUB_CUSTOMER_ID + "/titles/" + TITLE_ID), false);
+    wm.stubFor(
+      get(urlPattern).willReturn(aResponse().withStatus(HttpStatus.SC_OK).withBody("{}").withFixedDelay(5000))
+    );
+
+    var completableFuture = meteredService.retrieveTitle(TITLE_ID);
+    var inUse = registry.get(HoldingsClientMetrics.POOL_IN_USE).gauge();
+    await().atMost(2, TimeUnit.SECONDS).until(() -> inUse.value() == 1);
+    completableFuture.cancel(false);
+
+    await().atMost(2, TimeUnit.SECONDS).until(() -> inUse.value() == 0);
+    assertTrue(completableFuture.isCancelled());
+  }
+
+  private void stubTitlesPage(int page, Title... pageTitles) {
+    var body = Titles.builder().titleList(List.of(pageTitles)).totalResults(4).build();
+    wm.stubFor(get(urlPathEqualTo(TITLES_URL)).withQueryParam("offset", equalTo(String.valueOf(page)))
+      .willReturn(aResponse().withStatus(HttpStatus.SC_OK).withBody(Json.encode(body))));
+  }
+
+  private static Title titleWithResources(int titleId) {
+    return Title.builder().titleId(titleId).customerResourcesList(List.of(CustomerResources.builder().build())).build();
+  }
+
+  private TitlesHoldingsIQService rateLimitedService(SimpleMeterRegistry registry, RateLimit.RateLimitBuilder rateLimit) {
+    var options = HoldingsIQClientOptions.builder()
+      .meterRegistry(registry)
+      .rateLimit(RateLimiter.TITLES, rateLimit.build())
+      .build();
+    return new TitlesHoldingsIQServiceImpl(getConfiguration(), vertx, options);
+  }
+
+  private TitlesHoldingsIQService hedgingService(SimpleMeterRegistry registry, HedgePolicy hedgePolicy) {
+    var options = HoldingsIQClientOptions.builder()
+      .meterRegistry(registry)
+      .hedgePolicy(hedgePolicy.toBuilder().initialDelay(HEDGE_DELAY).minDelay(HEDGE_DELAY).build())
+      .build();
+    return new TitlesHoldingsIQServiceImpl(getConfiguration(), vertx, options);
+  }
 }
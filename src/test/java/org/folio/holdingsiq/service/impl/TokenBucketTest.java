@@ -0,0 +1,49 @@
+package org.folio.holdingsiq.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.folio.holdingsiq.service.RateLimit;
+
+class TokenBucketTest {
+
+  private static final long MILLIS = TimeUnit.MILLISECONDS.toNanos(1);
+
+  @Test
+  void shouldSpaceRequestsAfterBurst() {
+    var bucket = new TokenBucket(RateLimit.builder().requestsPerSecond(10).utilization(1).burst(2).build());
+    long now = System.nanoTime();
+
+    assertEquals(0, bucket.reserve(now));
+    assertEquals(0, bucket.reserve(now));
+    assertEquals(100 * MILLIS, bucket.reserve(now));
+    assertEquals(200 * MILLIS, bucket.reserve(now));
+    assertEquals(0, bucket.reserve(now + 500 * MILLIS));
+  }
+
+  @Test
+  void shouldKeepRateUnderQuota() {
+    var bucket = new TokenBucket(RateLimit.builder().requestsPerSecond(10).utilization(0.5).build());
+    long now = System.nanoTime();
+
+    assertEquals(0, bucket.reserve(now));
+    assertEquals(200 * MILLIS, bucket.reserve(now));
+  }
+
+  @Test
+  void shouldRejectRequestsThatWaitTooLong() {
+    var bucket = new TokenBucket(RateLimit.builder()
+      .requestsPerSecond(10)
+      .utilization(1)
+      .maxWait(Duration.ofMillis(150))
+      .build());
+    long now = System.nanoTime();
+
+    assertEquals(0, bucket.reserve(now));
+    assertEquals(100 * MILLIS, bucket.reserve(now));
+    assertEquals(-1, bucket.reserve(now));
+    assertEquals(100 * MILLIS, bucket.reserve(now + 100 * MILLIS));
+  }
+}